@@ -6,21 +6,19 @@ import jakarta.servlet.annotation.MultipartConfig;
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import jakarta.servlet.http.Part;
 
 import java.io.IOException;
-import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
-import java.lang.reflect.Type;
-import java.lang.reflect.ParameterizedType;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 
 import framework.util.*;
 import framework.views.ModelView;
@@ -34,47 +32,133 @@ import framework.annotations.*;
 )
 
 public class FrontServlet extends HttpServlet {
-    private UrlScanner.ScanResult scanResult = new UrlScanner.ScanResult();
-    // HashMap pour ActionMapping
-    private HashMap<String, List<ActionMapping>> actionMappings = new HashMap<>();
+    private static final Logger LOG = Logger.get(FrontServlet.class);
+    private static final byte[] JSON_ERROR_500 =
+            "{\"status\":\"ERROR\",\"code\":500,\"count\":0,\"data\":{}}\n".getBytes(StandardCharsets.UTF_8);
+
+    // Table de routage courante (mappings, index, sources d'instances des contrôleurs) :
+    // instantané immuable lu sans verrou, remplacé en bloc par init() et l'API d'enregistrement
+    private final AtomicReference<RouteTable> routeTable = new AtomicReference<>(RouteTable.EMPTY);
+    // sérialise les modifications de la table (jamais pris par les requêtes)
+    private final Object routeUpdateLock = new Object();
+    // Compteurs par route et URL réservée qui les publie : metrics.path (ex: /__metrics), à déclarer
+    // explicitement car la page n'est pas protégée et liste les routes et contrôleurs ; absente = désactivée
+    private RouteMetrics metrics = new RouteMetrics();
+    private String metricsPath = "";
+    // Octets de corps (JSON, fichiers) que les requêtes en cours peuvent garder dans le tas
+    private BodyBudget bodyBudget = BodyBudget.DISABLED;
 
     @Override
-    public void init() {
+    public void init() throws ServletException {
         try {
+            // Registres générés à la compilation quand ils sont complets, sinon lecture des .class de WEB-INF
+            Map<Class<?>, List<Method>> controllers = UrlScanner.findControllers(getServletContext());
             // Ancien système (pour compatibilité)
-            scanResult = UrlScanner.scan(getServletContext());
-            
-            //  : Utiliser getAllUrl()
-            actionMappings = UrlScanner.getAllUrl(getServletContext());
-            
-            getServletContext().setAttribute("controllerMappings", scanResult.urlMappings);
+            UrlScanner.ScanResult scanResult = UrlScanner.scan(controllers);
+            HashMap<String, List<ActionMapping>> actionMappings = UrlScanner.getAllUrl(controllers);
+
+            RouteMetrics newMetrics = new RouteMetrics();
+            registerMetrics(newMetrics, actionMappings, scanResult.urlMappings);
+            metrics = newMetrics;
+            publish(RouteTable.of(actionMappings, scanResult.urlMappings));
+            // session.mode invalide (secret absent...) : erreur au démarrage plutôt qu'à la première requête
+            SessionBackend sessions = SessionBackend.configure(getServletContext());
+            if (!"container".equals(sessions.getMode())) LOG.info("Sessions : mode " + sessions.getMode());
+            MultipartConfig multipart = FrontServlet.class.getAnnotation(MultipartConfig.class);
+            bodyBudget = BodyBudget.fromProperties(multipart.maxRequestSize());
+            if (bodyBudget.isEnabled()) LOG.info("Budget des corps de requête : " + bodyBudget.getCapacity() + " octets");
+            String configuredPath = PropertiesUtil.get("metrics.path");
+            metricsPath = configuredPath != null ? configuredPath.trim() : "";
+            if (!metricsPath.isEmpty()) LOG.info("Métriques publiées sur " + metricsPath);
+
+            if (LOG.isInfoEnabled()) {
+                LOG.info("=== UrlMapping (ancien) ===");
+                for (UrlMapping cm : scanResult.urlMappings) {
+                    LOG.info("Mapped URL: " + cm.getUrl() + " -> " +
+                            cm.getMethod().getDeclaringClass().getName() + "#" + cm.getMethod().getName());
+                }
 
-            // Debug
-            System.out.println("=== UrlMapping (ancien) ===");
-            for (UrlMapping cm : scanResult.urlMappings) {
-                System.out.println("Mapped URL: " + cm.getUrl() + " -> " +
-                        cm.getMethod().getDeclaringClass().getName() + "#" + cm.getMethod().getName());
-            }
-            
-            // ActionMapping (nouveau)
-            System.out.println("\n=== ActionMapping (nouveau) ===");
-            for (String url : actionMappings.keySet()) {
-                List<ActionMapping> list = actionMappings.get(url);
-                for (ActionMapping am : list) {
-                    System.out.println("Mapped URL: " + url + " -> " + 
-                            am.getTheClassName() + "#" + am.getTheMethod().getName() + 
-                            " [" + am.getHttpMethod() + "]");
+                // ActionMapping (nouveau)
+                LOG.info("=== ActionMapping (nouveau) ===");
+                for (String url : actionMappings.keySet()) {
+                    List<ActionMapping> list = actionMappings.get(url);
+                    for (ActionMapping am : list) {
+                        LOG.info("Mapped URL: " + url + " -> " +
+                                am.getTheClassName() + "#" + am.getTheMethod().getName() +
+                                " [" + am.getHttpMethod() + "]");
+                    }
                 }
             }
             
+        } catch (IllegalStateException ex) {
+            // Erreur de configuration d'une action (ex: @Session mal typé) : le servlet ne démarre pas
+            throw new ServletException("Configuration invalide: " + ex.getMessage(), ex);
         } catch (Exception ex) {
-            scanResult = new UrlScanner.ScanResult();
-            actionMappings = new HashMap<>();
-            System.err.println("Scanner init error: " + ex.getMessage());
-            ex.printStackTrace();
+            routeTable.set(RouteTable.EMPTY);
+            metrics = new RouteMetrics();
+            LOG.error("Scanner init error: " + ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Ajoute les routes d'un contrôleur (ex: plugin, activation d'une fonctionnalité) sans redémarrage.
+     * Les requêtes en cours continuent sur l'ancienne table ; les suivantes voient la nouvelle.
+     * @throws IllegalStateException si une action est mal configurée (comme au démarrage)
+     */
+    public void registerController(Class<?> cls) {
+        Map<Class<?>, List<Method>> controller = Map.of(cls, Arrays.asList(cls.getDeclaredMethods()));
+        UrlScanner.ScanResult scanResult = UrlScanner.scan(controller);
+        HashMap<String, List<ActionMapping>> added = UrlScanner.getAllUrl(controller);
+
+        synchronized (routeUpdateLock) {
+            registerMetrics(metrics, added, scanResult.urlMappings);
+            publish(routeTable.get().withoutController(cls).withRoutes(added, scanResult.urlMappings));
+        }
+        LOG.info("Contrôleur enregistré : " + cls.getName());
+    }
+
+    /**
+     * Retire toutes les routes d'un contrôleur.
+     */
+    public void unregisterController(Class<?> cls) {
+        synchronized (routeUpdateLock) {
+            publish(routeTable.get().withoutController(cls));
+        }
+        LOG.info("Contrôleur retiré : " + cls.getName());
+    }
+
+    /**
+     * Désactive une route (elle ne répond plus) sans la retirer.
+     * @param httpMethod méthode déclarée (GET, POST, ALL), null pour toutes
+     */
+    public void disableRoute(String httpMethod, String pattern) {
+        synchronized (routeUpdateLock) {
+            publish(routeTable.get().withDisabled(httpMethod, pattern, true));
         }
     }
 
+    public void enableRoute(String httpMethod, String pattern) {
+        synchronized (routeUpdateLock) {
+            publish(routeTable.get().withDisabled(httpMethod, pattern, false));
+        }
+    }
+
+    public RouteTable getRouteTable() {
+        return routeTable.get();
+    }
+
+    private void publish(RouteTable table) {
+        routeTable.set(table);
+        getServletContext().setAttribute("controllerMappings", table.getUrlMappings());
+    }
+
+    @Override
+    public void destroy() {
+        SessionBackend.shutdown();
+        Logger.shutdown();
+        super.destroy();
+    }
+
     @Override
     protected void doGet(HttpServletRequest req, HttpServletResponse res) throws ServletException, IOException {
         handleRequest(req, res);
@@ -94,7 +178,14 @@ public class FrontServlet extends HttpServlet {
         if (matchPath.length() > 1 && matchPath.endsWith("/")) 
             matchPath = matchPath.substring(0, matchPath.length() - 1);
 
-        System.out.println("handleRequest: fullUri=" + fullUri + " context=" + context + " -> matchPath=" + matchPath + " method=" + req.getMethod());
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("handleRequest: fullUri=" + fullUri + " context=" + context + " -> matchPath=" + matchPath + " method=" + req.getMethod());
+        }
+
+        if (!metricsPath.isEmpty() && metricsPath.equals(matchPath) && "GET".equals(req.getMethod())) {
+            writeMetrics(res);
+            return;
+        }
 
         // Vérifier ressources statiques
         boolean ressources = getServletContext().getResource(matchPath) != null;
@@ -104,100 +195,85 @@ public class FrontServlet extends HttpServlet {
             return;
         }
 
+        // une seule lecture de la table : toute la requête voit le même instantané
+        RouteTable table = routeTable.get();
+
         // Essayer d'abord avec ActionMapping (nouveau système)
-        ActionMapping actionMapping = findActionMapping(matchPath, req.getMethod(), req);
-        if (actionMapping != null) {
-            handleActionMapping(req, res, actionMapping);
+        RouteMatch<ActionMapping> actionMatch = findActionMapping(table.getActionRoutes(), matchPath, req.getMethod());
+        if (actionMatch != null) {
+            ActionMapping actionMapping = actionMatch.getHandler();
+            RouteMetrics.Route stats = metrics.route(actionMapping.getRouteId());
+            long start = stats.start();
+            try {
+                handleActionMapping(req, res, table, actionMapping, actionMatch, stats);
+            } finally {
+                stats.finish(start, res.getStatus());
+            }
             return;
         }
 
         // Fallback : utiliser UrlMatcher (ancien système)
-        UrlMapping matchedMapping = UrlMatcher.findMapping(matchPath, req.getMethod(), scanResult.urlMappings, req);
-        System.out.println("UrlMatcher retourne: " + (matchedMapping != null ? matchedMapping.getUrl() : "NULL"));
-        if (matchedMapping != null) {
-            System.out.println("Appel handleMappedMethod...");
-            handleMappedMethod(req, res, matchedMapping.getMethod());
-        } else {
-            System.out.println("Pas de mapping trouvé, customServe...");
-            customServe(req, res);
+        RouteMatch<UrlMapping> urlMatch = UrlMatcher.find(matchPath, req.getMethod(), table.getUrlRoutes());
+        UrlMapping matchedMapping = urlMatch != null ? urlMatch.getHandler() : null;
+        RouteMetrics.Route stats = matchedMapping != null ? metrics.route(matchedMapping.getRouteId()) : metrics.unmatched();
+        long start = stats.start();
+        try {
+            if (matchedMapping != null) {
+                handleMappedMethod(req, res, table, matchedMapping, urlMatch, stats);
+            } else {
+                if (LOG.isDebugEnabled()) LOG.debug("Pas de mapping trouvé pour " + matchPath + ", customServe...");
+                customServe(req, res);
+            }
+        } finally {
+            stats.finish(start, res.getStatus());
         }
     }
 
     //  MÉTHODE : Trouver ActionMapping
-    private ActionMapping findActionMapping(String path, String httpMethod, HttpServletRequest req) {
-        System.out.println("=== RECHERCHE ACTION MAPPING ===");
-        System.out.println("Path cherché: " + path + " | HTTP Method: " + httpMethod);
-
-        // 1) Correspondance exacte (sans normalisation)
-        if (actionMappings.containsKey(path)) {
-            List<ActionMapping> list = actionMappings.get(path);
-            for (ActionMapping am : list) {
-                if ("ALL".equals(am.getHttpMethod()) || httpMethod.equals(am.getHttpMethod())) {
-                    System.out.println("  ✓✓ TROUVÉ ActionMapping exact : " + path);
-                    return am;
-                }
-            }
+    // visibilité package : utilisé aussi par les benchmarks (module benchmarks)
+    // les variables de chemin restent dans la RouteMatch (pas d'attributs de requête ici)
+    static RouteMatch<ActionMapping> findActionMapping(RouteTree<ActionMapping> actionRoutes, String path,
+                                                       String httpMethod) {
+        RouteMatch<ActionMapping> match = actionRoutes.find(path, httpMethod);
+        if (match != null && LOG.isDebugEnabled()) {
+            LOG.debug("ActionMapping trouvé : " + path + " [" + httpMethod + "] -> " + match.getPattern());
         }
-        
-        // 2) Correspondance dynamique avec {param}
-        for (String pattern : actionMappings.keySet()) {
-            if (pattern.contains("{")) {
-                String regex = pattern.replaceAll("\\{[^/]+\\}", "([^/]+)");
-                if (path.matches(regex)) {
-                    extractPathParams(pattern, path, req);
-                    List<ActionMapping> list = actionMappings.get(pattern);
-                    for (ActionMapping am : list) {
-                        if ("ALL".equals(am.getHttpMethod()) || httpMethod.equals(am.getHttpMethod())) {
-                            System.out.println("  ✓✓ TROUVÉ ActionMapping dynamique : " + pattern);
-                            return am;
-                        }
-                    }
-                }
-            }
-        }
-        
-        System.out.println("  Aucun ActionMapping trouvé");
-        return null;
+        return match;
     }
 
     //  MÉTHODE : Gérer ActionMapping
-    private void handleActionMapping(HttpServletRequest req, HttpServletResponse res, ActionMapping am) throws IOException {
+    private void handleActionMapping(HttpServletRequest req, HttpServletResponse res, RouteTable table,
+                                     ActionMapping am, RouteMatch<?> match, RouteMetrics.Route stats)
+            throws IOException {
         try {
-            // Vérification d'autorisation
-            if (!AuthManager.isAuthorized(am.getTheMethod(), req)) {
-                boolean isJson = am.getTheMethod().isAnnotationPresent(framework.annotations.JSON.class);
-                PrintWriter out = res.getWriter();
-                
-                if (isJson) {
-                    sendJsonEnvelope(res, out, Map.of("message", "Unauthorized"), false, "401");
-                } else {
-                    res.setContentType("text/plain;charset=UTF-8");
-                    out.println("Unauthorized");
-                }
+            // Vérification d'autorisation (politique compilée au scan)
+            AuthManager.Policy policy = am.getAuthPolicy();
+            int access = policy.check(req);
+            if (access != AuthManager.ALLOWED) {
+                stats.authRejected();
+                policy.reject(res, access);
                 return;
             }
 
-            Class<?> controllerClass = Class.forName(am.getTheClassName());
-            Object controller = controllerClass.getDeclaredConstructor().newInstance();
-            Object result = invokeMethod(am.getTheMethod(), req, controller);
-            handleReturnValue(res.getWriter(), req, res, am.getTheMethod(), result);
+            // Place dans le budget des corps avant de lire le JSON ou les fichiers
+            long charge = bodyBudget.chargeFor(am.getArgumentPlan(), req);
+            if (!bodyBudget.acquire(charge)) {
+                bodyBudget.reject(res, am.getTheMethod().isAnnotationPresent(JSON.class));
+                return;
+            }
+            Object result;
+            try {
+                result = invokeController(table, am.getInvoker(), am.getArgumentPlan(), req, res, match);
+            } finally {
+                // corps lu et lié : la réservation ne couvre pas l'écriture de la réponse
+                bodyBudget.release(charge);
+            }
+            handleReturnValue(req, res, am.getTheMethod(), result);
         } catch (Exception ex) {
+            LOG.error("Erreur invocation " + am.getTheClassName() + "#" + am.getTheMethod().getName(), ex);
+            if (res.isCommitted()) throw abortCommitted(ex);
             res.setContentType("text/plain;charset=UTF-8");
             res.getWriter().println("Erreur invocation ActionMapping: " + ex.toString());
-            ex.printStackTrace();
-        }
-    }
-
-    private void extractPathParams(String pattern, String actualPath, HttpServletRequest req) {
-        String[] patternParts = pattern.split("/");
-        String[] pathParts = actualPath.split("/");
-        
-        for (int i = 0; i < patternParts.length && i < pathParts.length; i++) {
-            if (patternParts[i].startsWith("{") && patternParts[i].endsWith("}")) {
-                String paramName = patternParts[i].substring(1, patternParts[i].length() - 1);
-                String paramValue = pathParts[i];
-                req.setAttribute(paramName, paramValue);
-            }
         }
     }
 
@@ -211,31 +287,45 @@ public class FrontServlet extends HttpServlet {
         }
     }
 
-    private boolean handleMappedMethod(HttpServletRequest req, HttpServletResponse res, Method m) throws IOException {
-        Class<?> cls = m.getDeclaringClass();
+    private boolean handleMappedMethod(HttpServletRequest req, HttpServletResponse res, RouteTable table,
+                                       UrlMapping mapping, RouteMatch<?> match, RouteMetrics.Route stats)
+            throws IOException {
+        Method m = mapping.getMethod();
+
+        // Vérification d'autorisation (politique compilée au scan)
+        AuthManager.Policy policy = mapping.getAuthPolicy();
+        int access = policy.check(req);
+        if (access != AuthManager.ALLOWED) {
+            stats.authRejected();
+            policy.reject(res, access);
+            return false;
+        }
 
-        // Vérification d'autorisation
-        if (!AuthManager.isAuthorized(m, req)) {
-            boolean isJson = m.isAnnotationPresent(framework.annotations.JSON.class);
-            PrintWriter out = res.getWriter();
-            
-            if (isJson) {
-                sendJsonEnvelope(res, out, Map.of("message", "Unauthorized"), false, "401");
-            } else {
-                res.setContentType("text/plain;charset=UTF-8");
-                out.println("Unauthorized");
-            }
+        // Place dans le budget des corps avant de lire le JSON ou les fichiers
+        long charge = bodyBudget.chargeFor(mapping.getArgumentPlan(), req);
+        if (!bodyBudget.acquire(charge)) {
+            bodyBudget.reject(res, m.isAnnotationPresent(JSON.class));
             return false;
         }
 
         try {
-            Object result = invokeMethod(m, req, cls.getDeclaredConstructor().newInstance());
-            handleReturnValue(res.getWriter(), req, res, m, result);
+            Object result;
+            try {
+                result = invokeController(table, mapping.getInvoker(), mapping.getArgumentPlan(), req, res, match);
+            } finally {
+                // corps lu et lié : la réservation ne couvre pas l'écriture de la réponse
+                bodyBudget.release(charge);
+            }
+            handleReturnValue(req, res, m, result);
         } catch (InvocationTargetException ite) {
             res.setContentType("text/plain;charset=UTF-8");
             res.getWriter().println("Erreur invocation: " + ite.getTargetException());
             return false;
         } catch (Exception ex) {
+            if (res.isCommitted()) {
+                LOG.error("Erreur après envoi partiel de la réponse " + m.getDeclaringClass().getName() + "#" + m.getName(), ex);
+                throw abortCommitted(ex);
+            }
             res.setContentType("text/plain;charset=UTF-8");
             res.getWriter().println("Erreur invocation: " + ex.toString());
             return false;
@@ -243,15 +333,14 @@ public class FrontServlet extends HttpServlet {
         return true;
     }
 
-    private void handleReturnValue(PrintWriter out, HttpServletRequest req, HttpServletResponse res, Method m, Object result) 
+    private void handleReturnValue(HttpServletRequest req, HttpServletResponse res, Method m, Object result) 
             throws ServletException, IOException {
         
-        Class<?> returnType = m.getReturnType();
-        
-        // If method annotated with @JSON -> return structured JSON
+        // If method annotated with @JSON -> return structured JSON, streamed as UTF-8
         if (m.isAnnotationPresent(framework.annotations.JSON.class)) {
             res.setContentType("application/json;charset=UTF-8");
-            try (PrintWriter pw = res.getWriter()) {
+            OutputStream os = res.getOutputStream();
+            try {
                 framework.views.JSONResponse jr = new framework.views.JSONResponse();
 
                 if (result instanceof java.util.Map) {
@@ -261,23 +350,20 @@ public class FrontServlet extends HttpServlet {
                     jr.setCount(map.size());
                 } else {
                     // build nested data map from request parameters (dot + bracket notation)
-                    Map<String, Object> nested = new java.util.HashMap<>();
-                    Map<String, String[]> paramMap = req.getParameterMap();
-                    for (String fullKey : paramMap.keySet()) {
-                        String[] vals = paramMap.get(fullKey);
-                        if (vals == null) continue;
-                        Object value = (vals.length == 1) ? vals[0] : vals;
-                        putNested(nested, fullKey, value);
-                    }
+                    Map<String, Object> nested = ParamTree.of(req).toNestedMap();
                     jr.setData(nested);
                     jr.setCount(nested.size());
                 }
 
-                pw.print(jr.toJson());
-                pw.flush();
+                jr.writeTo(os);
+                os.flush();
             } catch (Exception ex) {
+                // début du document déjà parti avec un statut 200 : pas de second document à la suite
+                if (res.isCommitted()) throw abortCommitted(ex);
+                res.resetBuffer();
                 res.setStatus(500);
-                res.getWriter().println("{\"status\":\"ERROR\",\"code\":500,\"count\":0,\"data\":{}}");
+                os.write(JSON_ERROR_500);
+                os.flush();
             }
             return;
         }
@@ -288,6 +374,7 @@ public class FrontServlet extends HttpServlet {
         }
         
         res.setContentType("text/plain;charset=UTF-8");
+        PrintWriter out = res.getWriter();
         Class<?> cls = m.getDeclaringClass();
         
         if (!cls.isAnnotationPresent(Controller.class)) {
@@ -306,112 +393,11 @@ public class FrontServlet extends HttpServlet {
         }
     }
 
-    // Envoyer une réponse JSON structurée
-    private void sendJsonEnvelope(HttpServletResponse res, PrintWriter out, Map<String, Object> data, 
-                                   boolean success, String statusCode) {
-        res.setContentType("application/json;charset=UTF-8");
-        res.setStatus(Integer.parseInt(statusCode));
-        
-        framework.views.JSONResponse jr = new framework.views.JSONResponse();
-        jr.setData(data);
-        jr.setCount(data.size());
-        
-        out.print(jr.toJson());
-        out.flush();
-    }
-
-    // Minimal JSON string escaper
-    private static String escapeJson(String s) {
-        if (s == null) return "";
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < s.length(); i++) {
-            char c = s.charAt(i);
-            switch (c) {
-                case '"': sb.append("\\\""); break;
-                case '\\': sb.append("\\\\"); break;
-                case '\b': sb.append("\\b"); break;
-                case '\f': sb.append("\\f"); break;
-                case '\n': sb.append("\\n"); break;
-                case '\r': sb.append("\\r"); break;
-                case '\t': sb.append("\\t"); break;
-                default:
-                    if (c < ' ') {
-                        sb.append(String.format("\\u%04x", (int)c));
-                    } else sb.append(c);
-            }
-        }
-        return sb.toString();
-    }
-
-    // Insert value into nested map following dot and bracket notation.
-    @SuppressWarnings("unchecked")
-    private static void putNested(java.util.Map<String, Object> root, String fullKey, Object value) {
-        String[] parts = fullKey.split("\\.");
-        java.util.Map<String, Object> current = root;
-        for (int i = 0; i < parts.length; i++) {
-            String part = parts[i];
-
-            // detect array/index: name[] or name[index]
-            String name = part;
-            Integer idx = null;
-            if (part.endsWith("[]")) {
-                name = part.substring(0, part.length() - 2);
-                idx = -1; // means append or treat as array of values
-            } else if (part.contains("[")) {
-                int b = part.indexOf('[');
-                int e = part.indexOf(']');
-                name = part.substring(0, b);
-                String inside = part.substring(b + 1, e);
-                try { idx = Integer.parseInt(inside); } catch (Exception ex) { idx = null; }
-            }
-
-            boolean last = (i == parts.length - 1);
-
-            if (last) {
-                // set value
-                if (idx == null) {
-                    current.put(name, value);
-                } else if (idx == -1) {
-                    Object existing = current.get(name);
-                    java.util.List<Object> list;
-                    if (existing instanceof java.util.List) list = (java.util.List<Object>) existing;
-                    else if (existing != null && existing.getClass().isArray()) {
-                        list = new java.util.ArrayList<>();
-                        int len = java.lang.reflect.Array.getLength(existing);
-                        for (int k = 0; k < len; k++) list.add(java.lang.reflect.Array.get(existing, k));
-                    } else {
-                        list = new java.util.ArrayList<>();
-                        if (existing != null) list.add(existing);
-                    }
-
-                    if (value instanceof String[]) {
-                        for (String s : (String[]) value) list.add(s);
-                    } else {
-                        list.add(value);
-                    }
-                    current.put(name, list);
-                } else {
-                    Object existing = current.get(name);
-                    java.util.List<Object> list;
-                    if (existing instanceof java.util.List) list = (java.util.List<Object>) existing;
-                    else {
-                        list = new java.util.ArrayList<>();
-                        if (existing != null) list.add(existing);
-                    }
-                    while (list.size() <= idx) list.add(null);
-                    list.set(idx, value);
-                    current.put(name, list);
-                }
-            } else {
-                Object next = current.get(name);
-                if (!(next instanceof java.util.Map)) {
-                    java.util.Map<String, Object> newMap = new java.util.HashMap<>();
-                    current.put(name, newMap);
-                    next = newMap;
-                }
-                current = (java.util.Map<String, Object>) next;
-            }
-        }
+    // Réponse déjà en partie envoyée : l'exception remonte au conteneur, qui coupe la connexion,
+    // plutôt que d'ajouter un message d'erreur à un document commencé (le client voit un envoi tronqué)
+    private static IOException abortCommitted(Exception ex) {
+        if (ex instanceof IOException) return (IOException) ex;
+        return new IOException("Réponse interrompue après envoi partiel : " + ex, ex);
     }
 
     private void handleModelView(HttpServletRequest req, HttpServletResponse res, ModelView mv)
@@ -443,163 +429,60 @@ public class FrontServlet extends HttpServlet {
         rd.forward(req, res);
     }
 
-    private Object[] buildMethodArgs(HttpServletRequest req, Method m) {
-        Class<?>[] paramTypes = m.getParameterTypes();
-        java.lang.reflect.Parameter[] params = m.getParameters();
-        Object[] args = new Object[paramTypes.length];
+    // Seul point de création/réutilisation des contrôleurs : applique le scope déclaré
+    private Object invokeController(RouteTable table, ActionInvoker invoker, ArgumentPlan plan,
+                                    HttpServletRequest req, HttpServletResponse res, RouteMatch<?> match)
+            throws Exception {
+        Class<?> cls = invoker.getMethod().getDeclaringClass();
+        ControllerProvider provider = table.getControllerProvider(cls);
+        if (match != null && plan.exposesPathVariables()) match.exportTo(req);
+        RequestContext ctx = new RequestContext(req, match);
+        Object[] args = plan.resolve(ctx);
+        try {
+            if (provider == null) {
+                return invoker.invoke(invoker.newInstance(), args);
+            }
 
-        // Préparer les Maps pour fichiers
-        Map<String, byte[]> fileParams = new HashMap<>();
-        Set<String> fileParamNames = new HashSet<>(); // Pour tracker les noms de fichiers
-        boolean isMultipart = req.getContentType() != null && 
-                             req.getContentType().startsWith("multipart/form-data");
-        
-        if (isMultipart) {
+            Object controller = provider.acquire();
             try {
-                for (Part part : req.getParts()) {
-                    if (part.getSubmittedFileName() != null && !part.getSubmittedFileName().isEmpty()) {
-                        InputStream inputStream = part.getInputStream();
-                        byte[] fileBytes = inputStream.readAllBytes();
-                        // Utiliser le vrai nom du fichier avec extension
-                        fileParams.put(part.getSubmittedFileName(), fileBytes);
-                        fileParamNames.add(part.getName()); // Le nom du champ pour tracker
-                        inputStream.close();
-                    }
-                }
-            } catch (Exception e) {
-                System.err.println("Erreur lecture fichiers: " + e.getMessage());
+                return invoker.invoke(controller, args);
+            } finally {
+                provider.release(controller);
             }
+        } finally {
+            // une seule écriture des attributs @Session modifiés, avant la vue ou la réponse
+            ctx.flushSession(res);
         }
+    }
 
-        for (int i = 0; i < paramTypes.length; i++) {
-            java.lang.reflect.Parameter p = params[i];
-            Class<?> type = paramTypes[i];
-            
-            // Vérifier si le paramètre est annoté @Session
-            if (p.isAnnotationPresent(Session.class)) {
-                if (Map.class.isAssignableFrom(type)) {
-                    Type genericType = p.getParameterizedType();
-                    if (genericType instanceof ParameterizedType) {
-                        ParameterizedType pt = (ParameterizedType) genericType;
-                        Type[] types = pt.getActualTypeArguments();
-                        if (types.length == 2 && types[0] == String.class && types[1] == Object.class) {
-                            args[i] = new SessionMap(req.getSession());
-                            continue;
-                        }
-                    }
-                }
-                // Si ce n'est pas Map<String, Object>, on peut lever une erreur ou ignorer
-                throw new RuntimeException("@Session doit être utilisé sur un paramètre de type Map<String, Object>");
-            }
-            
-            Param paramAnnotation = p.getAnnotation(Param.class);
-            String paramName = (paramAnnotation != null) ? paramAnnotation.value() : p.getName();
-
-            // Vérifier si le paramètre est une Map
-            if (type.equals(java.util.Map.class)) {
-                // Vérifier le type générique
-                Type genericType = p.getParameterizedType();
-                if (genericType instanceof ParameterizedType) {
-                    ParameterizedType paramType = (ParameterizedType) genericType;
-                    Type[] typeArgs = paramType.getActualTypeArguments();
-                    
-                    if (typeArgs.length == 2 && typeArgs[0].equals(String.class)) {
-                        if (typeArgs[1].equals(Object.class)) {
-                            // Map<String, Object> pour paramètres normaux (exclure les fichiers)
-                            args[i] = convertParametersToMap(req, fileParamNames);
-                        } else if (isByteArrayType(typeArgs[1])) {
-                            // Map<String, byte[]> pour fichiers
-                            if (!isMultipart) {
-                                System.err.println("ATTENTION: Méthode attend des fichiers mais formulaire pas en multipart!");
-                            }
-                            args[i] = fileParams;
-                        } else {
-                            args[i] = convertParametersToMap(req, fileParamNames);
-                        }
-                    } else {
-                        args[i] = convertParametersToMap(req, fileParamNames);
-                    }
-                } else {
-                    args[i] = convertParametersToMap(req, fileParamNames);
-                }
-            } else {
-                // Utiliser ObjectBinder pour les objets complexes avec notation pointée
-                Object bindedValue = ObjectBinder.bindParameters(
-                    new Class<?>[] { type },
-                    new java.lang.reflect.Parameter[] { p },
-                    req.getParameterMap()
-                )[0];
-                
-                // Si ObjectBinder retourne null, essayer la conversion classique
-                if (bindedValue == null) {
-                    String paramValue = req.getParameter(paramName);
-                    if (paramValue == null) {
-                        Object attr = req.getAttribute(paramName);
-                        if (attr != null) paramValue = String.valueOf(attr);
-                    }
-
-                    if (paramValue != null && !paramValue.isEmpty()) {
-                        args[i] = ParamConverter.convert(paramValue, type);
-                    } else {
-                        args[i] = null;
-                    }
-                } else {
-                    args[i] = bindedValue;
-                }
-            }
-        }
-        return args;
+    // Publication des compteurs au format texte Prometheus
+    private void writeMetrics(HttpServletResponse res) throws IOException {
+        res.setContentType("text/plain; version=0.0.4; charset=utf-8");
+        StringBuilder body = new StringBuilder(4096);
+        metrics.writePrometheus(body);
+        bodyBudget.writePrometheus(body);
+        res.getWriter().write(body.toString());
     }
 
-    // Nouvelle méthode pour convertir les paramètres en Map<String, Object>
-    private Map<String, Object> convertParametersToMap(HttpServletRequest req, Set<String> fileParamNames) {
-        Map<String, Object> resultMap = new HashMap<>();
-        Map<String, String[]> parameterMap = req.getParameterMap();
-        
-        for (String key : parameterMap.keySet()) {
-            // Exclure les paramètres qui sont des fichiers
-            if (fileParamNames != null && fileParamNames.contains(key)) {
-                continue;
-            }
-            
-            String[] values = parameterMap.get(key);
-            // Si un seul paramètre, ajouter la valeur directement
-            // Sinon, ajouter le tableau
-            if (values.length == 1) {
-                resultMap.put(key, values[0]);
-            } else {
-                resultMap.put(key, values);
+    // Un identifiant de métriques par route, attribué au démarrage ou à l'enregistrement d'un contrôleur
+    private static void registerMetrics(RouteMetrics metrics, Map<String, List<ActionMapping>> actionMappings,
+                                        List<UrlMapping> urlMappings) {
+        for (Map.Entry<String, List<ActionMapping>> entry : actionMappings.entrySet()) {
+            for (ActionMapping am : entry.getValue()) {
+                am.setRouteId(metrics.register(am.getHttpMethod(), entry.getKey(),
+                        am.getTheClassName() + "#" + am.getTheMethod().getName()));
             }
         }
-        
-        System.out.println("=== Map des paramètres ===");
-        resultMap.forEach((key, value) -> System.out.println(key + " -> " + value));
-        
-        return resultMap;
-    }
-
-    // Vérifie si le type correspond à byte[] pour la détection des maps de fichiers
-    private boolean isByteArrayType(Type type) {
-        if (type instanceof Class<?>) {
-            return ((Class<?>) type).equals(byte[].class);
+        for (UrlMapping mapping : urlMappings) {
+            Method m = mapping.getMethod();
+            mapping.setRouteId(metrics.register(httpMethodOf(m), mapping.getUrl(),
+                    m.getDeclaringClass().getName() + "#" + m.getName()));
         }
-        String typeName = type.getTypeName();
-        return "byte[]".equals(typeName) || "[B".equals(typeName);
     }
 
-    private Object invokeMethod(Method method, HttpServletRequest req, Object controllerInstance) throws Exception {
-        method.setAccessible(true);
-        Class<?>[] paramTypes = method.getParameterTypes();
-
-        if (paramTypes.length == 0) {
-            return method.invoke(controllerInstance);
-        }
-
-        if (paramTypes.length == 1 && HttpServletRequest.class.isAssignableFrom(paramTypes[0])) {
-            return method.invoke(controllerInstance, req);
-        }
-
-        Object[] args = buildMethodArgs(req, method);
-        return method.invoke(controllerInstance, args);
+    private static String httpMethodOf(Method m) {
+        if (m.isAnnotationPresent(GetMapping.class)) return "GET";
+        if (m.isAnnotationPresent(PostMapping.class)) return "POST";
+        return "ALL";
     }
 }
@@ -10,4 +10,20 @@ import java.lang.annotation.Target;
 public @interface Controller {
     String value() default "";
 
-}
\ No newline at end of file
+    /**
+     * Cycle de vie des instances : REQUEST (une instance par requête, par défaut),
+     * SINGLETON (une instance créée dans init()) ou POOLED (pool borné, réutilisé entre requêtes).
+     */
+    Scope scope() default Scope.REQUEST;
+
+    /**
+     * Nombre maximum d'instances conservées au repos pour le scope POOLED.
+     */
+    int poolSize() default 8;
+
+    enum Scope {
+        REQUEST,
+        SINGLETON,
+        POOLED
+    }
+}
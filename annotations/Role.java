@@ -5,8 +5,15 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
+/**
+ * Rôles autorisés : l'utilisateur authentifié doit avoir au moins l'un d'eux.
+ * @Role("admin") ou @Role(anyOf = {"admin", "prof"}) ; @Role seul : authentification seule.
+ * value reste un String : les contrôleurs compilés avec @Role("admin") se chargent sans recompilation.
+ */
 @Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.METHOD)
 public @interface Role {
-    String value();  
-}
\ No newline at end of file
+    String value() default "";
+
+    String[] anyOf() default {};
+}
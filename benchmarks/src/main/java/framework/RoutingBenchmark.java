@@ -0,0 +1,104 @@
+package framework;
+
+import framework.bench.app.BenchController;
+import framework.bench.fake.FakeHttpServletRequest;
+import framework.util.ActionMapping;
+import framework.util.RouteMatch;
+import framework.util.RouteTable;
+import framework.util.RouteTree;
+import framework.util.UrlMapping;
+import framework.util.UrlMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recherche de route : FrontServlet.findActionMapping et UrlMatcher.findMapping
+ * sur 10, 100 et 1000 routes (moitié statiques, moitié avec variable de chemin).
+ *
+ * Dans le package framework pour accéder à findActionMapping (visibilité package).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoutingBenchmark {
+    private static final int PATH_COUNT = 64;
+
+    @Param({ "10", "100", "1000" })
+    public int routes;
+
+    private RouteTree<ActionMapping> actionRoutes;
+    private RouteTree<UrlMapping> urlRoutes;
+    private String[] paths;
+    private int next;
+    private FakeHttpServletRequest request;
+
+    @Setup
+    public void setup() throws Exception {
+        Method target = BenchController.class.getMethod("get", int.class);
+        Map<String, List<ActionMapping>> mappings = new HashMap<>();
+        List<UrlMapping> urlMappings = new ArrayList<>();
+
+        for (int i = 0; i < routes; i++) {
+            String pattern = pattern(i);
+            List<ActionMapping> list = new ArrayList<>();
+            list.add(new ActionMapping(BenchController.class.getName(), target, "GET", pattern));
+            mappings.put(pattern, list);
+            urlMappings.add(new UrlMapping(pattern, target));
+        }
+        actionRoutes = RouteTable.buildActionIndex(mappings);
+        urlRoutes = UrlMatcher.buildIndex(urlMappings);
+
+        // chemins demandés : répartis sur toutes les routes
+        paths = new String[PATH_COUNT];
+        for (int k = 0; k < PATH_COUNT; k++) {
+            int i = (int) ((long) k * routes / PATH_COUNT);
+            paths[k] = pattern(i).replace("{id}", Integer.toString(1000 + k));
+        }
+        request = new FakeHttpServletRequest(null, "GET", "/");
+    }
+
+    private static String pattern(int i) {
+        return i % 2 == 0 ? "/module" + i + "/items/{id}" : "/module" + i + "/liste";
+    }
+
+    private String nextPath() {
+        String path = paths[next];
+        next = (next + 1) & (PATH_COUNT - 1);
+        return path;
+    }
+
+    @Benchmark
+    public RouteMatch<ActionMapping> findActionMapping() {
+        return FrontServlet.findActionMapping(actionRoutes, nextPath(), "GET");
+    }
+
+    @Benchmark
+    public UrlMapping urlMatcherFindMapping() {
+        request.recycle();
+        return UrlMatcher.findMapping(nextPath(), "GET", urlRoutes, request);
+    }
+
+    @Benchmark
+    public RouteMatch<ActionMapping> findActionMappingMiss() {
+        return FrontServlet.findActionMapping(actionRoutes, "/inconnu/items/42", "GET");
+    }
+}
@@ -0,0 +1,79 @@
+package framework.bench;
+
+import framework.bench.app.BenchController;
+import framework.bench.app.Etudiant;
+import framework.util.ObjectBinder;
+import framework.util.ParamConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Liaison des paramètres : ObjectBinder.bindParameters sur un formulaire imbriqué
+ * (objet, sous-objet, liste indexée) et ParamConverter.convert sur les types simples, valides ou non.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BindingBenchmark {
+    private Class<?>[] paramTypes;
+    private Parameter[] params;
+    private Map<String, String[]> nestedForm;
+
+    @Setup
+    public void setup() throws Exception {
+        Method save = BenchController.class.getMethod("save", Etudiant.class);
+        paramTypes = save.getParameterTypes();
+        params = save.getParameters();
+
+        nestedForm = new LinkedHashMap<>();
+        nestedForm.put("etudiant.nom", new String[] { "Rakoto" });
+        nestedForm.put("etudiant.age", new String[] { "21" });
+        nestedForm.put("etudiant.adresse.ville", new String[] { "Antananarivo" });
+        nestedForm.put("etudiant.adresse.rue", new String[] { "Rue 12" });
+        for (int i = 0; i < 5; i++) {
+            nestedForm.put("etudiant.notes[" + i + "].matiere", new String[] { "matiere" + i });
+            nestedForm.put("etudiant.notes[" + i + "].moyenne", new String[] { Double.toString(10 + i * 1.5) });
+        }
+    }
+
+    @Benchmark
+    public Object[] bindNestedForm() {
+        return ObjectBinder.bindParameters(paramTypes, params, nestedForm);
+    }
+
+    @Benchmark
+    public void convertSimpleTypes(Blackhole bh) {
+        bh.consume(ParamConverter.convert("12345", int.class));
+        bh.consume(ParamConverter.convert("9876543210", Long.class));
+        bh.consume(ParamConverter.convert("15.75", double.class));
+        bh.consume(ParamConverter.convert("true", boolean.class));
+        bh.consume(ParamConverter.convert("texte", String.class));
+    }
+
+    // entrées invalides : aucune exception levée (résultat Converter.INVALID)
+    @Benchmark
+    public void convertInvalidInput(Blackhole bh) {
+        bh.consume(ParamConverter.convert("12a45", int.class));
+        bh.consume(ParamConverter.convert("99999999999999999999", Long.class));
+        bh.consume(ParamConverter.convert("15,75", double.class));
+        bh.consume(ParamConverter.convert("2024-02-30", java.time.LocalDate.class));
+    }
+}
@@ -0,0 +1,109 @@
+package framework.bench;
+
+import framework.FrontServlet;
+import framework.bench.app.BenchController;
+import framework.bench.fake.FakeHttpServletRequest;
+import framework.bench.fake.FakeHttpServletResponse;
+import framework.bench.fake.FakeServletConfig;
+import framework.bench.fake.FakeServletContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Requête complète à travers FrontServlet.service (routage, arguments, contrôleur, réponse)
+ * avec une requête et une réponse en mémoire. Le contrôleur est copié dans un
+ * WEB-INF/classes temporaire pour être trouvé par le scan, comme dans une vraie application.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DispatchBenchmark {
+    private Path classesDir;
+    private FrontServlet servlet;
+    private FakeHttpServletRequest getRequest;
+    private FakeHttpServletRequest postRequest;
+    private FakeHttpServletRequest jsonRequest;
+    private FakeHttpServletResponse response;
+
+    @Setup
+    public void setup() throws Exception {
+        classesDir = Files.createTempDirectory("framework-bench");
+        copyClass(BenchController.class, classesDir);
+
+        FakeServletContext context = new FakeServletContext(classesDir.toFile(), DispatchBenchmark.class.getClassLoader());
+        servlet = new FrontServlet();
+        servlet.init(new FakeServletConfig(context));
+
+        getRequest = new FakeHttpServletRequest(context, "GET", "/etudiants/42");
+        jsonRequest = new FakeHttpServletRequest(context, "GET", "/api/etudiants/7");
+        postRequest = new FakeHttpServletRequest(context, "POST", "/etudiants/save")
+                .param("etudiant.nom", "Rakoto")
+                .param("etudiant.age", "21")
+                .param("etudiant.adresse.ville", "Antananarivo")
+                .param("etudiant.notes[0].matiere", "maths")
+                .param("etudiant.notes[0].moyenne", "15.5");
+        response = new FakeHttpServletResponse();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        servlet.destroy();
+        try (Stream<Path> files = Files.walk(classesDir)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Benchmark
+    public int getWithPathVariable() throws Exception {
+        return dispatch(getRequest);
+    }
+
+    @Benchmark
+    public int postNestedForm() throws Exception {
+        return dispatch(postRequest);
+    }
+
+    @Benchmark
+    public int getJson() throws Exception {
+        return dispatch(jsonRequest);
+    }
+
+    private int dispatch(FakeHttpServletRequest request) throws Exception {
+        request.recycle();
+        response.recycle();
+        servlet.service(request, response);
+        return response.getBodySize();
+    }
+
+    private static void copyClass(Class<?> cls, Path root) throws IOException {
+        String resource = cls.getName().replace('.', '/') + ".class";
+        Path target = root.resolve(resource);
+        Files.createDirectories(target.getParent());
+        try (InputStream in = cls.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) throw new IOException("Classe introuvable : " + resource);
+            Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package framework.bench;
+
+import framework.views.JSONResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sérialisation JSON de grandes Map : JSONResponse.toJson (String) et writeTo (flux).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+
+    @Param({ "100", "10000" })
+    public int entries;
+
+    private JSONResponse response;
+    private final CountingOutputStream sink = new CountingOutputStream();
+
+    @Setup
+    public void setup() {
+        Map<String, Object> data = new LinkedHashMap<>();
+        for (int i = 0; i < entries; i++) {
+            switch (i % 4) {
+                case 0: data.put("nom" + i, "Étudiant \"" + i + "\"\n"); break;
+                case 1: data.put("age" + i, i); break;
+                case 2: data.put("moyenne" + i, i / 3.0); break;
+                default: data.put("notes" + i, Arrays.asList(12, 15.5, "absent", null)); break;
+            }
+        }
+        response = new JSONResponse("OK", 200, data.size(), data);
+    }
+
+    @Benchmark
+    public String toJson() {
+        return response.toJson();
+    }
+
+    @Benchmark
+    public long writeTo() throws IOException {
+        sink.count = 0;
+        response.writeTo(sink);
+        return sink.count;
+    }
+
+    // flux qui ne garde que le nombre d'octets (isole le coût de la sérialisation)
+    private static final class CountingOutputStream extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
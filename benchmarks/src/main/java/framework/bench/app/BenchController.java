@@ -0,0 +1,36 @@
+package framework.bench.app;
+
+import framework.annotations.Controller;
+import framework.annotations.GetMapping;
+import framework.annotations.JSON;
+import framework.annotations.PostMapping;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Contrôleur scanné par DispatchBenchmark (copié dans un WEB-INF/classes temporaire).
+ */
+@Controller(scope = Controller.Scope.SINGLETON)
+public class BenchController {
+
+    @GetMapping("/etudiants/{id}")
+    public String get(int id) {
+        return "etudiant " + id;
+    }
+
+    @PostMapping("/etudiants/save")
+    public String save(Etudiant etudiant) {
+        return etudiant.getNom();
+    }
+
+    @JSON
+    @GetMapping("/api/etudiants/{id}")
+    public Map<String, Object> json(int id) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("id", id);
+        data.put("nom", "Rakoto");
+        data.put("moyenne", 14.5);
+        return data;
+    }
+}
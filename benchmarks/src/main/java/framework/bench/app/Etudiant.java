@@ -0,0 +1,39 @@
+package framework.bench.app;
+
+import java.util.List;
+
+public class Etudiant {
+    private String nom;
+    private int age;
+    private Adresse adresse;
+    private List<Note> notes;
+
+    public String getNom() { return nom; }
+    public void setNom(String nom) { this.nom = nom; }
+    public int getAge() { return age; }
+    public void setAge(int age) { this.age = age; }
+    public Adresse getAdresse() { return adresse; }
+    public void setAdresse(Adresse adresse) { this.adresse = adresse; }
+    public List<Note> getNotes() { return notes; }
+    public void setNotes(List<Note> notes) { this.notes = notes; }
+
+    public static class Adresse {
+        private String ville;
+        private String rue;
+
+        public String getVille() { return ville; }
+        public void setVille(String ville) { this.ville = ville; }
+        public String getRue() { return rue; }
+        public void setRue(String rue) { this.rue = rue; }
+    }
+
+    public static class Note {
+        private String matiere;
+        private double moyenne;
+
+        public String getMatiere() { return matiere; }
+        public void setMatiere(String matiere) { this.matiere = matiere; }
+        public double getMoyenne() { return moyenne; }
+        public void setMoyenne(double moyenne) { this.moyenne = moyenne; }
+    }
+}
@@ -0,0 +1,204 @@
+package framework.bench.fake;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.RequestDispatcher;
+import jakarta.servlet.ServletConnection;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.HttpUpgradeHandler;
+import jakarta.servlet.http.Part;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Requête en mémoire pour les benchmarks : méthode, URI, paramètres, en-têtes et corps fixés à la main.
+ * recycle() vide les attributs entre deux invocations (comme une nouvelle requête du conteneur).
+ */
+public class FakeHttpServletRequest implements HttpServletRequest {
+    private final ServletContext servletContext;
+    private final Map<String, String[]> parameters = new LinkedHashMap<>();
+    private final Map<String, String> headers = new HashMap<>();
+    private final Map<String, Object> attributes = new HashMap<>();
+    private String method = "GET";
+    private String requestURI = "/";
+    private String contextPath = "";
+    private String contentType;
+    private String characterEncoding;
+    private byte[] body = new byte[0];
+
+    public FakeHttpServletRequest(ServletContext servletContext) {
+        this.servletContext = servletContext;
+    }
+
+    public FakeHttpServletRequest(ServletContext servletContext, String method, String requestURI) {
+        this(servletContext);
+        this.method = method;
+        this.requestURI = requestURI;
+    }
+
+    public FakeHttpServletRequest param(String name, String... values) {
+        parameters.put(name, values);
+        return this;
+    }
+
+    public FakeHttpServletRequest header(String name, String value) {
+        headers.put(name.toLowerCase(Locale.ROOT), value);
+        return this;
+    }
+
+    public FakeHttpServletRequest body(String contentType, byte[] body) {
+        this.contentType = contentType;
+        this.body = body;
+        return this;
+    }
+
+    public void setMethod(String method) {
+        this.method = method;
+    }
+
+    public void setRequestURI(String requestURI) {
+        this.requestURI = requestURI;
+    }
+
+    public void recycle() {
+        attributes.clear();
+    }
+
+    // --- HttpServletRequest ---
+
+    @Override public String getAuthType() { return null; }
+    @Override public Cookie[] getCookies() { return null; }
+    @Override public long getDateHeader(String name) { return -1; }
+    @Override public String getHeader(String name) { return headers.get(name.toLowerCase(Locale.ROOT)); }
+
+    @Override
+    public Enumeration<String> getHeaders(String name) {
+        String value = getHeader(name);
+        return value != null ? Collections.enumeration(Collections.singletonList(value)) : Collections.emptyEnumeration();
+    }
+
+    @Override public Enumeration<String> getHeaderNames() { return Collections.enumeration(headers.keySet()); }
+
+    @Override
+    public int getIntHeader(String name) {
+        String value = getHeader(name);
+        return value != null ? Integer.parseInt(value) : -1;
+    }
+
+    @Override public String getMethod() { return method; }
+    @Override public String getPathInfo() { return null; }
+    @Override public String getPathTranslated() { return null; }
+    @Override public String getContextPath() { return contextPath; }
+    @Override public String getQueryString() { return null; }
+    @Override public String getRemoteUser() { return null; }
+    @Override public boolean isUserInRole(String role) { return false; }
+    @Override public Principal getUserPrincipal() { return null; }
+    @Override public String getRequestedSessionId() { return null; }
+    @Override public String getRequestURI() { return requestURI; }
+    @Override public StringBuffer getRequestURL() { return new StringBuffer("http://localhost").append(requestURI); }
+    @Override public String getServletPath() { return ""; }
+    @Override public HttpSession getSession(boolean create) { return null; }
+    @Override public HttpSession getSession() { return null; }
+    @Override public String changeSessionId() { throw new IllegalStateException("pas de session"); }
+    @Override public boolean isRequestedSessionIdValid() { return false; }
+    @Override public boolean isRequestedSessionIdFromCookie() { return false; }
+    @Override public boolean isRequestedSessionIdFromURL() { return false; }
+    @Override public boolean authenticate(HttpServletResponse response) { return false; }
+    @Override public void login(String username, String password) { }
+    @Override public void logout() { }
+    @Override public Collection<Part> getParts() { return Collections.emptyList(); }
+    @Override public Part getPart(String name) { return null; }
+
+    @Override
+    public <T extends HttpUpgradeHandler> T upgrade(Class<T> handlerClass) {
+        throw new UnsupportedOperationException();
+    }
+
+    // --- ServletRequest ---
+
+    @Override public Object getAttribute(String name) { return attributes.get(name); }
+    @Override public Enumeration<String> getAttributeNames() { return Collections.enumeration(attributes.keySet()); }
+    @Override public String getCharacterEncoding() { return characterEncoding; }
+    @Override public void setCharacterEncoding(String env) { this.characterEncoding = env; }
+    @Override public int getContentLength() { return body.length; }
+    @Override public long getContentLengthLong() { return body.length; }
+    @Override public String getContentType() { return contentType; }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        ByteArrayInputStream in = new ByteArrayInputStream(body);
+        return new ServletInputStream() {
+            @Override public int read() { return in.read(); }
+            @Override public int read(byte[] b, int off, int len) { return in.read(b, off, len); }
+            @Override public boolean isFinished() { return in.available() == 0; }
+            @Override public boolean isReady() { return true; }
+            @Override public void setReadListener(ReadListener readListener) { }
+        };
+    }
+
+    @Override
+    public String getParameter(String name) {
+        String[] values = parameters.get(name);
+        return values != null && values.length > 0 ? values[0] : null;
+    }
+
+    @Override public Enumeration<String> getParameterNames() { return Collections.enumeration(parameters.keySet()); }
+    @Override public String[] getParameterValues(String name) { return parameters.get(name); }
+    @Override public Map<String, String[]> getParameterMap() { return parameters; }
+    @Override public String getProtocol() { return "HTTP/1.1"; }
+    @Override public String getScheme() { return "http"; }
+    @Override public String getServerName() { return "localhost"; }
+    @Override public int getServerPort() { return 80; }
+
+    @Override
+    public BufferedReader getReader() {
+        return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8));
+    }
+
+    @Override public String getRemoteAddr() { return "127.0.0.1"; }
+    @Override public String getRemoteHost() { return "localhost"; }
+    @Override public void setAttribute(String name, Object o) { attributes.put(name, o); }
+    @Override public void removeAttribute(String name) { attributes.remove(name); }
+    @Override public Locale getLocale() { return Locale.ROOT; }
+    @Override public Enumeration<Locale> getLocales() { return Collections.enumeration(Collections.singletonList(Locale.ROOT)); }
+    @Override public boolean isSecure() { return false; }
+    @Override public RequestDispatcher getRequestDispatcher(String path) { return null; }
+    @Override public int getRemotePort() { return 0; }
+    @Override public String getLocalName() { return "localhost"; }
+    @Override public String getLocalAddr() { return "127.0.0.1"; }
+    @Override public int getLocalPort() { return 80; }
+    @Override public ServletContext getServletContext() { return servletContext; }
+    @Override public AsyncContext startAsync() { throw new IllegalStateException(); }
+
+    @Override
+    public AsyncContext startAsync(ServletRequest servletRequest, ServletResponse servletResponse) {
+        throw new IllegalStateException();
+    }
+
+    @Override public boolean isAsyncStarted() { return false; }
+    @Override public boolean isAsyncSupported() { return false; }
+    @Override public AsyncContext getAsyncContext() { throw new IllegalStateException(); }
+    @Override public DispatcherType getDispatcherType() { return DispatcherType.REQUEST; }
+    @Override public String getRequestId() { return "0"; }
+    @Override public String getProtocolRequestId() { return ""; }
+    @Override public ServletConnection getServletConnection() { return null; }
+}
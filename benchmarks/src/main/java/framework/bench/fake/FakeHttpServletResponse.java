@@ -0,0 +1,115 @@
+package framework.bench.fake;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Réponse en mémoire pour les benchmarks : le corps est écrit dans un tampon réutilisé.
+ * recycle() remet la réponse à zéro entre deux invocations.
+ */
+public class FakeHttpServletResponse implements HttpServletResponse {
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream(8192);
+    private final Map<String, String> headers = new HashMap<>();
+    private final ServletOutputStream outputStream = new ServletOutputStream() {
+        @Override public void write(int b) { body.write(b); }
+        @Override public void write(byte[] b, int off, int len) { body.write(b, off, len); }
+        @Override public boolean isReady() { return true; }
+        @Override public void setWriteListener(WriteListener writeListener) { }
+    };
+    // close() ne ferme pas le flux : la réponse est réutilisée d'une invocation à l'autre
+    private final PrintWriter writer = new PrintWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)) {
+        @Override public void close() { flush(); }
+    };
+    private int status = SC_OK;
+    private String contentType;
+    private String characterEncoding = "UTF-8";
+    private Locale locale = Locale.ROOT;
+
+    public void recycle() {
+        writer.flush();
+        body.reset();
+        headers.clear();
+        status = SC_OK;
+        contentType = null;
+    }
+
+    public int getBodySize() {
+        writer.flush();
+        return body.size();
+    }
+
+    public String getBodyAsString() {
+        writer.flush();
+        return new String(body.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    // --- HttpServletResponse ---
+
+    @Override public void addCookie(Cookie cookie) { }
+    @Override public boolean containsHeader(String name) { return headers.containsKey(name); }
+    @Override public String encodeURL(String url) { return url; }
+    @Override public String encodeRedirectURL(String url) { return url; }
+    @Override public void sendError(int sc, String msg) { status = sc; }
+    @Override public void sendError(int sc) { status = sc; }
+    @Override public void sendRedirect(String location) { status = SC_FOUND; headers.put("Location", location); }
+    @Override public void setDateHeader(String name, long date) { headers.put(name, Long.toString(date)); }
+    @Override public void addDateHeader(String name, long date) { headers.put(name, Long.toString(date)); }
+    @Override public void setHeader(String name, String value) { headers.put(name, value); }
+    @Override public void addHeader(String name, String value) { headers.put(name, value); }
+    @Override public void setIntHeader(String name, int value) { headers.put(name, Integer.toString(value)); }
+    @Override public void addIntHeader(String name, int value) { headers.put(name, Integer.toString(value)); }
+    @Override public void setStatus(int sc) { status = sc; }
+    @Override public int getStatus() { return status; }
+    @Override public String getHeader(String name) { return headers.get(name); }
+
+    @Override
+    public Collection<String> getHeaders(String name) {
+        String value = headers.get(name);
+        return value != null ? Collections.singletonList(value) : Collections.emptyList();
+    }
+
+    @Override public Collection<String> getHeaderNames() { return new ArrayList<>(headers.keySet()); }
+
+    // --- ServletResponse ---
+
+    @Override public String getCharacterEncoding() { return characterEncoding; }
+    @Override public String getContentType() { return contentType; }
+    @Override public ServletOutputStream getOutputStream() { return outputStream; }
+    @Override public PrintWriter getWriter() { return writer; }
+    @Override public void setCharacterEncoding(String charset) { this.characterEncoding = charset; }
+    @Override public void setContentLength(int len) { }
+    @Override public void setContentLengthLong(long len) { }
+    @Override public void setContentType(String type) { this.contentType = type; }
+    @Override public void setBufferSize(int size) { }
+    @Override public int getBufferSize() { return body.size(); }
+    @Override public void flushBuffer() { writer.flush(); }
+
+    @Override
+    public void resetBuffer() {
+        writer.flush();
+        body.reset();
+    }
+
+    @Override public boolean isCommitted() { return false; }
+
+    @Override
+    public void reset() {
+        recycle();
+    }
+
+    @Override public void setLocale(Locale loc) { this.locale = loc; }
+    @Override public Locale getLocale() { return locale; }
+}
@@ -0,0 +1,20 @@
+package framework.bench.fake;
+
+import jakarta.servlet.ServletConfig;
+import jakarta.servlet.ServletContext;
+
+import java.util.Collections;
+import java.util.Enumeration;
+
+public class FakeServletConfig implements ServletConfig {
+    private final ServletContext servletContext;
+
+    public FakeServletConfig(ServletContext servletContext) {
+        this.servletContext = servletContext;
+    }
+
+    @Override public String getServletName() { return "FrontServlet"; }
+    @Override public ServletContext getServletContext() { return servletContext; }
+    @Override public String getInitParameter(String name) { return null; }
+    @Override public Enumeration<String> getInitParameterNames() { return Collections.emptyEnumeration(); }
+}
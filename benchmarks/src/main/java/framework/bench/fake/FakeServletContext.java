@@ -0,0 +1,97 @@
+package framework.bench.fake;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterRegistration;
+import jakarta.servlet.RequestDispatcher;
+import jakarta.servlet.Servlet;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletRegistration;
+import jakarta.servlet.SessionCookieConfig;
+import jakarta.servlet.SessionTrackingMode;
+import jakarta.servlet.descriptor.JspConfigDescriptor;
+
+import java.io.File;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Collections;
+import java.util.EventListener;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Contexte d'application minimal : WEB-INF/classes pointe vers un répertoire local,
+ * aucune ressource statique, attributs en mémoire.
+ */
+public class FakeServletContext implements ServletContext {
+    private final File classesDir;
+    private final ClassLoader classLoader;
+    private final Map<String, Object> attributes = new HashMap<>();
+
+    public FakeServletContext(File classesDir, ClassLoader classLoader) {
+        this.classesDir = classesDir;
+        this.classLoader = classLoader;
+    }
+
+    @Override public String getContextPath() { return ""; }
+    @Override public ServletContext getContext(String uripath) { return this; }
+    @Override public int getMajorVersion() { return 6; }
+    @Override public int getMinorVersion() { return 0; }
+    @Override public int getEffectiveMajorVersion() { return 6; }
+    @Override public int getEffectiveMinorVersion() { return 0; }
+    @Override public String getMimeType(String file) { return null; }
+    @Override public Set<String> getResourcePaths(String path) { return Collections.emptySet(); }
+    @Override public URL getResource(String path) { return null; }
+    @Override public InputStream getResourceAsStream(String path) { return null; }
+    @Override public RequestDispatcher getRequestDispatcher(String path) { return null; }
+    @Override public RequestDispatcher getNamedDispatcher(String name) { return null; }
+    @Override public void log(String msg) { }
+    @Override public void log(String message, Throwable throwable) { }
+
+    @Override
+    public String getRealPath(String path) {
+        return "/WEB-INF/classes".equals(path) ? classesDir.getAbsolutePath() : null;
+    }
+
+    @Override public String getServerInfo() { return "fake"; }
+    @Override public String getInitParameter(String name) { return null; }
+    @Override public Enumeration<String> getInitParameterNames() { return Collections.emptyEnumeration(); }
+    @Override public boolean setInitParameter(String name, String value) { return false; }
+    @Override public Object getAttribute(String name) { return attributes.get(name); }
+    @Override public Enumeration<String> getAttributeNames() { return Collections.enumeration(attributes.keySet()); }
+    @Override public void setAttribute(String name, Object object) { attributes.put(name, object); }
+    @Override public void removeAttribute(String name) { attributes.remove(name); }
+    @Override public String getServletContextName() { return "benchmarks"; }
+    @Override public ServletRegistration.Dynamic addServlet(String servletName, String className) { throw new UnsupportedOperationException(); }
+    @Override public ServletRegistration.Dynamic addServlet(String servletName, Servlet servlet) { throw new UnsupportedOperationException(); }
+    @Override public ServletRegistration.Dynamic addServlet(String servletName, Class<? extends Servlet> servletClass) { throw new UnsupportedOperationException(); }
+    @Override public ServletRegistration.Dynamic addJspFile(String servletName, String jspFile) { throw new UnsupportedOperationException(); }
+    @Override public <T extends Servlet> T createServlet(Class<T> clazz) { throw new UnsupportedOperationException(); }
+    @Override public ServletRegistration getServletRegistration(String servletName) { return null; }
+    @Override public Map<String, ? extends ServletRegistration> getServletRegistrations() { return Collections.emptyMap(); }
+    @Override public FilterRegistration.Dynamic addFilter(String filterName, String className) { throw new UnsupportedOperationException(); }
+    @Override public FilterRegistration.Dynamic addFilter(String filterName, Filter filter) { throw new UnsupportedOperationException(); }
+    @Override public FilterRegistration.Dynamic addFilter(String filterName, Class<? extends Filter> filterClass) { throw new UnsupportedOperationException(); }
+    @Override public <T extends Filter> T createFilter(Class<T> clazz) { throw new UnsupportedOperationException(); }
+    @Override public FilterRegistration getFilterRegistration(String filterName) { return null; }
+    @Override public Map<String, ? extends FilterRegistration> getFilterRegistrations() { return Collections.emptyMap(); }
+    @Override public SessionCookieConfig getSessionCookieConfig() { return null; }
+    @Override public void setSessionTrackingModes(Set<SessionTrackingMode> sessionTrackingModes) { }
+    @Override public Set<SessionTrackingMode> getDefaultSessionTrackingModes() { return Collections.emptySet(); }
+    @Override public Set<SessionTrackingMode> getEffectiveSessionTrackingModes() { return Collections.emptySet(); }
+    @Override public void addListener(String className) { }
+    @Override public <T extends EventListener> void addListener(T t) { }
+    @Override public void addListener(Class<? extends EventListener> listenerClass) { }
+    @Override public <T extends EventListener> T createListener(Class<T> clazz) { throw new UnsupportedOperationException(); }
+    @Override public JspConfigDescriptor getJspConfigDescriptor() { return null; }
+    @Override public ClassLoader getClassLoader() { return classLoader; }
+    @Override public void declareRoles(String... roleNames) { }
+    @Override public String getVirtualServerName() { return "localhost"; }
+    @Override public int getSessionTimeout() { return 30; }
+    @Override public void setSessionTimeout(int sessionTimeout) { }
+    @Override public String getRequestCharacterEncoding() { return null; }
+    @Override public void setRequestCharacterEncoding(String encoding) { }
+    @Override public String getResponseCharacterEncoding() { return null; }
+    @Override public void setResponseCharacterEncoding(String encoding) { }
+}
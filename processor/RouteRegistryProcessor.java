@@ -0,0 +1,185 @@
+package framework.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+
+import framework.util.RouteRegistry;
+
+/**
+ * Processeur d'annotations : à la compilation de l'application, liste les classes @Controller et
+ * leurs méthodes dans une classe générée déclarée dans META-INF/services/framework.util.RouteRegistry.
+ * Nom par défaut propre au module, d'après le paquetage commun de ses contrôleurs
+ * (app.web -> framework.generated.RouteRegistry_app_web) ; option -Aframework.registry=pkg.Nom.
+ *
+ * Le registre déclare aussi l'empreinte de toutes les classes de premier niveau de la compilation :
+ * au démarrage, il ne remplace le parcours de sa racine (WEB-INF/classes ou jar) que si elle
+ * correspond aux .class présents (voir RouteRegistry.load). Processeur agrégeant : une compilation
+ * incrémentale doit lui repasser toutes les classes (déclaré pour Gradle dans
+ * META-INF/gradle/incremental.annotation.processors), sinon le registre est ignoré.
+ *
+ * Le processeur est déclaré dans META-INF/services/javax.annotation.processing.Processor du jar :
+ * javac le trouve seul dès que le jar du framework est dans le classpath de compilation.
+ */
+@SupportedAnnotationTypes("framework.annotations.Controller")
+@SupportedOptions(RouteRegistryProcessor.OPTION_REGISTRY)
+public class RouteRegistryProcessor extends AbstractProcessor {
+    static final String OPTION_REGISTRY = "framework.registry";
+    private static final String REGISTRY_PACKAGE = "framework.generated";
+    private static final String DEFAULT_REGISTRY = REGISTRY_PACKAGE + ".GeneratedRouteRegistry";
+    private static final String SERVICE_FILE = RouteRegistry.SERVICE_FILE;
+
+    // nom binaire du contrôleur -> signatures de ses méthodes, cumulés sur tous les tours
+    private final Map<String, List<String>> controllers = new LinkedHashMap<>();
+    private final List<Element> originating = new ArrayList<>();
+    // classes de premier niveau compilées (générées comprises), pour l'empreinte du registre
+    private final Set<String> compiled = new TreeSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            if (!controllers.isEmpty()) generate();
+            return false;
+        }
+        for (Element root : roundEnv.getRootElements()) {
+            if (!(root instanceof TypeElement)) continue; // package-info, module-info
+            String name = processingEnv.getElementUtils().getBinaryName((TypeElement) root).toString();
+            if (name.indexOf('$') < 0) compiled.add(name);
+        }
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() != ElementKind.CLASS) continue;
+                TypeElement type = (TypeElement) element;
+                // comme le scan : seules les classes de premier niveau sont des contrôleurs
+                if (type.getNestingKind() != NestingKind.TOP_LEVEL) continue;
+                addController(type);
+            }
+        }
+        return false;
+    }
+
+    private void addController(TypeElement type) {
+        List<String> signatures = new ArrayList<>();
+        for (Element member : type.getEnclosedElements()) {
+            if (member.getKind() != ElementKind.METHOD) continue;
+            signatures.add(signature((ExecutableElement) member));
+        }
+        controllers.put(processingEnv.getElementUtils().getBinaryName(type).toString(), signatures);
+        originating.add(type);
+    }
+
+    private String signature(ExecutableElement method) {
+        StringBuilder sb = new StringBuilder(method.getSimpleName()).append('(');
+        boolean first = true;
+        for (VariableElement param : method.getParameters()) {
+            if (!first) sb.append(',');
+            sb.append(typeName(processingEnv.getTypeUtils().erasure(param.asType())));
+            first = false;
+        }
+        return sb.append(')').toString();
+    }
+
+    private String typeName(TypeMirror type) {
+        switch (type.getKind()) {
+            case ARRAY:
+                return typeName(((ArrayType) type).getComponentType()) + "[]";
+            case DECLARED:
+                TypeElement element = (TypeElement) ((DeclaredType) type).asElement();
+                return processingEnv.getElementUtils().getBinaryName(element).toString();
+            default:
+                // types primitifs
+                return type.toString();
+        }
+    }
+
+    private void generate() {
+        String registry = processingEnv.getOptions().get(OPTION_REGISTRY);
+        if (registry == null || registry.trim().isEmpty()) registry = defaultRegistryName();
+        registry = registry.trim();
+        compiled.add(registry);
+        int dot = registry.lastIndexOf('.');
+        String packageName = dot > 0 ? registry.substring(0, dot) : null;
+        String simpleName = registry.substring(dot + 1);
+        Element[] origins = originating.toArray(new Element[0]);
+
+        try {
+            JavaFileObject source = processingEnv.getFiler().createSourceFile(registry, origins);
+            try (Writer out = source.openWriter()) {
+                if (packageName != null) out.write("package " + packageName + ";\n\n");
+                out.write("/**\n * Généré par framework.processor.RouteRegistryProcessor : ne pas modifier.\n */\n");
+                out.write("public final class " + simpleName + " implements framework.util.RouteRegistry {\n");
+                out.write("    @Override\n");
+                out.write("    public void registerRoutes(Routes routes) {\n");
+                out.write("        routes.covers(" + compiled.size() + ", " + RouteRegistry.fingerprint(compiled) + "L);\n");
+                for (Map.Entry<String, List<String>> e : controllers.entrySet()) {
+                    out.write("        routes.controller(" + literal(e.getKey()));
+                    for (String signature : e.getValue()) out.write(",\n                " + literal(signature));
+                    out.write(");\n");
+                }
+                out.write("    }\n}\n");
+            }
+
+            FileObject services = processingEnv.getFiler()
+                    .createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE, origins);
+            try (Writer out = services.openWriter()) {
+                out.write(registry + "\n");
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Impossible de générer le registre de routes " + registry + " : " + e.getMessage());
+        }
+    }
+
+    // paquetage commun des contrôleurs : deux modules (jars) n'ont pas le même registre
+    private String defaultRegistryName() {
+        String common = null;
+        for (String controller : controllers.keySet()) {
+            int dot = controller.lastIndexOf('.');
+            String pkg = dot > 0 ? controller.substring(0, dot) : "";
+            if (common == null) {
+                common = pkg;
+            } else {
+                while (!pkg.equals(common) && !pkg.startsWith(common + ".")) {
+                    int last = common.lastIndexOf('.');
+                    common = last > 0 ? common.substring(0, last) : "";
+                    if (common.isEmpty()) break;
+                }
+            }
+        }
+        if (common == null || common.isEmpty()) return DEFAULT_REGISTRY;
+        return REGISTRY_PACKAGE + ".RouteRegistry_" + common.replace('.', '_');
+    }
+
+    private static String literal(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+}
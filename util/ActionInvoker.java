@@ -0,0 +1,209 @@
+package framework.util;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.Supplier;
+
+/**
+ * Invocation précompilée d'une action de contrôleur, construite une fois au scan.
+ * Le constructeur passe par un Supplier généré (LambdaMetafactory) et la méthode par un
+ * MethodHandle de type fixe (Object, Object[])Object : plus de setAccessible ni de
+ * Method.invoke sur le chemin de dispatch. Les arguments arrivent toujours en Object[]
+ * (ArgumentPlan), primitifs en boîte : le MethodHandle les répartit et les déballe.
+ *
+ * Seules les exceptions levées par le contrôleur lui-même sont enveloppées dans une
+ * InvocationTargetException, comme avec Method.invoke ; un argument de mauvais type donne
+ * une IllegalArgumentException.
+ */
+public class ActionInvoker {
+    private static final MethodType ACTION_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+    private static final Object[] NO_ARGS = new Object[0];
+    // (Throwable)Object : relance une exception du contrôleur enveloppée en InvocationTargetException
+    private static final MethodHandle THROW_TARGET;
+
+    static {
+        try {
+            THROW_TARGET = MethodHandles.lookup().findStatic(ActionInvoker.class, "throwTarget",
+                    MethodType.methodType(Object.class, Throwable.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final Method method;
+    private final MethodHandle action;
+    private final Supplier<Object> constructor;
+    private final MethodHandle constructorHandle;
+    private final int[] primitiveSlots;
+
+    private ActionInvoker(Method method, MethodHandle action, Supplier<Object> constructor,
+                          MethodHandle constructorHandle, int[] primitiveSlots) {
+        this.method = method;
+        this.action = action;
+        this.constructor = constructor;
+        this.constructorHandle = constructorHandle;
+        this.primitiveSlots = primitiveSlots;
+    }
+
+    public static ActionInvoker of(Method method) {
+        Class<?> cls = method.getDeclaringClass();
+        MethodHandles.Lookup lookup = lookupFor(cls);
+
+        MethodHandle action;
+        try {
+            MethodHandle target = lookup != null ? lookup.unreflect(method) : unreflectAccessible(method);
+            target = wrapTargetExceptions(target);
+            if (Modifier.isStatic(method.getModifiers())) {
+                target = MethodHandles.dropArguments(target, 0, Object.class);
+            }
+            action = target.asType(target.type().changeParameterType(0, Object.class))
+                    .asSpreader(Object[].class, method.getParameterCount())
+                    .asType(ACTION_TYPE);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Méthode inaccessible : " + cls.getName() + "#" + method.getName(), e);
+        }
+
+        Supplier<Object> constructor = null;
+        MethodHandle constructorHandle = null;
+        if (!Modifier.isAbstract(cls.getModifiers()) && !cls.isInterface()) {
+            try {
+                MethodHandle ctor = lookup != null
+                        ? lookup.findConstructor(cls, MethodType.methodType(void.class))
+                        : unreflectConstructorAccessible(cls);
+                constructorHandle = wrapTargetExceptions(ctor).asType(CONSTRUCTOR_TYPE);
+                constructor = lambdaConstructor(lookup, cls, ctor);
+            } catch (NoSuchMethodException | IllegalAccessException e) {
+                // pas de constructeur sans argument : l'erreur sera levée à l'instanciation
+            }
+        }
+
+        Class<?>[] paramTypes = method.getParameterTypes();
+        int count = 0;
+        for (Class<?> type : paramTypes) if (type.isPrimitive()) count++;
+        int[] primitiveSlots = new int[count];
+        count = 0;
+        for (int i = 0; i < paramTypes.length; i++) if (paramTypes[i].isPrimitive()) primitiveSlots[count++] = i;
+
+        return new ActionInvoker(method, action, constructor, constructorHandle, primitiveSlots);
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    /**
+     * Crée une nouvelle instance du contrôleur (constructeur sans argument).
+     */
+    public Object newInstance() throws Exception {
+        if (constructor != null) {
+            try {
+                return constructor.get();
+            } catch (ExceptionInInitializerError e) {
+                // initialisation de la classe, pas le constructeur
+                throw e;
+            } catch (Throwable t) {
+                // le Supplier généré n'appelle que le constructeur : tout vient de lui
+                throw new InvocationTargetException(t);
+            }
+        }
+        if (constructorHandle != null) {
+            try {
+                return (Object) constructorHandle.invokeExact();
+            } catch (Exception | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new IllegalStateException(t);
+            }
+        }
+        throw new NoSuchMethodException(method.getDeclaringClass().getName() + ".<init>()");
+    }
+
+    /**
+     * Invoque l'action sur l'instance donnée (ignorée pour une méthode statique).
+     */
+    public Object invoke(Object target, Object[] args) throws Exception {
+        if (args.length != method.getParameterCount()) {
+            throw new IllegalArgumentException(method.getName() + " attend " + method.getParameterCount()
+                    + " argument(s), reçu " + args.length);
+        }
+        for (int slot : primitiveSlots) {
+            if (args[slot] == null) {
+                throw new IllegalArgumentException("Argument null pour le paramètre primitif #" + slot
+                        + " de " + method.getName());
+            }
+        }
+        if (target == null && !Modifier.isStatic(method.getModifiers())) {
+            throw new NullPointerException("Pas d'instance pour " + method.getName());
+        }
+        try {
+            return (Object) action.invokeExact(target, args);
+        } catch (ClassCastException | WrongMethodTypeException e) {
+            // conversion des arguments (asType, asSpreader), avant l'entrée dans l'action
+            throw new IllegalArgumentException("Arguments incompatibles avec " + method.getName() + " : "
+                    + e.getMessage(), e);
+        } catch (Exception | Error e) {
+            // InvocationTargetException levée par l'action, ou erreur du framework telle quelle
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    public Object invoke(Object target) throws Exception {
+        return invoke(target, NO_ARGS);
+    }
+
+    // toute exception levée dans target ressort en InvocationTargetException ; les conversions
+    // ajoutées ensuite autour du handle (asType, asSpreader) ne sont pas couvertes
+    private static MethodHandle wrapTargetExceptions(MethodHandle target) {
+        MethodType type = target.type();
+        MethodHandle handler = THROW_TARGET.asType(MethodType.methodType(type.returnType(), Throwable.class));
+        handler = MethodHandles.dropArguments(handler, 1, type.parameterList());
+        return MethodHandles.catchException(target, Throwable.class, handler);
+    }
+
+    private static Object throwTarget(Throwable t) throws InvocationTargetException {
+        throw new InvocationTargetException(t);
+    }
+
+    private static MethodHandles.Lookup lookupFor(Class<?> cls) {
+        try {
+            return MethodHandles.privateLookupIn(cls, MethodHandles.lookup());
+        } catch (IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static MethodHandle unreflectAccessible(Method method) throws IllegalAccessException {
+        method.setAccessible(true);
+        return MethodHandles.lookup().unreflect(method);
+    }
+
+    private static MethodHandle unreflectConstructorAccessible(Class<?> cls)
+            throws NoSuchMethodException, IllegalAccessException {
+        java.lang.reflect.Constructor<?> ctor = cls.getDeclaredConstructor();
+        ctor.setAccessible(true);
+        return MethodHandles.lookup().unreflectConstructor(ctor);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Supplier<Object> lambdaConstructor(MethodHandles.Lookup lookup, Class<?> cls, MethodHandle ctor) {
+        if (lookup == null) return null;
+        try {
+            CallSite site = LambdaMetafactory.metafactory(lookup, "get",
+                    MethodType.methodType(Supplier.class), CONSTRUCTOR_TYPE, ctor, MethodType.methodType(cls));
+            return (Supplier<Object>) site.getTarget().invokeExact();
+        } catch (Throwable t) {
+            // lookup sans privilège complet (autre chargeur) : on garde le MethodHandle
+            return null;
+        }
+    }
+}
@@ -6,11 +6,25 @@ public class ActionMapping {
     private String theClassName;
     private Method theMethod;
     private String httpMethod;
+    private String pattern;
+    private ActionInvoker invoker;
+    private ArgumentPlan argumentPlan;
+    private AuthManager.Policy authPolicy;
+    // identifiant attribué au démarrage pour les métriques (RouteMetrics), -1 sinon
+    private int routeId = -1;
 
     public ActionMapping(String theClassName, Method theMethod, String httpMethod) {
+        this(theClassName, theMethod, httpMethod, null);
+    }
+
+    public ActionMapping(String theClassName, Method theMethod, String httpMethod, String pattern) {
         this.theClassName = theClassName;
         this.theMethod = theMethod;
         this.httpMethod = httpMethod;
+        this.pattern = pattern;
+        this.invoker = ActionInvoker.of(theMethod);
+        this.argumentPlan = ArgumentPlan.compile(theMethod, pattern);
+        this.authPolicy = AuthManager.compile(theMethod);
     }
 
     public String getTheClassName() {
@@ -27,6 +41,33 @@ public class ActionMapping {
 
     public void setTheMethod(Method theMethod) {
         this.theMethod = theMethod;
+        this.invoker = ActionInvoker.of(theMethod);
+        this.argumentPlan = ArgumentPlan.compile(theMethod, pattern);
+        this.authPolicy = AuthManager.compile(theMethod);
+    }
+
+    public ActionInvoker getInvoker() {
+        return this.invoker;
+    }
+
+    public ArgumentPlan getArgumentPlan() {
+        return this.argumentPlan;
+    }
+
+    public AuthManager.Policy getAuthPolicy() {
+        return this.authPolicy;
+    }
+
+    public String getPattern() {
+        return this.pattern;
+    }
+
+    public int getRouteId() {
+        return this.routeId;
+    }
+
+    public void setRouteId(int routeId) {
+        this.routeId = routeId;
     }
 
     public String getHttpMethod() {
@@ -0,0 +1,465 @@
+package framework.util;
+
+import framework.annotations.Param;
+import framework.annotations.Session;
+import framework.views.ModelView;
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.io.StringReader;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Plan de résolution des arguments d'une action, compilé une fois au scan.
+ * Chaque paramètre de la méthode reçoit un résolveur (session, fichiers UploadedFile, paramètres,
+ * valeur simple, objet bindé, variable de chemin) ; à la requête on exécute simplement le plan.
+ *
+ * Les variables de chemin sont lues dans la RouteMatch de la requête, par position, et converties
+ * une seule fois ({id:int} directement depuis le chemin). Elles ne sont exposées en attributs de
+ * requête que si l'action peut les lire ainsi (paramètre HttpServletRequest ou vue ModelView).
+ *
+ * Les parties d'une requête multipart ne sont lues que par les actions qui attendent des fichiers
+ * (consumesUploads) ; les autres lisent les champs texte dans les paramètres du conteneur.
+ *
+ * Si la requête porte un corps application/json, les paramètres objets / Map / listes
+ * sont liés directement depuis ce corps (voir JsonBinder), et les valeurs simples depuis le
+ * champ du même nom quand le corps est un objet.
+ *
+ * Les erreurs de configuration (ex: @Session sur un mauvais type) lèvent une
+ * IllegalStateException à la compilation du plan, donc au démarrage.
+ */
+public class ArgumentPlan {
+    private static final Logger LOG = Logger.get(ArgumentPlan.class);
+    private static final Object[] NO_ARGS = new Object[0];
+
+    private final ArgumentResolver[] resolvers;
+    // paramètres qui peuvent recevoir un corps application/json : objets, Map, listes, valeurs simples
+    private final int[] bodySlots;
+    private final Type[] bodyTypes;
+    private final String[] bodyNames;
+    // seul paramètre objet / Map / liste (reçoit tout le document), sinon -1 ; index dans bodySlots
+    private final int documentSlot;
+    // des valeurs simples lisent aussi leur champ du corps
+    private final boolean scalarMembers;
+    private final boolean scalarsOnly;
+    private final boolean exposesPathVariables;
+    // un paramètre lit des fichiers (UploadedFile, Map<String, byte[]>) : seules ces actions analysent les parties
+    private final boolean consumesUploads;
+
+    private ArgumentPlan(ArgumentResolver[] resolvers, int[] bodySlots, Type[] bodyTypes, String[] bodyNames,
+                         int documentSlot, boolean scalarMembers, boolean scalarsOnly, boolean exposesPathVariables,
+                         boolean consumesUploads) {
+        this.resolvers = resolvers;
+        this.bodySlots = bodySlots;
+        this.bodyTypes = bodyTypes;
+        this.bodyNames = bodyNames;
+        this.documentSlot = documentSlot;
+        this.scalarMembers = scalarMembers;
+        this.scalarsOnly = scalarsOnly;
+        this.exposesPathVariables = exposesPathVariables;
+        this.consumesUploads = consumesUploads;
+    }
+
+    /**
+     * @param pattern URL de la route (pour reconnaître les variables de chemin), peut être null
+     */
+    public static ArgumentPlan compile(Method method, String pattern) {
+        List<String> pathVariables = new ArrayList<>();
+        List<PathType> pathTypes = new ArrayList<>();
+        parsePathVariables(pattern, pathVariables, pathTypes);
+        Parameter[] params = method.getParameters();
+        ArgumentResolver[] resolvers = new ArgumentResolver[params.length];
+
+        // les vues (JSP) et le code qui reçoit la requête lisent les variables de chemin en attributs
+        Class<?> returnType = method.getReturnType();
+        boolean exposesPathVariables = !pathVariables.isEmpty()
+                && (ModelView.class.isAssignableFrom(returnType) || returnType.isAssignableFrom(ModelView.class));
+
+        int bodyCount = 0;
+        int[] bodySlots = new int[params.length];
+        int documentCount = 0;
+        int documentSlot = -1;
+        boolean scalarMembers = false;
+        boolean consumesUploads = false;
+        for (int i = 0; i < params.length; i++) {
+            resolvers[i] = resolverFor(method, params[i], pathVariables, pathTypes);
+            if (!pathVariables.isEmpty() && HttpServletRequest.class.isAssignableFrom(params[i].getType())) {
+                exposesPathVariables = true;
+            }
+            if (resolvers[i] instanceof BeanResolver || resolvers[i] instanceof ParamMapResolver) {
+                documentCount++;
+                documentSlot = bodyCount;
+                bodySlots[bodyCount++] = i;
+            } else if (resolvers[i] instanceof ScalarResolver) {
+                scalarMembers = true;
+                bodySlots[bodyCount++] = i;
+            }
+            if (resolvers[i] instanceof UploadResolver || resolvers[i] instanceof FileMapResolver) {
+                consumesUploads = true;
+            }
+        }
+        // sans fichier attendu, la Map des paramètres vient directement de getParameterMap() (pas de getParts())
+        if (consumesUploads) {
+            for (int i = 0; i < resolvers.length; i++) {
+                if (resolvers[i] instanceof ParamMapResolver) resolvers[i] = new ParamMapResolver(true);
+            }
+        }
+
+        bodySlots = Arrays.copyOf(bodySlots, bodyCount);
+        Type[] bodyTypes = new Type[bodyCount];
+        String[] bodyNames = new String[bodyCount];
+        for (int k = 0; k < bodyCount; k++) {
+            Parameter p = params[bodySlots[k]];
+            Param paramAnnotation = p.getAnnotation(Param.class);
+            bodyTypes[k] = p.getParameterizedType();
+            bodyNames[k] = paramAnnotation != null ? paramAnnotation.value() : p.getName();
+        }
+        return new ArgumentPlan(resolvers, bodySlots, bodyTypes, bodyNames, documentCount == 1 ? documentSlot : -1,
+                scalarMembers, documentCount == 0, exposesPathVariables, consumesUploads);
+    }
+
+    public int size() {
+        return resolvers.length;
+    }
+
+    /**
+     * L'action a-t-elle besoin des variables de chemin en attributs de requête (RouteMatch.exportTo) ?
+     */
+    public boolean exposesPathVariables() {
+        return exposesPathVariables;
+    }
+
+    /**
+     * Un paramètre de l'action lit-il des fichiers envoyés ? Sinon, une requête multipart
+     * n'est jamais analysée en parties : les champs texte viennent des paramètres du conteneur.
+     */
+    public boolean consumesUploads() {
+        return consumesUploads;
+    }
+
+    /**
+     * Un paramètre peut-il être lié depuis un corps application/json ?
+     */
+    public boolean bindsJsonBody() {
+        return bodySlots.length > 0;
+    }
+
+    public Object[] resolve(RequestContext ctx) throws Exception {
+        if (resolvers.length == 0) return NO_ARGS;
+
+        Object[] args = new Object[resolvers.length];
+        boolean[] fromBody = bodySlots.length > 0 && ctx.isJson() ? bindJsonBody(ctx, args) : null;
+        for (int i = 0; i < resolvers.length; i++) {
+            if (fromBody == null || !fromBody[i]) args[i] = resolvers[i].resolve(ctx);
+        }
+        return args;
+    }
+
+    /**
+     * Corps application/json : un seul paramètre objet / Map / liste reçoit tout le document,
+     * sinon le document doit être un objet dont chaque champ est lié au paramètre du même nom.
+     * Les valeurs simples lisent leur champ quand le corps est un objet (converties comme un
+     * paramètre de formulaire) ; absentes du corps, elles restent résolues normalement.
+     */
+    private boolean[] bindJsonBody(RequestContext ctx, Object[] args) throws Exception {
+        boolean[] fromBody = new boolean[args.length];
+        if (documentSlot >= 0 && scalarMembers) return bindDocumentAndMembers(ctx, args, fromBody);
+
+        JsonReader reader = ctx.openJsonBody();
+        JsonReader.Token first = reader.peek();
+        if (first == JsonReader.Token.END) return fromBody; // corps vide
+        // seulement des valeurs simples : un corps qui n'est pas un objet ne les concerne pas
+        if (scalarsOnly && first != JsonReader.Token.BEGIN_OBJECT) return fromBody;
+
+        if (documentSlot >= 0) {
+            args[bodySlots[documentSlot]] = JsonBinder.read(reader, bodyTypes[documentSlot]);
+            fromBody[bodySlots[documentSlot]] = true;
+        } else {
+            readMembers(reader, args, fromBody, -1);
+        }
+        reader.endDocument();
+        return fromBody;
+    }
+
+    // l'objet reçoit tout le document et les valeurs simples leur champ : le corps est lu deux fois
+    private boolean[] bindDocumentAndMembers(RequestContext ctx, Object[] args, boolean[] fromBody) throws Exception {
+        String body = ctx.readJsonBody();
+        JsonReader reader = new JsonReader(new StringReader(body));
+        JsonReader.Token first = reader.peek();
+        if (first == JsonReader.Token.END) return fromBody;
+        if (first == JsonReader.Token.BEGIN_OBJECT) {
+            readMembers(reader, args, fromBody, documentSlot);
+            reader = new JsonReader(new StringReader(body));
+        }
+        args[bodySlots[documentSlot]] = JsonBinder.read(reader, bodyTypes[documentSlot]);
+        fromBody[bodySlots[documentSlot]] = true;
+        reader.endDocument();
+        return fromBody;
+    }
+
+    // chaque champ va au paramètre du même nom (sauf skipped), les autres sont ignorés
+    private void readMembers(JsonReader reader, Object[] args, boolean[] fromBody, int skipped) throws Exception {
+        JsonBinder.readMembers(reader, (name, r) -> {
+            for (int k = 0; k < bodyNames.length; k++) {
+                if (k != skipped && bodyNames[k].equals(name)) {
+                    args[bodySlots[k]] = JsonBinder.read(r, bodyTypes[k]);
+                    fromBody[bodySlots[k]] = true;
+                    return;
+                }
+            }
+            r.skipValue();
+        });
+    }
+
+    private static ArgumentResolver resolverFor(Method method, Parameter p, List<String> pathVariables,
+                                                List<PathType> pathTypes) {
+        Class<?> type = p.getType();
+
+        // Vérifier si le paramètre est annoté @Session
+        if (p.isAnnotationPresent(Session.class)) {
+            if (Map.class.isAssignableFrom(type) && type.isAssignableFrom(SessionMap.class)) {
+                Type[] types = typeArguments(p);
+                if (types != null && types.length == 2 && types[0] == String.class && types[1] == Object.class) {
+                    return RequestContext::getSessionMap;
+                }
+            }
+            throw new IllegalStateException("@Session doit être utilisé sur un paramètre de type Map<String, Object> : "
+                    + method.getDeclaringClass().getName() + "#" + method.getName() + "(" + p.getName() + ")");
+        }
+
+        if (HttpServletRequest.class.isAssignableFrom(type)) {
+            return RequestContext::getRequest;
+        }
+
+        // Fichiers envoyés, par nom de champ : contenu laissé chez le conteneur (pas de byte[])
+        if (type == UploadedFile.class || type == UploadedFile[].class || isUploadList(p)) {
+            Param paramAnnotation = p.getAnnotation(Param.class);
+            String fieldName = paramAnnotation != null ? paramAnnotation.value() : p.getName();
+            return new UploadResolver(fieldName, type);
+        }
+
+        // Map<String, byte[]> pour fichiers (compatibilité : tout est lu en mémoire), toute autre Map pour paramètres normaux
+        if (type.equals(Map.class)) {
+            Type[] typeArgs = typeArguments(p);
+            if (typeArgs != null && typeArgs.length == 2 && typeArgs[0].equals(String.class)
+                    && isByteArrayType(typeArgs[1])) {
+                return new FileMapResolver();
+            }
+            return new ParamMapResolver(false);
+        }
+
+        Param paramAnnotation = p.getAnnotation(Param.class);
+        String paramName = (paramAnnotation != null) ? paramAnnotation.value() : p.getName();
+
+        int pathIndex = indexOfIgnoreCase(pathVariables, paramName);
+        if (pathIndex >= 0) {
+            PathType pathType = pathTypes.get(pathIndex);
+            if (ParamConverter.supports(type) || (pathType != null && pathType.produces(type))) {
+                return new PathVariableResolver(pathIndex, paramName, type);
+            }
+        }
+        if (ParamConverter.supports(type)) {
+            return new ScalarResolver(p.getName(), paramName, type);
+        }
+        return new BeanResolver(p, paramName, type);
+    }
+
+    // Nouvelle méthode pour convertir les paramètres en Map<String, Object>
+    // (valeur directe si un seul paramètre, sinon le tableau ; champs fichiers exclus)
+    static Map<String, Object> convertParametersToMap(ParamTree tree, Set<String> fileParamNames) {
+        Map<String, Object> resultMap = tree.toFlatMap(fileParamNames);
+
+        if (LOG.isDebugEnabled()) {
+            StringBuilder dump = new StringBuilder("=== Map des paramètres ===");
+            resultMap.forEach((key, value) -> dump.append('\n').append(key).append(" -> ").append(value));
+            LOG.debug(dump.toString());
+        }
+
+        return resultMap;
+    }
+
+    private static Type[] typeArguments(Parameter p) {
+        Type genericType = p.getParameterizedType();
+        if (genericType instanceof ParameterizedType) {
+            return ((ParameterizedType) genericType).getActualTypeArguments();
+        }
+        return null;
+    }
+
+    // List<UploadedFile> ou Collection<UploadedFile>
+    private static boolean isUploadList(Parameter p) {
+        Class<?> type = p.getType();
+        if (type != List.class && type != Collection.class) return false;
+        Type[] typeArgs = typeArguments(p);
+        return typeArgs != null && typeArgs.length == 1 && typeArgs[0] == UploadedFile.class;
+    }
+
+    // Vérifie si le type correspond à byte[] pour la détection des maps de fichiers
+    private static boolean isByteArrayType(Type type) {
+        if (type instanceof Class<?>) {
+            return ((Class<?>) type).equals(byte[].class);
+        }
+        String typeName = type.getTypeName();
+        return "byte[]".equals(typeName) || "[B".equals(typeName);
+    }
+
+    // noms et types des variables, dans l'ordre du pattern (= ordre des captures de RouteTree)
+    private static void parsePathVariables(String pattern, List<String> names, List<PathType> types) {
+        if (pattern == null) return;
+        for (String part : pattern.split("/")) {
+            if (part.length() > 1 && part.startsWith("{") && part.endsWith("}")) {
+                String spec = part.substring(1, part.length() - 1);
+                int colonIndex = spec.indexOf(':');
+                names.add(colonIndex >= 0 ? spec.substring(0, colonIndex) : spec);
+                types.add(colonIndex >= 0 ? PathType.of(spec.substring(colonIndex + 1)) : null);
+            }
+        }
+    }
+
+    // le scan met les patterns en minuscules : {userId} devient {userid}
+    private static int indexOfIgnoreCase(List<String> names, String name) {
+        for (int i = 0; i < names.size(); i++) {
+            if (names.get(i).equalsIgnoreCase(name)) return i;
+        }
+        return -1;
+    }
+
+    // Map des paramètres du formulaire (hors champs fichiers si l'action lit aussi des fichiers)
+    private static final class ParamMapResolver implements ArgumentResolver {
+        private final boolean excludeFileFields;
+
+        ParamMapResolver(boolean excludeFileFields) {
+            this.excludeFileFields = excludeFileFields;
+        }
+
+        @Override
+        public Object resolve(RequestContext ctx) {
+            Set<String> fileFields = excludeFileFields && ctx.isMultipart()
+                    ? ctx.getFileParamNames() : Collections.emptySet();
+            return convertParametersToMap(ctx.getParamTree(), fileFields);
+        }
+    }
+
+    // Map<String, byte[]> : fichiers chargés en mémoire, par nom de fichier (compatibilité)
+    private static final class FileMapResolver implements ArgumentResolver {
+        @Override
+        public Object resolve(RequestContext ctx) {
+            if (!ctx.isMultipart()) {
+                LOG.warn("ATTENTION: Méthode attend des fichiers mais formulaire pas en multipart!");
+            }
+            return ctx.getFileParams();
+        }
+    }
+
+    // Valeur capturée dans l'URL, lue par position dans la RouteMatch de la requête
+    private static final class PathVariableResolver implements ArgumentResolver {
+        private final int index;
+        private final String name;
+        private final Class<?> type;
+        private final Converter converter;
+
+        PathVariableResolver(int index, String name, Class<?> type) {
+            this.index = index;
+            this.name = name;
+            this.type = type;
+            this.converter = ConverterRegistry.forType(type);
+        }
+
+        @Override
+        public Object resolve(RequestContext ctx) {
+            RouteMatch<?> match = ctx.getRouteMatch();
+            if (match != null && index < match.getParamCount()) {
+                return match.convert(index, type, converter);
+            }
+
+            // hors routage : attribut de requête ou paramètre du même nom
+            HttpServletRequest req = ctx.getRequest();
+            Object attr = req.getAttribute(name);
+            String value = attr != null ? String.valueOf(attr) : req.getParameter(name);
+            return value != null && !value.isEmpty() ? ParamConverter.convert(value, type, converter) : null;
+        }
+    }
+
+    // Valeur simple (String, primitifs, wrappers) : paramètre puis attribut de requête
+    private static final class ScalarResolver implements ArgumentResolver {
+        private final String javaName;
+        private final String paramName;
+        private final Class<?> type;
+        private final Converter converter;
+
+        ScalarResolver(String javaName, String paramName, Class<?> type) {
+            this.javaName = javaName;
+            this.paramName = paramName;
+            this.type = type;
+            this.converter = ConverterRegistry.forType(type);
+        }
+
+        @Override
+        public Object resolve(RequestContext ctx) {
+            HttpServletRequest req = ctx.getRequest();
+            String value = req.getParameter(javaName);
+            if (value == null && !javaName.equals(paramName)) value = req.getParameter(paramName);
+            if (value == null) {
+                Object attr = req.getAttribute(paramName);
+                if (attr != null) value = String.valueOf(attr);
+            }
+            return value != null && !value.isEmpty() ? ParamConverter.convert(value, type, converter) : null;
+        }
+    }
+
+    // Fichier(s) d'un champ multipart : UploadedFile (le premier, ou null), tableau ou liste
+    private static final class UploadResolver implements ArgumentResolver {
+        private final String fieldName;
+        private final Class<?> type;
+
+        UploadResolver(String fieldName, Class<?> type) {
+            this.fieldName = fieldName;
+            this.type = type;
+        }
+
+        @Override
+        public Object resolve(RequestContext ctx) {
+            List<UploadedFile> uploads = ctx.isMultipart() ? ctx.getUploads(fieldName) : Collections.emptyList();
+            if (type == UploadedFile.class) return uploads.isEmpty() ? null : uploads.get(0);
+            if (type == UploadedFile[].class) return uploads.toArray(new UploadedFile[0]);
+            return uploads;
+        }
+    }
+
+    // Objet complexe rempli par ObjectBinder (notation pointée)
+    private static final class BeanResolver implements ArgumentResolver {
+        private final String javaName;
+        private final String paramName;
+        private final Class<?> type;
+
+        BeanResolver(Parameter p, String paramName, Class<?> type) {
+            this.javaName = p.getName();
+            this.paramName = paramName;
+            this.type = type;
+        }
+
+        @Override
+        public Object resolve(RequestContext ctx) {
+            HttpServletRequest req = ctx.getRequest();
+            Object bound = ObjectBinder.bind(ctx.getParamTree(), javaName, type);
+            if (bound != null) return bound;
+
+            // Si ObjectBinder retourne null, essayer la conversion classique
+            String value = req.getParameter(paramName);
+            if (value == null) {
+                Object attr = req.getAttribute(paramName);
+                if (attr != null) value = String.valueOf(attr);
+            }
+            return value != null && !value.isEmpty() ? ParamConverter.convert(value, type) : null;
+        }
+    }
+}
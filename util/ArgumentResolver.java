@@ -0,0 +1,9 @@
+package framework.util;
+
+/**
+ * Résout la valeur d'un argument d'action à partir de la requête courante.
+ */
+@FunctionalInterface
+public interface ArgumentResolver {
+    Object resolve(RequestContext ctx) throws Exception;
+}
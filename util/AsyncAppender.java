@@ -0,0 +1,144 @@
+package framework.util;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Écrivain asynchrone du Logger : file bornée vidée par un thread démon unique.
+ * Si la file est pleine, le message est perdu (et compté) plutôt que de bloquer la requête ;
+ * le nombre de messages perdus est signalé dans le journal dès que la file se libère.
+ *
+ * Après shutdown() (arrêt de la webapp), le thread n'est jamais relancé : il retiendrait le
+ * ClassLoader de la webapp déchargée. Les messages tardifs sont écrits directement sur la console,
+ * dans le thread appelant.
+ */
+final class AsyncAppender {
+    private static final int DEFAULT_QUEUE_SIZE = 8192;
+    private static final int BATCH_SIZE = 256;
+
+    private static final ArrayBlockingQueue<Logger.LogRecord> QUEUE = new ArrayBlockingQueue<>(queueSize());
+    private static final AtomicLong DROPPED = new AtomicLong();
+
+    private static final Object DIRECT_LOCK = new Object();
+    private static final StringBuilder DIRECT_LINE = new StringBuilder(256);
+
+    // gardé après shutdown(), même mort : il n'y a jamais deux threads de vidage
+    private static volatile Thread worker;
+    private static volatile boolean running;
+    private static volatile boolean stopped;
+
+    private AsyncAppender() {}
+
+    static void append(Logger.LogRecord record) {
+        if (worker == null && !stopped) start();
+        if (stopped) {
+            writeDirect(record);
+            return;
+        }
+        if (!QUEUE.offer(record)) DROPPED.incrementAndGet();
+    }
+
+    static long droppedCount() {
+        return DROPPED.get();
+    }
+
+    private static synchronized void start() {
+        if (worker != null || stopped) return;
+        running = true;
+        Thread t = new Thread(AsyncAppender::drainLoop, "framework-log");
+        t.setDaemon(true);
+        worker = t;
+        t.start();
+    }
+
+    static synchronized void shutdown() {
+        stopped = true;
+        Thread t = worker;
+        if (t == null) return;
+        running = false;
+        t.interrupt();
+        try {
+            t.join(2000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (t.isAlive()) System.err.println("[framework-log] écriture du journal toujours en cours à l'arrêt");
+    }
+
+    private static void writeDirect(Logger.LogRecord record) {
+        synchronized (DIRECT_LOCK) {
+            record.writeTo(System.out, DIRECT_LINE);
+            System.out.flush();
+        }
+    }
+
+    private static void drainLoop() {
+        PrintStream out = openOutput();
+        StringBuilder line = new StringBuilder(256);
+        List<Logger.LogRecord> batch = new ArrayList<>(BATCH_SIZE);
+        try {
+            while (running) {
+                Logger.LogRecord first;
+                try {
+                    first = QUEUE.poll(1, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    break;
+                }
+                if (first == null) continue;
+                batch.add(first);
+                QUEUE.drainTo(batch, BATCH_SIZE - 1);
+                write(out, line, batch);
+            }
+            // arrêt : écrire ce qui reste
+            QUEUE.drainTo(batch);
+            write(out, line, batch);
+        } finally {
+            out.flush();
+            if (out != System.out) out.close();
+        }
+    }
+
+    private static void write(PrintStream out, StringBuilder line, List<Logger.LogRecord> batch) {
+        long dropped = DROPPED.getAndSet(0);
+        if (dropped > 0) {
+            out.println("[framework-log] " + dropped + " message(s) perdu(s) : file d'attente pleine");
+        }
+        for (Logger.LogRecord record : batch) {
+            record.writeTo(out, line);
+        }
+        batch.clear();
+        out.flush();
+    }
+
+    private static PrintStream openOutput() {
+        String file = PropertiesUtil.get("log.file");
+        if (file != null && !file.trim().isEmpty()) {
+            try {
+                return new PrintStream(new FileOutputStream(file.trim(), true), false, StandardCharsets.UTF_8.name());
+            } catch (IOException e) {
+                System.err.println("log.file inutilisable (" + file + ") : " + e.getMessage() + ", journal sur la console");
+            }
+        }
+        return System.out;
+    }
+
+    private static int queueSize() {
+        String value = PropertiesUtil.get("log.queue.size");
+        if (value != null) {
+            try {
+                int size = Integer.parseInt(value.trim());
+                if (size > 0) return size;
+            } catch (NumberFormatException e) {
+                // valeur invalide : taille par défaut
+            }
+        }
+        return DEFAULT_QUEUE_SIZE;
+    }
+}
@@ -1,39 +1,165 @@
 package framework.util;
 
 import framework.annotations.Authorized;
+import framework.annotations.JSON;
 import framework.annotations.Role;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
 import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Autorisations des actions (@Authorized, @Role), compilées une fois par route en Policy.
+ *
+ * La vérification lit la session sans la créer (SessionBackend.find, getSession(false) en mode
+ * container) : une route publique ne touche pas à la session, et un client anonyme ne fait
+ * jamais créer de session. Les rôles d'un @Role sont
+ * numérotés au démarrage et comparés comme un masque de bits ; l'attribut de rôle de la session
+ * peut être une valeur simple, un tableau ou une collection (utilisateur à plusieurs rôles).
+ *
+ * Refus : 401 si l'utilisateur n'est pas authentifié, 403 s'il n'a aucun des rôles demandés.
+ * Les corps de réponse sont encodés une seule fois.
+ */
 public class AuthManager {
     private static final String AUTH_VAR = PropertiesUtil.get("auth.variable");
     private static final String ROLE_VAR = PropertiesUtil.get("role.variable");
 
+    // un bit par rôle cité dans un @Role, attribué à la compilation des politiques
+    private static final Map<String, Long> ROLE_BITS = new ConcurrentHashMap<>();
+
+    private static final byte[] JSON_401 = jsonError(401, "Unauthorized");
+    private static final byte[] JSON_403 = jsonError(403, "Forbidden");
+    private static final byte[] TEXT_401 = "Unauthorized\n".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] TEXT_403 = "Forbidden\n".getBytes(StandardCharsets.UTF_8);
+
+    public static final int ALLOWED = HttpServletResponse.SC_OK;
+    public static final int UNAUTHENTICATED = HttpServletResponse.SC_UNAUTHORIZED;
+    public static final int FORBIDDEN = HttpServletResponse.SC_FORBIDDEN;
+
+    /**
+     * Politique d'accès de la méthode, lue une fois dans ses annotations.
+     */
+    public static Policy compile(Method method) {
+        boolean json = method.isAnnotationPresent(JSON.class);
+        Role role = method.getAnnotation(Role.class);
+        long roleMask = role != null ? roleMask(method, role) : 0L;
+        boolean authenticated = role != null || method.isAnnotationPresent(Authorized.class);
+        if (!authenticated) return json ? Policy.PUBLIC_JSON : Policy.PUBLIC;
+        // @Role sans rôle : authentification seule
+        return new Policy(true, roleMask != 0L, roleMask, json);
+    }
+
+    /**
+     * Compile la politique à chaque appel : les routes utilisent celle de leur mapping (getAuthPolicy()).
+     */
     public static boolean isAuthorized(Method method, HttpServletRequest req) {
-        // Vérification @Authorized : l'utilisateur doit être authentifié
-        if (method.isAnnotationPresent(Authorized.class)) {
-            Object authValue = req.getSession().getAttribute(AUTH_VAR);
-            if (authValue == null) {
-                return false;  // Non authentifié
-            }
+        return compile(method).check(req) == ALLOWED;
+    }
+
+    // value et anyOf réunis
+    private static long roleMask(Method method, Role role) {
+        long mask = role.value().isEmpty() ? 0L : roleBit(method, role.value());
+        for (String name : role.anyOf()) {
+            if (!name.isEmpty()) mask |= roleBit(method, name);
         }
+        return mask;
+    }
 
-        // Vérification @Role : l'utilisateur doit être authentifié ET avoir le rôle requis
-        if (method.isAnnotationPresent(Role.class)) {
-            // D'abord, vérifier l'authentification (nécessaire pour les rôles)
-            Object authValue = req.getSession().getAttribute(AUTH_VAR);
-            if (authValue == null) {
-                return false;  // Non authentifié, donc pas de rôle possible
+    private static long roleBit(Method method, String role) {
+        Long bit = ROLE_BITS.get(role);
+        if (bit != null) return bit;
+        synchronized (ROLE_BITS) {
+            bit = ROLE_BITS.get(role);
+            if (bit == null) {
+                if (ROLE_BITS.size() == Long.SIZE) {
+                    throw new IllegalStateException("Plus de " + Long.SIZE + " rôles distincts dans les @Role : "
+                            + method.getDeclaringClass().getName() + "#" + method.getName());
+                }
+                bit = 1L << ROLE_BITS.size();
+                ROLE_BITS.put(role, bit);
             }
+            return bit;
+        }
+    }
 
-            Role roleAnnotation = method.getAnnotation(Role.class);
-            String requiredRole = roleAnnotation.value();
-            Object sessionRole = req.getSession().getAttribute(ROLE_VAR);
-            if (sessionRole == null || !requiredRole.equals(sessionRole.toString())) {
-                return false;  // Rôle insuffisant
-            }
+    // rôles de l'utilisateur (valeur simple, tableau ou collection) en masque ; rôles inconnus ignorés
+    private static long userRoles(Object value) {
+        if (value instanceof Object[]) {
+            long mask = 0L;
+            for (Object role : (Object[]) value) mask |= userRole(role);
+            return mask;
+        }
+        if (value instanceof Collection) {
+            long mask = 0L;
+            for (Object role : (Collection<?>) value) mask |= userRole(role);
+            return mask;
         }
+        return userRole(value);
+    }
 
-        return true;  // Autorisé
+    private static long userRole(Object role) {
+        if (role == null) return 0L;
+        Long bit = ROLE_BITS.get(role.toString());
+        return bit != null ? bit : 0L;
+    }
+
+    private static byte[] jsonError(int code, String message) {
+        return ("{\"status\":\"ERROR\",\"code\":" + code + ",\"count\":1,\"data\":{\"message\":\"" + message + "\"}}\n")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Exigences d'accès d'une route : authentification, rôles acceptés (masque), format du refus.
+     */
+    public static final class Policy {
+        static final Policy PUBLIC = new Policy(false, false, 0L, false);
+        static final Policy PUBLIC_JSON = new Policy(false, false, 0L, true);
+
+        private final boolean authenticated;
+        private final boolean roleRequired;
+        private final long roleMask;
+        private final boolean json;
+
+        private Policy(boolean authenticated, boolean roleRequired, long roleMask, boolean json) {
+            this.authenticated = authenticated;
+            this.roleRequired = roleRequired;
+            this.roleMask = roleMask;
+            this.json = json;
+        }
+
+        public boolean isPublic() {
+            return !authenticated;
+        }
+
+        /**
+         * @return ALLOWED, UNAUTHENTICATED (401) ou FORBIDDEN (403)
+         */
+        public int check(HttpServletRequest req) {
+            if (!authenticated) return ALLOWED;
+
+            SessionBackend.Attributes session = SessionBackend.configured().find(req);
+            if (session == null || session.getAttribute(AUTH_VAR) == null) return UNAUTHENTICATED;
+            if (roleRequired && (userRoles(session.getAttribute(ROLE_VAR)) & roleMask) == 0L) return FORBIDDEN;
+            return ALLOWED;
+        }
+
+        /**
+         * Écrit la réponse de refus (corps JSON pour une action @JSON, texte sinon).
+         */
+        public void reject(HttpServletResponse res, int status) throws IOException {
+            byte[] body = status == FORBIDDEN ? (json ? JSON_403 : TEXT_403) : (json ? JSON_401 : TEXT_401);
+            res.setStatus(status);
+            res.setContentType(json ? "application/json;charset=UTF-8" : "text/plain;charset=UTF-8");
+            res.setContentLength(body.length);
+            OutputStream os = res.getOutputStream();
+            os.write(body);
+            os.flush();
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,366 @@
+package framework.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Métadonnées de binding d'une classe, construites une seule fois (au premier usage) puis
+ * gardées en cache : propriétés dans un ordre fixe (getter/setter en MethodHandle, type déclaré, type des éléments
+ * pour List/tableau), constructeur sans argument, et chemins imbriqués déjà résolus (par forme,
+ * sans les index : "items[0].nom" et "items[7].nom" partagent "items[].nom").
+ */
+public final class BeanMetadata {
+    private static final ConcurrentHashMap<Class<?>, BeanMetadata> CACHE = new ConcurrentHashMap<>();
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+    // au-delà, les chemins sont résolus sans être gardés (type récursif : a.next.next...)
+    private static final int MAX_CACHED_PATHS = 1024;
+
+    private final Class<?> type;
+    private final MethodHandle constructor;
+    // clé = nom de propriété avec la première lettre en majuscule (suffixe de getX/setX)
+    private final Map<String, Property> properties;
+    // forme du chemin envoyé par le client, index retirés -> propriétés de chaque étape
+    private final ConcurrentHashMap<String, Property[]> paths = new ConcurrentHashMap<>();
+
+    private BeanMetadata(Class<?> type) {
+        this.type = type;
+        MethodHandles.Lookup lookup = lookupFor(type);
+        this.constructor = findConstructor(lookup, type);
+        this.properties = Collections.unmodifiableMap(findProperties(lookup, type));
+    }
+
+    public static BeanMetadata of(Class<?> cls) {
+        return CACHE.computeIfAbsent(cls, BeanMetadata::new);
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * @param name nom tel qu'il apparaît dans le formulaire (ex: "notes")
+     */
+    public Property property(String name) {
+        if (name == null || name.isEmpty()) return null;
+        return properties.get(capitalize(name));
+    }
+
+    public Map<String, Property> properties() {
+        return properties;
+    }
+
+    public boolean canInstantiate() {
+        return constructor != null;
+    }
+
+    public Object newInstance() throws Exception {
+        if (constructor == null) throw new NoSuchMethodException(type.getName() + ".<init>()");
+        try {
+            return (Object) constructor.invokeExact();
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    /**
+     * Résout un chemin pointé (ex: "notes.moyenne" ou "items[2].nom") en étapes. Les propriétés sont
+     * résolues une seule fois par forme de chemin ; les index sont repris du chemin à chaque appel.
+     * @return les étapes, ou null si une propriété du chemin n'existe pas
+     */
+    public Step[] path(String dottedPath) {
+        String[] parts = dottedPath.split("\\.");
+        String[] names = new String[parts.length];
+        int[] indexes = new int[parts.length];
+        StringBuilder shape = new StringBuilder(dottedPath.length());
+
+        for (int i = 0; i < parts.length; i++) {
+            String part = parts[i];
+            names[i] = part;
+            indexes[i] = Step.NO_INDEX;
+            int bracket = part.indexOf('[');
+            if (bracket >= 0) {
+                names[i] = part.substring(0, bracket);
+                int close = part.indexOf(']', bracket);
+                String inside = close > bracket ? part.substring(bracket + 1, close) : "";
+                indexes[i] = inside.isEmpty() ? Step.APPEND : parseIndex(inside);
+            }
+            if (i > 0) shape.append('.');
+            shape.append(names[i]);
+            if (indexes[i] != Step.NO_INDEX) shape.append("[]");
+        }
+
+        String key = shape.toString();
+        Property[] properties = paths.get(key);
+        if (properties == null) {
+            properties = resolvePath(names, indexes);
+            if (properties == null) return null;
+            if (paths.size() < MAX_CACHED_PATHS) paths.putIfAbsent(key, properties);
+        }
+
+        Step[] steps = new Step[properties.length];
+        for (int i = 0; i < steps.length; i++) steps[i] = new Step(properties[i], indexes[i]);
+        return steps;
+    }
+
+    private Property[] resolvePath(String[] names, int[] indexes) {
+        Property[] properties = new Property[names.length];
+        BeanMetadata current = this;
+
+        for (int i = 0; i < names.length; i++) {
+            Property property = current.property(names[i]);
+            if (property == null) return null;
+            properties[i] = property;
+
+            if (i < names.length - 1) {
+                Class<?> next = indexes[i] != Step.NO_INDEX && property.getElementType() != null
+                        ? property.getElementType() : property.getType();
+                current = BeanMetadata.of(next);
+            }
+        }
+        return properties;
+    }
+
+    private static int parseIndex(String inside) {
+        int value = 0;
+        for (int i = 0; i < inside.length(); i++) {
+            char c = inside.charAt(i);
+            if (c < '0' || c > '9') return Step.APPEND;
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static Map<String, Property> findProperties(MethodHandles.Lookup lookup, Class<?> type) {
+        Map<String, Method> getters = new HashMap<>();
+        Map<String, Method> setters = new HashMap<>();
+
+        for (Method m : type.getMethods()) {
+            if (Modifier.isStatic(m.getModifiers()) || m.getDeclaringClass() == Object.class) continue;
+            String name = m.getName();
+            if (m.getParameterCount() == 0 && m.getReturnType() != void.class) {
+                if (name.startsWith("get") && name.length() > 3) {
+                    getters.put(name.substring(3), m);
+                } else if (name.startsWith("is") && name.length() > 2 && m.getReturnType() == boolean.class) {
+                    getters.putIfAbsent(name.substring(2), m);
+                }
+            }
+        }
+        for (Method m : type.getMethods()) {
+            if (Modifier.isStatic(m.getModifiers())) continue;
+            String name = m.getName();
+            if (m.getParameterCount() == 1 && name.startsWith("set") && name.length() > 3) {
+                String key = name.substring(3);
+                Method getter = getters.get(key);
+                // le setter doit accepter le type du getter quand il existe
+                if (getter != null && m.getParameterTypes()[0] != getter.getReturnType()) continue;
+                setters.putIfAbsent(key, m);
+            }
+        }
+
+        Map<String, Property> result = new LinkedHashMap<>();
+        for (String key : propertyOrder(type, getters.keySet(), setters.keySet())) {
+            result.put(key, new Property(lookup, key, getters.get(key), setters.get(key)));
+        }
+        return result;
+    }
+
+    // ordre stable d'un démarrage à l'autre (getMethods() n'en garantit aucun) : champs dans l'ordre
+    // de déclaration, de la classe mère vers la classe, puis les autres propriétés par nom
+    private static List<String> propertyOrder(Class<?> type, Set<String> getters, Set<String> setters) {
+        Set<String> remaining = new TreeSet<>(getters);
+        remaining.addAll(setters);
+        List<Class<?>> hierarchy = new ArrayList<>();
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) hierarchy.add(c);
+        Collections.reverse(hierarchy);
+
+        List<String> order = new ArrayList<>(remaining.size());
+        for (Class<?> c : hierarchy) {
+            for (Field field : c.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()) continue;
+                String key = capitalize(field.getName());
+                if (remaining.remove(key)) order.add(key);
+            }
+        }
+        order.addAll(remaining);
+        return order;
+    }
+
+    private static MethodHandle findConstructor(MethodHandles.Lookup lookup, Class<?> type) {
+        if (type.isInterface() || type.isArray() || type.isPrimitive() || Modifier.isAbstract(type.getModifiers())) {
+            return null;
+        }
+        try {
+            MethodHandle ctor;
+            if (lookup != null) {
+                ctor = lookup.findConstructor(type, MethodType.methodType(void.class));
+            } else {
+                java.lang.reflect.Constructor<?> c = type.getDeclaredConstructor();
+                c.setAccessible(true);
+                ctor = MethodHandles.lookup().unreflectConstructor(c);
+            }
+            return ctor.asType(CONSTRUCTOR_TYPE);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static MethodHandles.Lookup lookupFor(Class<?> cls) {
+        try {
+            return MethodHandles.privateLookupIn(cls, MethodHandles.lookup());
+        } catch (IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static MethodHandle unreflect(MethodHandles.Lookup lookup, Method m, MethodType type) {
+        if (m == null) return null;
+        try {
+            if (lookup != null) return lookup.unreflect(m).asType(type);
+            m.setAccessible(true);
+            return MethodHandles.lookup().unreflect(m).asType(type);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static String capitalize(String str) {
+        char first = str.charAt(0);
+        if (Character.isUpperCase(first)) return str;
+        return Character.toUpperCase(first) + str.substring(1);
+    }
+
+    /**
+     * Une propriété : accès par MethodHandle, type déclaré et type des éléments (List/tableau).
+     */
+    public static final class Property {
+        private final String name;
+        private final Class<?> type;
+        private final Type genericType;
+        private final Class<?> elementType;
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+        private final Method getterMethod;
+
+        Property(MethodHandles.Lookup lookup, String name, Method getter, Method setter) {
+            this.name = name;
+            this.getterMethod = getter;
+            this.type = getter != null ? getter.getReturnType() : setter.getParameterTypes()[0];
+            this.genericType = getter != null ? getter.getGenericReturnType() : setter.getGenericParameterTypes()[0];
+            this.elementType = elementTypeOf(type, genericType);
+            this.getter = unreflect(lookup, getter, GETTER_TYPE);
+            this.setter = unreflect(lookup, setter, SETTER_TYPE);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Class<?> getType() {
+            return type;
+        }
+
+        public Type getGenericType() {
+            return genericType;
+        }
+
+        /**
+         * Type des éléments pour un tableau ou une List (String si la List n'est pas paramétrée), sinon null.
+         */
+        public Class<?> getElementType() {
+            return elementType;
+        }
+
+        public Method getGetterMethod() {
+            return getterMethod;
+        }
+
+        public boolean isReadable() {
+            return getter != null;
+        }
+
+        public boolean isWritable() {
+            return setter != null;
+        }
+
+        public Object get(Object bean) throws Exception {
+            if (getter == null) return null;
+            try {
+                return (Object) getter.invokeExact(bean);
+            } catch (Exception | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new IllegalStateException(t);
+            }
+        }
+
+        public void set(Object bean, Object value) throws Exception {
+            if (setter == null) throw new NoSuchMethodException("set" + name);
+            try {
+                setter.invokeExact(bean, value);
+            } catch (Exception | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new IllegalStateException(t);
+            }
+        }
+
+        private static Class<?> elementTypeOf(Class<?> type, Type genericType) {
+            if (type.isArray()) return type.getComponentType();
+            if (!List.class.isAssignableFrom(type)) return null;
+            if (genericType instanceof ParameterizedType) {
+                Type arg = ((ParameterizedType) genericType).getActualTypeArguments()[0];
+                if (arg instanceof Class<?>) return (Class<?>) arg;
+                if (arg instanceof ParameterizedType) return (Class<?>) ((ParameterizedType) arg).getRawType();
+            }
+            return String.class;
+        }
+    }
+
+    /**
+     * Une étape d'un chemin pointé : la propriété et l'index éventuel ([2] ou []).
+     */
+    public static final class Step {
+        public static final int NO_INDEX = -1;
+        public static final int APPEND = -2;
+
+        private final Property property;
+        private final int index;
+
+        Step(Property property, int index) {
+            this.property = property;
+            this.index = index;
+        }
+
+        public Property getProperty() {
+            return property;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public boolean isIndexed() {
+            return index >= 0;
+        }
+    }
+}
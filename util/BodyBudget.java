@@ -0,0 +1,203 @@
+package framework.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Budget mémoire commun à toutes les requêtes pour les corps chargés dans le tas : JSON lié aux
+ * paramètres, requêtes multipart analysées en parties (le conteneur garde en mémoire chaque partie
+ * sous fileSizeThreshold, et une requête peut en compter autant qu'elle veut). FrontServlet réserve
+ * la taille du corps avant de résoudre les arguments et la rend dès que l'action a rendu son
+ * résultat, avant l'écriture de la réponse ; les actions sans corps à lire ne réservent rien.
+ *
+ * Budget épuisé : la requête attend qu'une autre libère sa part (body.budget.wait-ms), puis
+ * reçoit un 503 avec Retry-After (body.budget.retry-after secondes) au lieu de faire grossir le tas.
+ *
+ * Propriétés : body.budget.bytes (par défaut le quart du tas maximal, 0 = désactivé),
+ * body.budget.wait-ms (1000, 0 = refus immédiat), body.budget.retry-after (1).
+ */
+public final class BodyBudget {
+    private static final Logger LOG = Logger.get(BodyBudget.class);
+
+    public static final BodyBudget DISABLED = new BodyBudget(0, 0, 1, 0);
+
+    private static final byte[] JSON_503 = ("{\"status\":\"ERROR\",\"code\":503,\"count\":1,"
+            + "\"data\":{\"message\":\"Service Unavailable\"}}\n").getBytes(StandardCharsets.UTF_8);
+    private static final byte[] TEXT_503 = "Service Unavailable\n".getBytes(StandardCharsets.UTF_8);
+
+    private final long capacity;
+    private final long waitNanos;
+    private final String retryAfter;
+    // taille comptée pour un corps de longueur inconnue (chunked) : la plus grande requête acceptée
+    private final long unknownLength;
+
+    // équitable : les requêtes en attente passent dans leur ordre d'arrivée
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final Condition released = lock.newCondition();
+    private long used;
+
+    private final LongAdder waits = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+
+    public BodyBudget(long capacity, long waitMillis, int retryAfterSeconds, long unknownLength) {
+        this.capacity = Math.max(0, capacity);
+        this.waitNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, waitMillis));
+        this.retryAfter = Integer.toString(Math.max(1, retryAfterSeconds));
+        this.unknownLength = unknownLength;
+    }
+
+    /**
+     * Budget configuré dans application.properties.
+     * @param maxRequestSize plus grand corps accepté par le conteneur (@MultipartConfig), -1 si illimité
+     * @throws IllegalStateException si une propriété n'est pas un nombre
+     */
+    public static BodyBudget fromProperties(long maxRequestSize) {
+        long capacity = longProperty("body.budget.bytes", Runtime.getRuntime().maxMemory() / 4);
+        if (capacity <= 0) return DISABLED;
+        long waitMillis = longProperty("body.budget.wait-ms", 1000);
+        int retryAfter = (int) longProperty("body.budget.retry-after", 1);
+        long unknownLength = maxRequestSize > 0 ? maxRequestSize : capacity;
+        return new BodyBudget(capacity, waitMillis, retryAfter, unknownLength);
+    }
+
+    public boolean isEnabled() {
+        return capacity > 0;
+    }
+
+    /**
+     * Octets à réserver pour cette requête (0 : rien à réserver). Seuls les corps que le plan
+     * chargera dans le tas comptent ; un corps plus grand que tout le budget est compté pour
+     * le budget entier (il passe seul plutôt que jamais).
+     */
+    public long chargeFor(ArgumentPlan plan, HttpServletRequest req) {
+        if (capacity == 0) return 0;
+        String contentType = req.getContentType();
+        if (contentType == null) return 0;
+
+        boolean json = plan.bindsJsonBody() && contentType.regionMatches(true, 0, "application/json", 0, 16);
+        // fileSizeThreshold vaut par partie : une requête de petites parties reste entière en mémoire
+        boolean multipart = plan.consumesUploads() && contentType.startsWith("multipart/form-data");
+        if (!json && !multipart) return 0;
+        return Math.min(Math.max(contentLength(req), 0), capacity);
+    }
+
+    /**
+     * Réserve bytes octets, en attendant au plus body.budget.wait-ms qu'il y ait de la place.
+     * @return false si le budget est resté épuisé : rien n'est réservé, la requête doit être refusée
+     */
+    public boolean acquire(long bytes) {
+        if (bytes <= 0) return true;
+        lock.lock();
+        try {
+            if (used + bytes <= capacity && !lock.hasWaiters(released)) {
+                used += bytes;
+                return true;
+            }
+            waits.increment();
+            long remaining = waitNanos;
+            while (used + bytes > capacity) {
+                if (remaining <= 0) {
+                    rejections.increment();
+                    return false;
+                }
+                remaining = released.awaitNanos(remaining);
+            }
+            used += bytes;
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            rejections.increment();
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Rend une réservation obtenue par acquire (même nombre d'octets).
+     */
+    public void release(long bytes) {
+        if (bytes <= 0) return;
+        lock.lock();
+        try {
+            used -= bytes;
+            if (used < 0) {
+                LOG.warn("Budget des corps : libération en trop de " + (-used) + " octets");
+                used = 0;
+            }
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Réponse 503 avec Retry-After, enveloppe JSON pour les actions @JSON.
+     */
+    public void reject(HttpServletResponse res, boolean json) throws IOException {
+        byte[] body = json ? JSON_503 : TEXT_503;
+        res.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        res.setHeader("Retry-After", retryAfter);
+        res.setContentType(json ? "application/json;charset=UTF-8" : "text/plain;charset=UTF-8");
+        res.setContentLength(body.length);
+        OutputStream os = res.getOutputStream();
+        os.write(body);
+        os.flush();
+    }
+
+    public long getCapacity() {
+        return capacity;
+    }
+
+    public long getUsed() {
+        lock.lock();
+        try {
+            return used;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Capacité, octets réservés, attentes et refus au format texte Prometheus.
+     */
+    public void writePrometheus(Appendable out) throws IOException {
+        if (capacity == 0) return;
+        write(out, "framework_body_budget_bytes", "gauge", "Budget mémoire des corps de requête", capacity);
+        write(out, "framework_body_budget_used_bytes", "gauge", "Octets de corps réservés par les requêtes en cours",
+                getUsed());
+        write(out, "framework_body_budget_waits_total", "counter", "Requêtes qui ont attendu de la place dans le budget",
+                waits.sum());
+        write(out, "framework_body_budget_rejections_total", "counter", "Requêtes refusées (503) faute de budget",
+                rejections.sum());
+    }
+
+    private static void write(Appendable out, String name, String type, String help, long value) throws IOException {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        out.append(name).append(' ').append(Long.toString(value)).append('\n');
+    }
+
+    private long contentLength(HttpServletRequest req) {
+        long length = req.getContentLengthLong();
+        return length >= 0 ? length : unknownLength;
+    }
+
+    private static long longProperty(String key, long defaultValue) {
+        String value = PropertiesUtil.get(key);
+        if (value == null || value.trim().isEmpty()) return defaultValue;
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException(key + " invalide : " + value);
+        }
+    }
+}
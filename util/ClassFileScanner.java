@@ -0,0 +1,346 @@
+package framework.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Recherche les classes portant une annotation donnée en lisant directement les fichiers .class
+ * (pool de constantes puis attribut RuntimeVisibleAnnotations de la classe), sans les charger.
+ *
+ * Répertoires et jars sont parcourus en parallèle sur un ForkJoinPool ; seuls les noms des
+ * classes trouvées sont renvoyés, à charger ensuite par l'appelant. Avec un ScanCache, les fichiers
+ * inchangés depuis le scan précédent (même taille, même date) ne sont pas relus.
+ */
+final class ClassFileScanner {
+    private static final Logger LOG = Logger.get(ClassFileScanner.class);
+
+    private static final int MAGIC = 0xCAFEBABE;
+    private static final String RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations";
+
+    private final byte[] descriptor;
+    private final ScanCache cache;
+    private final ConcurrentLinkedQueue<String> found = new ConcurrentLinkedQueue<>();
+
+    /**
+     * @param annotation nom de l'annotation recherchée (ex: framework.annotations.Controller)
+     */
+    ClassFileScanner(String annotation) {
+        this(annotation, null);
+    }
+
+    ClassFileScanner(String annotation, ScanCache cache) {
+        this.descriptor = ("L" + annotation.replace('.', '/') + ";").getBytes(StandardCharsets.UTF_8);
+        this.cache = cache;
+    }
+
+    /**
+     * Noms (triés) des classes de premier niveau annotées, trouvées dans les répertoires de classes et les jars.
+     */
+    List<String> scan(List<File> classDirs, List<File> jars) {
+        List<RecursiveAction> tasks = new ArrayList<>();
+        for (File dir : classDirs) tasks.add(new DirectoryTask(dir));
+        for (File jar : jars) tasks.add(new JarTask(jar));
+        if (tasks.isEmpty()) return Collections.emptyList();
+
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors()));
+        try {
+            pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+        } finally {
+            pool.shutdown();
+        }
+
+        List<String> names = new ArrayList<>(found);
+        Collections.sort(names);
+        return names;
+    }
+
+    private final class DirectoryTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final File dir;
+
+        DirectoryTask(File dir) {
+            this.dir = dir;
+        }
+
+        @Override
+        protected void compute() {
+            File[] children = dir.listFiles();
+            if (children == null) return;
+
+            List<DirectoryTask> subdirs = new ArrayList<>();
+            for (File f : children) {
+                if (f.isDirectory()) {
+                    subdirs.add(new DirectoryTask(f));
+                } else if (isTopLevelClass(f.getName())) {
+                    scanClassFile(f);
+                }
+            }
+            invokeAll(subdirs);
+        }
+
+        private void scanClassFile(File f) {
+            long size = f.length();
+            long lastModified = f.lastModified();
+            List<String> cached = cache != null ? cache.lookup(f, size, lastModified) : null;
+            if (cached != null) {
+                found.addAll(cached);
+                return;
+            }
+            try {
+                String name = inspect(Files.readAllBytes(f.toPath()), f.getPath());
+                if (name != null) found.add(name);
+                if (cache != null) {
+                    cache.put(f, size, lastModified,
+                            name != null ? Collections.singletonList(name) : Collections.emptyList());
+                }
+            } catch (IOException e) {
+                LOG.warn("Lecture impossible : " + f + " (" + e.getMessage() + ")");
+            }
+        }
+    }
+
+    private final class JarTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final File jar;
+
+        JarTask(File jar) {
+            this.jar = jar;
+        }
+
+        @Override
+        protected void compute() {
+            long size = jar.length();
+            long lastModified = jar.lastModified();
+            List<String> cached = cache != null ? cache.lookup(jar, size, lastModified) : null;
+            if (cached != null) {
+                found.addAll(cached);
+                return;
+            }
+
+            List<String> names = new ArrayList<>();
+            try (ZipFile zip = new ZipFile(jar)) {
+                Enumeration<? extends ZipEntry> entries = zip.entries();
+                while (entries.hasMoreElements()) {
+                    ZipEntry entry = entries.nextElement();
+                    String name = entry.getName();
+                    // META-INF/versions/... : variantes d'un jar multi-release, déjà vues à la racine
+                    if (entry.isDirectory() || name.startsWith("META-INF/") || !isTopLevelClass(name)) continue;
+                    try (InputStream in = zip.getInputStream(entry)) {
+                        String className = inspect(in.readAllBytes(), jar + "!/" + name);
+                        if (className != null) names.add(className);
+                    }
+                }
+            } catch (IOException e) {
+                LOG.warn("Lecture impossible : " + jar + " (" + e.getMessage() + ")");
+                return;
+            }
+            found.addAll(names);
+            if (cache != null) cache.put(jar, size, lastModified, names);
+        }
+    }
+
+    // comme l'ancien scan : les classes imbriquées ($) ne sont pas des contrôleurs
+    private static boolean isTopLevelClass(String fileName) {
+        return fileName.endsWith(".class") && fileName.indexOf('$') < 0;
+    }
+
+    private String inspect(byte[] data, String source) {
+        try {
+            return annotatedClassName(data);
+        } catch (RuntimeException e) {
+            // fichier tronqué ou format inconnu : on l'ignore, comme une classe introuvable
+            if (LOG.isDebugEnabled()) LOG.debug("Fichier .class illisible : " + source + " (" + e + ")");
+            return null;
+        }
+    }
+
+    /**
+     * Nom binaire de la classe si elle porte l'annotation, sinon null.
+     */
+    String annotatedClassName(byte[] data) {
+        ClassFile cf = new ClassFile(data);
+        if (cf.u4() != MAGIC) return null;
+        cf.skip(4); // versions
+
+        int count = cf.u2();
+        int[] utf8Offsets = new int[count];
+        int[] classNameIndexes = new int[count];
+        int descriptorIndex = -1;
+        int annotationsAttrIndex = -1;
+
+        for (int i = 1; i < count; i++) {
+            int tag = cf.u1();
+            switch (tag) {
+                case 1: { // Utf8
+                    int length = cf.u2();
+                    utf8Offsets[i] = cf.position;
+                    if (descriptorIndex < 0 && cf.matches(descriptor, length)) {
+                        descriptorIndex = i;
+                    } else if (annotationsAttrIndex < 0 && cf.matchesAscii(RUNTIME_VISIBLE_ANNOTATIONS, length)) {
+                        annotationsAttrIndex = i;
+                    }
+                    cf.skip(length);
+                    break;
+                }
+                case 7: // Class
+                    classNameIndexes[i] = cf.u2();
+                    break;
+                case 8: case 16: case 19: case 20: // String, MethodType, Module, Package
+                    cf.skip(2);
+                    break;
+                case 15: // MethodHandle
+                    cf.skip(3);
+                    break;
+                case 3: case 4: case 9: case 10: case 11: case 12: case 17: case 18:
+                    cf.skip(4);
+                    break;
+                case 5: case 6: // Long, Double : deux entrées
+                    cf.skip(8);
+                    i++;
+                    break;
+                default:
+                    throw new IllegalArgumentException("tag de constante inconnu " + tag);
+            }
+        }
+        // filtre rapide : le descripteur n'apparaît nulle part dans la classe
+        if (descriptorIndex < 0 || annotationsAttrIndex < 0) return null;
+
+        cf.skip(2); // access_flags
+        int thisClass = cf.u2();
+        cf.skip(2); // super_class
+        cf.skip(2 * cf.u2()); // interfaces
+        skipMembers(cf); // fields
+        skipMembers(cf); // methods
+
+        int attributes = cf.u2();
+        for (int a = 0; a < attributes; a++) {
+            int nameIndex = cf.u2();
+            int length = cf.u4();
+            if (nameIndex != annotationsAttrIndex) {
+                cf.skip(length);
+                continue;
+            }
+            int annotations = cf.u2();
+            for (int n = 0; n < annotations; n++) {
+                if (cf.u2() == descriptorIndex) {
+                    return cf.utf8(utf8Offsets[classNameIndexes[thisClass]]).replace('/', '.');
+                }
+                skipAnnotationBody(cf);
+            }
+            return null;
+        }
+        return null;
+    }
+
+    private static void skipMembers(ClassFile cf) {
+        int members = cf.u2();
+        for (int m = 0; m < members; m++) {
+            cf.skip(6); // access_flags, name_index, descriptor_index
+            int attributes = cf.u2();
+            for (int a = 0; a < attributes; a++) {
+                cf.skip(2);
+                cf.skip(cf.u4());
+            }
+        }
+    }
+
+    // annotation sans son type_index : paires nom/valeur
+    private static void skipAnnotationBody(ClassFile cf) {
+        int pairs = cf.u2();
+        for (int p = 0; p < pairs; p++) {
+            cf.skip(2);
+            skipElementValue(cf);
+        }
+    }
+
+    private static void skipElementValue(ClassFile cf) {
+        int tag = cf.u1();
+        switch (tag) {
+            case 'e':
+                cf.skip(4);
+                break;
+            case '@':
+                cf.skip(2);
+                skipAnnotationBody(cf);
+                break;
+            case '[': {
+                int values = cf.u2();
+                for (int v = 0; v < values; v++) skipElementValue(cf);
+                break;
+            }
+            default: // B C D F I J S Z s c
+                cf.skip(2);
+        }
+    }
+
+    /**
+     * Lecture big-endian d'un fichier .class en mémoire.
+     */
+    private static final class ClassFile {
+        private final byte[] data;
+        private int position;
+
+        ClassFile(byte[] data) {
+            this.data = data;
+        }
+
+        int u1() {
+            return data[position++] & 0xFF;
+        }
+
+        int u2() {
+            int value = ((data[position] & 0xFF) << 8) | (data[position + 1] & 0xFF);
+            position += 2;
+            return value;
+        }
+
+        int u4() {
+            int value = ((data[position] & 0xFF) << 24) | ((data[position + 1] & 0xFF) << 16)
+                    | ((data[position + 2] & 0xFF) << 8) | (data[position + 3] & 0xFF);
+            position += 4;
+            return value;
+        }
+
+        void skip(int n) {
+            if (n < 0 || position + n > data.length) throw new IndexOutOfBoundsException("fin de fichier");
+            position += n;
+        }
+
+        boolean matches(byte[] expected, int length) {
+            if (length != expected.length || position + length > data.length) return false;
+            for (int i = 0; i < length; i++) {
+                if (data[position + i] != expected[i]) return false;
+            }
+            return true;
+        }
+
+        boolean matchesAscii(String expected, int length) {
+            if (length != expected.length() || position + length > data.length) return false;
+            for (int i = 0; i < length; i++) {
+                if (data[position + i] != expected.charAt(i)) return false;
+            }
+            return true;
+        }
+
+        // chaîne Utf8 à l'offset donné (noms de classes : UTF-8 standard hors caractère nul)
+        String utf8(int offset) {
+            int length = ((data[offset - 2] & 0xFF) << 8) | (data[offset - 1] & 0xFF);
+            return new String(data, offset, length, StandardCharsets.UTF_8);
+        }
+    }
+}
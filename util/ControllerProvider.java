@@ -0,0 +1,92 @@
+package framework.util;
+
+import framework.annotations.Controller;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Fournit les instances de contrôleur selon le scope déclaré sur @Controller.
+ * acquire() avant l'invocation, release() après (dans un finally).
+ */
+public abstract class ControllerProvider {
+
+    public abstract Object acquire() throws Exception;
+
+    public void release(Object instance) {
+    }
+
+    public static ControllerProvider create(Class<?> cls, ActionInvoker invoker) {
+        Controller annotation = cls.getAnnotation(Controller.class);
+        Controller.Scope scope = annotation != null ? annotation.scope() : Controller.Scope.REQUEST;
+
+        switch (scope) {
+            case SINGLETON:
+                return new Singleton(invoker);
+            case POOLED:
+                return new Pooled(invoker, Math.max(1, annotation.poolSize()));
+            default:
+                return new PerRequest(invoker);
+        }
+    }
+
+    // Comportement historique : une nouvelle instance à chaque requête
+    private static final class PerRequest extends ControllerProvider {
+        private final ActionInvoker invoker;
+
+        PerRequest(ActionInvoker invoker) {
+            this.invoker = invoker;
+        }
+
+        @Override
+        public Object acquire() throws Exception {
+            return invoker.newInstance();
+        }
+    }
+
+    // Instance unique créée immédiatement (appelé depuis init())
+    private static final class Singleton extends ControllerProvider {
+        private final Object instance;
+        private final Exception failure;
+
+        Singleton(ActionInvoker invoker) {
+            Object created = null;
+            Exception error = null;
+            try {
+                created = invoker.newInstance();
+            } catch (Exception e) {
+                // l'erreur est renvoyée à chaque requête, comme pour une création par requête
+                error = e;
+            }
+            this.instance = created;
+            this.failure = error;
+        }
+
+        @Override
+        public Object acquire() throws Exception {
+            if (failure != null) throw failure;
+            return instance;
+        }
+    }
+
+    // Pool borné : réutilise les instances libres, en crée une si le pool est vide
+    private static final class Pooled extends ControllerProvider {
+        private final ActionInvoker invoker;
+        private final ArrayBlockingQueue<Object> idle;
+
+        Pooled(ActionInvoker invoker, int size) {
+            this.invoker = invoker;
+            this.idle = new ArrayBlockingQueue<>(size);
+        }
+
+        @Override
+        public Object acquire() throws Exception {
+            Object instance = idle.poll();
+            return instance != null ? instance : invoker.newInstance();
+        }
+
+        @Override
+        public void release(Object instance) {
+            // pool plein : l'instance en trop est abandonnée au GC
+            if (instance != null) idle.offer(instance);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package framework.util;
+
+/**
+ * Convertit le texte d'un paramètre (formulaire, chemin, JSON) vers un type Java.
+ * Une valeur invalide est signalée par le résultat INVALID, jamais par une exception :
+ * une entrée incorrecte envoyée par un client ne coûte pas la création d'une pile d'appels.
+ */
+@FunctionalInterface
+public interface Converter {
+    Object INVALID = new Object() {
+        @Override
+        public String toString() {
+            return "INVALID";
+        }
+    };
+
+    /**
+     * @param text texte non vide
+     * @return la valeur convertie, ou INVALID
+     */
+    Object convert(String text);
+}
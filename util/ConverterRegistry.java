@@ -0,0 +1,241 @@
+package framework.util;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Convertisseurs par type, résolus une fois par type puis mis en cache.
+ *
+ * Types fournis : String, primitifs et wrappers, BigDecimal, BigInteger, UUID, enums (par nom),
+ * LocalDate (2024-01-31), LocalTime (13:45[:30[.5]]) et LocalDateTime (2024-01-31T13:45[:30[.5]]).
+ * Les analyseurs valident le texte avant de le convertir : aucune exception sur une entrée invalide.
+ * Les nombres gardent la syntaxe de Integer.parseInt et Double.parseDouble ("+5", " 1.5 ", NaN),
+ * sauf les flottants hexadécimaux.
+ *
+ * D'autres types peuvent être enregistrés avec register(), de préférence avant le démarrage
+ * du servlet : les plans d'arguments résolvent leurs convertisseurs dans init().
+ */
+public final class ConverterRegistry {
+    private static final Map<Class<?>, Converter> REGISTERED = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, Converter> CACHE = new ConcurrentHashMap<>();
+    // absent du cache ConcurrentHashMap (qui refuse null) : type sans convertisseur
+    private static final Converter UNSUPPORTED = text -> Converter.INVALID;
+
+    static {
+        Converter intConverter = text -> PathType.INT.accepts(text, digitsStart(text), text.length())
+                ? (Object) Integer.parseInt(text) : Converter.INVALID;
+        Converter longConverter = text -> PathType.LONG.accepts(text, digitsStart(text), text.length())
+                ? (Object) Long.parseLong(text) : Converter.INVALID;
+        Converter shortConverter = text -> {
+            if (!PathType.INT.accepts(text, digitsStart(text), text.length())) return Converter.INVALID;
+            int value = Integer.parseInt(text);
+            return value >= Short.MIN_VALUE && value <= Short.MAX_VALUE ? (Object) (short) value : Converter.INVALID;
+        };
+        Converter byteConverter = text -> {
+            if (!PathType.INT.accepts(text, digitsStart(text), text.length())) return Converter.INVALID;
+            int value = Integer.parseInt(text);
+            return value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE ? (Object) (byte) value : Converter.INVALID;
+        };
+        Converter doubleConverter = text -> {
+            String trimmed = text.trim();
+            return isFloating(trimmed) ? (Object) Double.parseDouble(trimmed) : Converter.INVALID;
+        };
+        Converter floatConverter = text -> {
+            String trimmed = text.trim();
+            return isFloating(trimmed) ? (Object) Float.parseFloat(trimmed) : Converter.INVALID;
+        };
+        // comme avant : tout ce qui n'est pas "true" vaut false
+        Converter booleanConverter = Boolean::parseBoolean;
+        Converter charConverter = text -> text.charAt(0);
+
+        builtin(String.class, text -> text);
+        builtin(int.class, intConverter);
+        builtin(Integer.class, intConverter);
+        builtin(long.class, longConverter);
+        builtin(Long.class, longConverter);
+        builtin(short.class, shortConverter);
+        builtin(Short.class, shortConverter);
+        builtin(byte.class, byteConverter);
+        builtin(Byte.class, byteConverter);
+        builtin(double.class, doubleConverter);
+        builtin(Double.class, doubleConverter);
+        builtin(float.class, floatConverter);
+        builtin(Float.class, floatConverter);
+        builtin(boolean.class, booleanConverter);
+        builtin(Boolean.class, booleanConverter);
+        builtin(char.class, charConverter);
+        builtin(Character.class, charConverter);
+        builtin(BigDecimal.class, text -> isDecimal(text) ? new BigDecimal(text) : Converter.INVALID);
+        builtin(BigInteger.class, text -> isInteger(text) ? new BigInteger(text) : Converter.INVALID);
+        builtin(UUID.class, text -> PathType.UUID.accepts(text, 0, text.length())
+                ? PathType.UUID.parse(text, 0, text.length()) : Converter.INVALID);
+        builtin(LocalDate.class, ConverterRegistry::parseDate);
+        builtin(LocalTime.class, text -> parseTime(text, 0));
+        builtin(LocalDateTime.class, ConverterRegistry::parseDateTime);
+    }
+
+    private ConverterRegistry() {}
+
+    /**
+     * Enregistre (ou remplace) le convertisseur d'un type de l'application.
+     */
+    public static void register(Class<?> type, Converter converter) {
+        REGISTERED.put(type, converter);
+        CACHE.remove(type);
+    }
+
+    /**
+     * Convertisseur du type, ou null si le type n'est pas convertible depuis du texte.
+     */
+    public static Converter forType(Class<?> type) {
+        Converter converter = CACHE.computeIfAbsent(type, ConverterRegistry::resolve);
+        return converter == UNSUPPORTED ? null : converter;
+    }
+
+    private static void builtin(Class<?> type, Converter converter) {
+        REGISTERED.put(type, converter);
+    }
+
+    private static Converter resolve(Class<?> type) {
+        Converter converter = REGISTERED.get(type);
+        if (converter != null) return converter;
+        if (type.isEnum()) return enumConverter(type);
+        if (type.getSuperclass() != null && type.getSuperclass().isEnum()) {
+            // constante avec corps : sa classe est une sous-classe anonyme de l'enum
+            return enumConverter(type.getSuperclass());
+        }
+        return UNSUPPORTED;
+    }
+
+    // par nom exact, sinon sans tenir compte de la casse
+    private static Converter enumConverter(Class<?> enumType) {
+        Map<String, Object> exact = new HashMap<>();
+        Map<String, Object> ignoringCase = new HashMap<>();
+        for (Object constant : enumType.getEnumConstants()) {
+            String name = ((Enum<?>) constant).name();
+            exact.put(name, constant);
+            ignoringCase.putIfAbsent(name.toLowerCase(), constant);
+        }
+        return text -> {
+            Object value = exact.get(text);
+            if (value == null) value = ignoringCase.get(text.toLowerCase());
+            return value != null ? value : Converter.INVALID;
+        };
+    }
+
+    // comme Integer.parseInt : un '+' devant les chiffres est accepté (PathType, lui, le refuse)
+    private static int digitsStart(String text) {
+        return text.length() > 1 && text.charAt(0) == '+' && text.charAt(1) != '-' ? 1 : 0;
+    }
+
+    // syntaxe de Double.parseDouble hors hexadécimal (texte déjà sans blancs autour) :
+    // décimal avec suffixe d/f facultatif, NaN, Infinity
+    private static boolean isFloating(String text) {
+        int start = !text.isEmpty() && (text.charAt(0) == '-' || text.charAt(0) == '+') ? 1 : 0;
+        if (text.startsWith("NaN", start) || text.startsWith("Infinity", start)) {
+            return text.length() - start == (text.charAt(start) == 'N' ? 3 : 8);
+        }
+        int end = text.length();
+        if (end > 0 && "dDfF".indexOf(text.charAt(end - 1)) >= 0) end--;
+        return isDecimal(end == text.length() ? text : text.substring(0, end));
+    }
+
+    // [+-]chiffres[.chiffres][e[+-]chiffres] : syntaxe acceptée à la fois par Double et BigDecimal
+    static boolean isDecimal(String text) {
+        int length = text.length();
+        int i = 0;
+        if (i < length && (text.charAt(i) == '-' || text.charAt(i) == '+')) i++;
+        int digits = 0;
+        while (i < length && isDigit(text.charAt(i))) { i++; digits++; }
+        if (i < length && text.charAt(i) == '.') {
+            i++;
+            while (i < length && isDigit(text.charAt(i))) { i++; digits++; }
+        }
+        if (digits == 0) return false;
+        if (i < length && (text.charAt(i) == 'e' || text.charAt(i) == 'E')) {
+            i++;
+            if (i < length && (text.charAt(i) == '-' || text.charAt(i) == '+')) i++;
+            int exponentDigits = 0;
+            while (i < length && isDigit(text.charAt(i))) { i++; exponentDigits++; }
+            // au-delà, BigDecimal refuse l'exposant
+            if (exponentDigits == 0 || exponentDigits > 9) return false;
+        }
+        return i == length;
+    }
+
+    private static boolean isInteger(String text) {
+        int start = !text.isEmpty() && (text.charAt(0) == '-' || text.charAt(0) == '+') ? 1 : 0;
+        if (start == text.length()) return false;
+        for (int i = start; i < text.length(); i++) {
+            if (!isDigit(text.charAt(i))) return false;
+        }
+        return true;
+    }
+
+    // AAAA-MM-JJ
+    private static Object parseDate(String text) {
+        if (text.length() != 10 || text.charAt(4) != '-' || text.charAt(7) != '-') return Converter.INVALID;
+        int year = digits(text, 0, 4);
+        int month = digits(text, 5, 7);
+        int day = digits(text, 8, 10);
+        if (year < 0 || month < 1 || month > 12 || day < 1) return Converter.INVALID;
+        if (day > YearMonth.of(year, month).lengthOfMonth()) return Converter.INVALID;
+        return LocalDate.of(year, month, day);
+    }
+
+    // AAAA-MM-JJTHH:MM[:SS[.fraction]] (le T peut être un espace)
+    private static Object parseDateTime(String text) {
+        if (text.length() < 16 || (text.charAt(10) != 'T' && text.charAt(10) != ' ')) return Converter.INVALID;
+        Object date = parseDate(text.substring(0, 10));
+        if (date == Converter.INVALID) return date;
+        Object time = parseTime(text, 11);
+        if (time == Converter.INVALID) return time;
+        return LocalDateTime.of((LocalDate) date, (LocalTime) time);
+    }
+
+    // HH:MM[:SS[.fraction]] à partir de start
+    private static Object parseTime(String text, int start) {
+        int length = text.length() - start;
+        if (length < 5 || text.charAt(start + 2) != ':') return Converter.INVALID;
+        int hour = digits(text, start, start + 2);
+        int minute = digits(text, start + 3, start + 5);
+        int second = 0;
+        int nanos = 0;
+        if (length > 5) {
+            if (length < 8 || text.charAt(start + 5) != ':') return Converter.INVALID;
+            second = digits(text, start + 6, start + 8);
+            if (length > 8) {
+                int fractionDigits = length - 9;
+                if (text.charAt(start + 8) != '.' || fractionDigits < 1 || fractionDigits > 9) return Converter.INVALID;
+                nanos = digits(text, start + 9, text.length());
+                if (nanos < 0) return Converter.INVALID;
+                for (int i = fractionDigits; i < 9; i++) nanos *= 10;
+            }
+        }
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) return Converter.INVALID;
+        return LocalTime.of(hour, minute, second, nanos);
+    }
+
+    // entier positif écrit en chiffres sur [start, end), -1 sinon
+    private static int digits(String text, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (!isDigit(c)) return -1;
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
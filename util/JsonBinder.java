@@ -0,0 +1,135 @@
+package framework.util;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Lie un document JSON lu en flux directement dans le type déclaré (bean, Map, List/Set,
+ * tableau, valeur simple), sans arbre intermédiaire. Les propriétés d'un bean sont trouvées
+ * via BeanMetadata, comme pour ObjectBinder ; les champs inconnus sont ignorés.
+ */
+public final class JsonBinder {
+
+    private JsonBinder() {}
+
+    public static Object read(JsonReader reader, Type type) throws Exception {
+        Class<?> raw = rawClass(type);
+
+        if (reader.peek() == JsonReader.Token.NULL) {
+            reader.nextNull();
+            return raw.isPrimitive() ? ParamConverter.defaultPrimitiveValue(raw) : null;
+        }
+        if (raw == Object.class) {
+            return reader.nextValue();
+        }
+        if (ParamConverter.supports(raw)) {
+            return ParamConverter.convert(reader.nextScalar(), raw);
+        }
+        if (Map.class.isAssignableFrom(raw)) {
+            return readMap(reader, typeArgument(type, 1));
+        }
+        if (raw.isArray()) {
+            Type componentType = type instanceof GenericArrayType
+                    ? ((GenericArrayType) type).getGenericComponentType() : raw.getComponentType();
+            List<Object> items = new ArrayList<>();
+            readElements(reader, componentType, items);
+            Class<?> componentClass = rawClass(componentType);
+            Object array = Array.newInstance(componentClass, items.size());
+            for (int i = 0; i < items.size(); i++) {
+                Object item = items.get(i);
+                if (item != null || !componentClass.isPrimitive()) Array.set(array, i, item);
+            }
+            return array;
+        }
+        if (Collection.class.isAssignableFrom(raw)) {
+            Collection<Object> items = Set.class.isAssignableFrom(raw) ? new LinkedHashSet<>() : new ArrayList<>();
+            readElements(reader, typeArgument(type, 0), items);
+            return items;
+        }
+        return readBean(reader, raw);
+    }
+
+    /**
+     * Lit un objet JSON et appelle le visiteur pour chaque champ ; le visiteur doit consommer la valeur.
+     */
+    public static void readMembers(JsonReader reader, MemberVisitor visitor) throws Exception {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            visitor.visit(reader.nextName(), reader);
+        }
+        reader.endObject();
+    }
+
+    private static Map<String, Object> readMap(JsonReader reader, Type valueType) throws Exception {
+        Map<String, Object> map = new LinkedHashMap<>();
+        readMembers(reader, (name, r) -> map.put(name, read(r, valueType)));
+        return map;
+    }
+
+    private static void readElements(JsonReader reader, Type elementType, Collection<Object> target) throws Exception {
+        if (reader.peek() != JsonReader.Token.BEGIN_ARRAY) {
+            // valeur seule acceptée comme tableau d'un élément
+            target.add(read(reader, elementType));
+            return;
+        }
+        reader.beginArray();
+        while (reader.hasNext()) {
+            target.add(read(reader, elementType));
+        }
+        reader.endArray();
+    }
+
+    private static Object readBean(JsonReader reader, Class<?> type) throws Exception {
+        BeanMetadata metadata = BeanMetadata.of(type);
+        if (!metadata.canInstantiate() || reader.peek() != JsonReader.Token.BEGIN_OBJECT) {
+            reader.skipValue();
+            return null;
+        }
+        Object bean = metadata.newInstance();
+        readMembers(reader, (name, r) -> {
+            BeanMetadata.Property property = metadata.property(name);
+            if (property == null || !property.isWritable()) {
+                r.skipValue();
+                return;
+            }
+            Object value = read(r, property.getGenericType());
+            if (value != null || !property.getType().isPrimitive()) property.set(bean, value);
+        });
+        return bean;
+    }
+
+    private static Class<?> rawClass(Type type) {
+        if (type instanceof Class) return (Class<?>) type;
+        if (type instanceof ParameterizedType) return rawClass(((ParameterizedType) type).getRawType());
+        if (type instanceof GenericArrayType) {
+            return Array.newInstance(rawClass(((GenericArrayType) type).getGenericComponentType()), 0).getClass();
+        }
+        if (type instanceof WildcardType) return rawClass(((WildcardType) type).getUpperBounds()[0]);
+        // variable de type : rien de mieux que Object
+        return Object.class;
+    }
+
+    private static Type typeArgument(Type type, int index) {
+        if (type instanceof ParameterizedType) {
+            Type[] args = ((ParameterizedType) type).getActualTypeArguments();
+            if (index < args.length) return args[index];
+        }
+        return Object.class;
+    }
+
+    @FunctionalInterface
+    public interface MemberVisitor {
+        void visit(String name, JsonReader reader) throws Exception;
+    }
+}
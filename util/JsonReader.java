@@ -0,0 +1,341 @@
+package framework.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lecteur JSON en flux (pull) : lit les jetons un par un depuis un Reader, avec un tampon
+ * de taille fixe, sans construire l'arbre du document. Utilisé par JsonBinder pour remplir
+ * directement les paramètres d'une action à partir du corps de la requête.
+ *
+ * Les erreurs de syntaxe lèvent une IllegalArgumentException qui indique la position.
+ */
+public final class JsonReader {
+    private static final int BUFFER_SIZE = 4096;
+    // au-delà, on refuse le document (évite un débordement de pile sur une entrée malveillante)
+    private static final int MAX_DEPTH = 256;
+
+    public enum Token { BEGIN_OBJECT, END_OBJECT, BEGIN_ARRAY, END_ARRAY, NAME, STRING, NUMBER, BOOLEAN, NULL, END }
+
+    private final Reader in;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private long consumed;
+
+    private final StringBuilder text = new StringBuilder();
+    // pour chaque niveau ouvert : false tant qu'aucun élément n'a été lu (pas de virgule attendue)
+    private final boolean[] started = new boolean[MAX_DEPTH];
+    private final boolean[] inObject = new boolean[MAX_DEPTH];
+    private int depth;
+    // un nom vient d'être lu : la valeur suit sans virgule
+    private boolean afterName;
+
+    public JsonReader(Reader in) {
+        this.in = in;
+    }
+
+    /**
+     * Jeton suivant, sans le consommer.
+     */
+    public Token peek() throws IOException {
+        int c = peekSignificant();
+        if (c == -1) return Token.END;
+        switch (c) {
+            case '{': return Token.BEGIN_OBJECT;
+            case '}': return Token.END_OBJECT;
+            case '[': return Token.BEGIN_ARRAY;
+            case ']': return Token.END_ARRAY;
+            case '"': return depth > 0 && inObject[depth - 1] && !afterName ? Token.NAME : Token.STRING;
+            case 't': case 'f': return Token.BOOLEAN;
+            case 'n': return Token.NULL;
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) return Token.NUMBER;
+                throw syntaxError("caractère inattendu '" + (char) c + "'");
+        }
+    }
+
+    public void beginObject() throws IOException {
+        open('{', true);
+    }
+
+    public void endObject() throws IOException {
+        close('}', true);
+    }
+
+    public void beginArray() throws IOException {
+        open('[', false);
+    }
+
+    public void endArray() throws IOException {
+        close(']', false);
+    }
+
+    /**
+     * Indique s'il reste un élément dans l'objet ou le tableau courant ; consomme la virgule qui le précède.
+     */
+    public boolean hasNext() throws IOException {
+        int c = peekSignificant();
+        if (c == '}' || c == ']' || c == -1) return false;
+        if (depth > 0 && started[depth - 1] && !afterName) {
+            if (c != ',') throw syntaxError("',' attendu");
+            position++;
+            if (peekSignificant() == -1) throw syntaxError("fin de document inattendue");
+        }
+        return true;
+    }
+
+    public String nextName() throws IOException {
+        if (depth == 0 || !inObject[depth - 1] || afterName) throw syntaxError("nom de champ inattendu");
+        if (peekSignificant() != '"') throw syntaxError("nom de champ entre guillemets attendu");
+        beforeValue();
+        String name = readString();
+        if (peekSignificant() != ':') throw syntaxError("':' attendu");
+        position++;
+        afterName = true;
+        return name;
+    }
+
+    public String nextString() throws IOException {
+        if (peekSignificant() != '"') throw syntaxError("chaîne attendue");
+        beforeValue();
+        return readString();
+    }
+
+    /**
+     * Texte brut du nombre suivant (ex: "-12.5e3"), sans conversion.
+     */
+    public String nextNumber() throws IOException {
+        int c = peekSignificant();
+        if (c != '-' && (c < '0' || c > '9')) throw syntaxError("nombre attendu");
+        beforeValue();
+        text.setLength(0);
+        while (true) {
+            c = read();
+            if ((c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E') {
+                text.append((char) c);
+            } else {
+                if (c != -1) position--;
+                break;
+            }
+        }
+        return text.toString();
+    }
+
+    public boolean nextBoolean() throws IOException {
+        int c = peekSignificant();
+        beforeValue();
+        if (c == 't') { expectLiteral("true"); return true; }
+        if (c == 'f') { expectLiteral("false"); return false; }
+        throw syntaxError("booléen attendu");
+    }
+
+    public void nextNull() throws IOException {
+        if (peekSignificant() != 'n') throw syntaxError("null attendu");
+        beforeValue();
+        expectLiteral("null");
+    }
+
+    /**
+     * Valeur scalaire sous forme de texte (chaîne, nombre, booléen), null pour null.
+     */
+    public String nextScalar() throws IOException {
+        switch (peek()) {
+            case STRING: return nextString();
+            case NUMBER: return nextNumber();
+            case BOOLEAN: return String.valueOf(nextBoolean());
+            case NULL: nextNull(); return null;
+            default: throw syntaxError("valeur simple attendue");
+        }
+    }
+
+    /**
+     * Ignore la valeur suivante (objet et tableau compris) sans la construire.
+     */
+    public void skipValue() throws IOException {
+        switch (peek()) {
+            case BEGIN_OBJECT:
+                beginObject();
+                while (hasNext()) {
+                    nextName();
+                    skipValue();
+                }
+                endObject();
+                break;
+            case BEGIN_ARRAY:
+                beginArray();
+                while (hasNext()) skipValue();
+                endArray();
+                break;
+            default:
+                nextScalar();
+        }
+    }
+
+    /**
+     * Valeur non typée : Map (LinkedHashMap), List, String, Integer/Long/Double, Boolean ou null.
+     */
+    public Object nextValue() throws IOException {
+        switch (peek()) {
+            case BEGIN_OBJECT: {
+                Map<String, Object> map = new LinkedHashMap<>();
+                beginObject();
+                while (hasNext()) {
+                    String name = nextName();
+                    map.put(name, nextValue());
+                }
+                endObject();
+                return map;
+            }
+            case BEGIN_ARRAY: {
+                List<Object> list = new ArrayList<>();
+                beginArray();
+                while (hasNext()) list.add(nextValue());
+                endArray();
+                return list;
+            }
+            case STRING: return nextString();
+            case NUMBER: return parseNumber(nextNumber());
+            case BOOLEAN: return nextBoolean();
+            case NULL: nextNull(); return null;
+            default: throw syntaxError("valeur attendue");
+        }
+    }
+
+    /**
+     * Vérifie qu'il ne reste que des blancs après la valeur lue.
+     */
+    public void endDocument() throws IOException {
+        if (peekSignificant() != -1) throw syntaxError("contenu après la fin du document");
+    }
+
+    private Object parseNumber(String number) {
+        try {
+            if (number.indexOf('.') < 0 && number.indexOf('e') < 0 && number.indexOf('E') < 0) {
+                long value = Long.parseLong(number);
+                if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) return (int) value;
+                return value;
+            }
+            return Double.parseDouble(number);
+        } catch (NumberFormatException e) {
+            throw syntaxError("nombre invalide '" + number + "'");
+        }
+    }
+
+    private void open(char expected, boolean object) throws IOException {
+        if (peekSignificant() != expected) throw syntaxError("'" + expected + "' attendu");
+        if (depth == MAX_DEPTH) throw syntaxError("imbrication trop profonde");
+        beforeValue();
+        position++;
+        started[depth] = false;
+        inObject[depth] = object;
+        depth++;
+    }
+
+    private void close(char expected, boolean object) throws IOException {
+        if (depth == 0 || inObject[depth - 1] != object || afterName || peekSignificant() != expected) {
+            throw syntaxError("'" + expected + "' attendu");
+        }
+        position++;
+        depth--;
+    }
+
+    // une valeur commence : elle compte comme élément du niveau courant
+    private void beforeValue() {
+        if (depth > 0) started[depth - 1] = true;
+        afterName = false;
+    }
+
+    private String readString() throws IOException {
+        position++; // '"'
+        text.setLength(0);
+        while (true) {
+            // chemin rapide : copie des caractères ordinaires directement depuis le tampon
+            int start = position;
+            while (position < limit) {
+                char c = buffer[position];
+                if (c == '"' || c == '\\' || c < 0x20) break;
+                position++;
+            }
+            text.append(buffer, start, position - start);
+
+            int c = read();
+            if (c == -1) throw syntaxError("chaîne non terminée");
+            if (c == '"') return text.toString();
+            if (c == '\\') {
+                text.append(readEscape());
+            } else if (c < 0x20) {
+                throw syntaxError("caractère de contrôle dans une chaîne");
+            } else {
+                text.append((char) c);
+            }
+        }
+    }
+
+    private char readEscape() throws IOException {
+        int c = read();
+        switch (c) {
+            case '"': return '"';
+            case '\\': return '\\';
+            case '/': return '/';
+            case 'b': return '\b';
+            case 'f': return '\f';
+            case 'n': return '\n';
+            case 'r': return '\r';
+            case 't': return '\t';
+            case 'u': {
+                int value = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = Character.digit(read(), 16);
+                    if (digit < 0) throw syntaxError("séquence \\u invalide");
+                    value = (value << 4) | digit;
+                }
+                return (char) value;
+            }
+            default:
+                throw syntaxError("échappement invalide");
+        }
+    }
+
+    private void expectLiteral(String literal) throws IOException {
+        for (int i = 0; i < literal.length(); i++) {
+            if (read() != literal.charAt(i)) throw syntaxError("'" + literal + "' attendu");
+        }
+    }
+
+    // prochain caractère non blanc, sans le consommer ; -1 en fin de flux
+    private int peekSignificant() throws IOException {
+        while (true) {
+            if (position == limit && !fill()) return -1;
+            char c = buffer[position];
+            if (c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+                position++;
+            } else {
+                return c;
+            }
+        }
+    }
+
+    private int read() throws IOException {
+        if (position == limit && !fill()) return -1;
+        return buffer[position++];
+    }
+
+    private boolean fill() throws IOException {
+        consumed += limit;
+        position = 0;
+        limit = 0;
+        int n = in.read(buffer, 0, buffer.length);
+        if (n <= 0) return false;
+        limit = n;
+        return true;
+    }
+
+    private IllegalArgumentException syntaxError(String message) {
+        return new IllegalArgumentException("JSON invalide (position " + (consumed + position) + ") : " + message);
+    }
+}
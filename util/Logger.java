@@ -0,0 +1,127 @@
+package framework.util;
+
+import java.io.PrintStream;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Journal du framework, configuré dans application.properties :
+ *   log.level=INFO                       (TRACE, DEBUG, INFO, WARN, ERROR, OFF ; INFO par défaut)
+ *   log.level.framework.util.UrlMatcher=DEBUG   (niveau pour une classe ou un package)
+ *   log.file=/chemin/framework.log       (sinon la console)
+ *   log.queue.size=8192                  (messages en attente avant d'en perdre)
+ *
+ * Les messages coûteux à construire doivent être gardés par isDebugEnabled() & co :
+ * un niveau désactivé ne construit alors aucune chaîne. Les messages activés sont confiés
+ * à un écrivain asynchrone (AsyncAppender) : le thread de la requête n'attend jamais la console.
+ */
+public final class Logger {
+    public enum Level { TRACE, DEBUG, INFO, WARN, ERROR, OFF }
+
+    private static final ConcurrentHashMap<String, Logger> LOGGERS = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final int threshold;
+
+    private Logger(String name, Level level) {
+        this.name = name;
+        this.threshold = level.ordinal();
+    }
+
+    public static Logger get(Class<?> cls) {
+        return LOGGERS.computeIfAbsent(cls.getName(), n -> new Logger(n, configuredLevel(n)));
+    }
+
+    /**
+     * Vide les messages en attente et arrête l'écrivain (à l'arrêt de l'application).
+     */
+    public static void shutdown() {
+        AsyncAppender.shutdown();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isTraceEnabled() { return threshold <= Level.TRACE.ordinal(); }
+    public boolean isDebugEnabled() { return threshold <= Level.DEBUG.ordinal(); }
+    public boolean isInfoEnabled()  { return threshold <= Level.INFO.ordinal(); }
+    public boolean isWarnEnabled()  { return threshold <= Level.WARN.ordinal(); }
+    public boolean isErrorEnabled() { return threshold <= Level.ERROR.ordinal(); }
+
+    public boolean isEnabled(Level level) {
+        return level != Level.OFF && threshold <= level.ordinal();
+    }
+
+    public void trace(String message) { log(Level.TRACE, message, null); }
+    public void debug(String message) { log(Level.DEBUG, message, null); }
+    public void info(String message)  { log(Level.INFO, message, null); }
+    public void warn(String message)  { log(Level.WARN, message, null); }
+    public void warn(String message, Throwable error)  { log(Level.WARN, message, error); }
+    public void error(String message) { log(Level.ERROR, message, null); }
+    public void error(String message, Throwable error) { log(Level.ERROR, message, error); }
+
+    public void log(Level level, String message, Throwable error) {
+        if (!isEnabled(level)) return;
+        AsyncAppender.append(new LogRecord(System.currentTimeMillis(), level, name,
+                Thread.currentThread().getName(), message, error));
+    }
+
+    // niveau de la classe, sinon du package le plus proche, sinon log.level
+    private static Level configuredLevel(String loggerName) {
+        String key = loggerName;
+        while (true) {
+            String value = PropertiesUtil.get("log.level." + key);
+            if (value != null) return parseLevel(value, Level.INFO);
+            int dot = key.lastIndexOf('.');
+            if (dot < 0) break;
+            key = key.substring(0, dot);
+        }
+        return parseLevel(PropertiesUtil.get("log.level"), Level.INFO);
+    }
+
+    static Level parseLevel(String value, Level defaultLevel) {
+        if (value == null || value.trim().isEmpty()) return defaultLevel;
+        try {
+            return Level.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return defaultLevel;
+        }
+    }
+
+    /**
+     * Message tel que transmis à l'écrivain ; la mise en forme se fait sur le thread d'écriture.
+     */
+    static final class LogRecord {
+        final long timestamp;
+        final Level level;
+        final String loggerName;
+        final String threadName;
+        final String message;
+        final Throwable error;
+
+        LogRecord(long timestamp, Level level, String loggerName, String threadName, String message, Throwable error) {
+            this.timestamp = timestamp;
+            this.level = level;
+            this.loggerName = loggerName;
+            this.threadName = threadName;
+            this.message = message;
+            this.error = error;
+        }
+
+        void writeTo(PrintStream out, StringBuilder line) {
+            line.setLength(0);
+            line.append(java.time.Instant.ofEpochMilli(timestamp)).append(' ')
+                    .append(level).append(' ')
+                    .append('[').append(threadName).append("] ")
+                    .append(shortName(loggerName)).append(" - ")
+                    .append(message);
+            out.println(line);
+            if (error != null) error.printStackTrace(out);
+        }
+
+        private static String shortName(String loggerName) {
+            int dot = loggerName.lastIndexOf('.');
+            return dot >= 0 ? loggerName.substring(dot + 1) : loggerName;
+        }
+    }
+}
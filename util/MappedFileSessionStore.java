@@ -0,0 +1,301 @@
+package framework.util;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * SessionStore dans un fichier mappé en mémoire : les attributs restent hors du tas Java
+ * et les sessions survivent à un redémarrage.
+ *
+ * Le fichier est découpé en emplacements de taille fixe (session.store.slot-size octets, attributs
+ * encodés par SessionCodec), groupés par paquets de 8 ayant chacun leur verrou : l'identifiant d'une
+ * session désigne son paquet, et la session est rangée dans ce paquet ou l'un des 3 suivants.
+ * Une session expirée n'est pas purgée en tâche de fond : elle est ignorée à la lecture et sa place
+ * est reprise par la prochaine écriture. Une session vivante n'est jamais remplacée : si ces 4
+ * paquets sont pleins, save() renvoie false.
+ *
+ * Format : en-tête (magie, version, nombre et taille des emplacements) puis les emplacements :
+ * identifiant (2 long, 0 = libre), expiration (ms), longueur des données, données.
+ * Un fichier d'une autre géométrie est réinitialisé. Le fichier est verrouillé : un seul
+ * processus l'utilise à la fois. Il contient les identifiants de session en clair : sur un système
+ * POSIX il est créé (ou ramené) en rw------- et son répertoire, s'il faut le créer, en rwx------.
+ */
+public final class MappedFileSessionStore implements SessionStore {
+    private static final Logger LOG = Logger.get(MappedFileSessionStore.class);
+    private static final int MAGIC = 0x46575353; // "FWSS"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int SLOT_HEADER_SIZE = 28;
+    private static final int BUCKET_SIZE = 8;
+    // paquets où une session peut être rangée : le sien et les suivants
+    private static final int PROBE_BUCKETS = 4;
+    private static final Set<PosixFilePermission> OWNER_FILE = PosixFilePermissions.fromString("rw-------");
+    private static final Set<PosixFilePermission> OWNER_DIR = PosixFilePermissions.fromString("rwx------");
+
+    private final FileChannel channel;
+    private final FileLock fileLock;
+    private final MappedByteBuffer buffer;
+    private final int slotSize;
+    private final int buckets;
+    private final long ttlMillis;
+    private final int probes;
+    private final ReentrantLock[] locks;
+
+    private MappedFileSessionStore(FileChannel channel, FileLock fileLock, MappedByteBuffer buffer, int slots,
+                                   int slotSize, long ttlMillis) {
+        this.channel = channel;
+        this.fileLock = fileLock;
+        this.buffer = buffer;
+        this.slotSize = slotSize;
+        this.buckets = slots / BUCKET_SIZE;
+        this.ttlMillis = ttlMillis;
+        this.probes = Math.min(PROBE_BUCKETS, buckets);
+        this.locks = new ReentrantLock[buckets];
+        for (int i = 0; i < buckets; i++) locks[i] = new ReentrantLock();
+    }
+
+    /**
+     * Ouvre (ou crée) le fichier de sessions.
+     * @param slots nombre d'emplacements, arrondi au multiple de 8 inférieur (8 au minimum)
+     * @param slotSize taille d'un emplacement en octets, en-tête compris
+     * @param ttlMillis durée de vie d'une session sans activité
+     */
+    public static MappedFileSessionStore open(Path file, int slots, int slotSize, long ttlMillis) throws IOException {
+        slots = Math.max(BUCKET_SIZE, slots - slots % BUCKET_SIZE);
+        if (slotSize <= SLOT_HEADER_SIZE) {
+            throw new IllegalArgumentException("Taille d'emplacement trop petite : " + slotSize);
+        }
+        if (ttlMillis <= 0) throw new IllegalArgumentException("Durée de vie invalide : " + ttlMillis);
+        long size = HEADER_SIZE + (long) slots * slotSize;
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Fichier de sessions trop grand (2 Go au plus) : " + size);
+        }
+
+        boolean posix = file.getFileSystem().supportedFileAttributeViews().contains("posix");
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null && !Files.isDirectory(parent)) {
+            if (posix) {
+                Files.createDirectories(parent, PosixFilePermissions.asFileAttribute(OWNER_DIR));
+            } else {
+                Files.createDirectories(parent);
+            }
+        }
+        Set<StandardOpenOption> options = EnumSet.of(StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        FileAttribute<?>[] attributes = posix
+                ? new FileAttribute<?>[] { PosixFilePermissions.asFileAttribute(OWNER_FILE) }
+                : new FileAttribute<?>[0];
+        FileChannel channel = FileChannel.open(file, options, attributes);
+        try {
+            // fichier créé avant (ou par un umask plus large) : les sessions ne restent pas lisibles par tous
+            if (posix) Files.setPosixFilePermissions(file, OWNER_FILE);
+            FileLock fileLock;
+            try {
+                fileLock = channel.tryLock();
+            } catch (OverlappingFileLockException e) {
+                fileLock = null;
+            }
+            if (fileLock == null) throw new IOException("Fichier de sessions déjà utilisé : " + file);
+
+            long existing = channel.size();
+            // fichier d'une autre taille : repart d'un fichier vide (le mapping le remplit de zéros)
+            if (existing != size && existing != 0) channel.truncate(0);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            boolean valid = existing == size && buffer.getInt(0) == MAGIC && buffer.getInt(4) == VERSION
+                    && buffer.getInt(8) == slots && buffer.getInt(12) == slotSize;
+            if (!valid) {
+                if (existing == size) {
+                    LOG.warn("Fichier de sessions d'un autre format, réinitialisé : " + file);
+                    for (long slot = HEADER_SIZE; slot < size; slot += slotSize) {
+                        buffer.putLong((int) slot, 0L);
+                        buffer.putLong((int) slot + 8, 0L);
+                    }
+                } else {
+                    LOG.info("Fichier de sessions créé : " + file + " (" + slots + " x " + slotSize + " octets)");
+                }
+                buffer.putInt(0, MAGIC);
+                buffer.putInt(4, VERSION);
+                buffer.putInt(8, slots);
+                buffer.putInt(12, slotSize);
+            }
+            return new MappedFileSessionStore(channel, fileLock, buffer, slots, slotSize, ttlMillis);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public Map<String, Object> load(String id) {
+        if (!isHexId(id)) return null;
+        long hi = idPart(id, 0);
+        long lo = idPart(id, 16);
+        if ((hi | lo) == 0L) return null;
+
+        int[] window = lock(bucketOf(hi, lo));
+        byte[] data;
+        try {
+            int slot = find(window, hi, lo);
+            if (slot < 0) return null;
+            long now = System.currentTimeMillis();
+            if (buffer.getLong(slot + 16) <= now) {
+                clear(slot);
+                return null;
+            }
+            int length = buffer.getInt(slot + 24);
+            data = new byte[length];
+            buffer.get(slot + SLOT_HEADER_SIZE, data);
+            buffer.putLong(slot + 16, now + ttlMillis);
+        } finally {
+            unlock(window);
+        }
+
+        try {
+            return SessionCodec.decode(data, 0, data.length);
+        } catch (IOException e) {
+            LOG.warn("Session illisible, ignorée : " + e.getMessage());
+            remove(id);
+            return null;
+        }
+    }
+
+    @Override
+    public boolean save(String id, Map<String, Object> attributes) {
+        if (!isHexId(id)) return false;
+        long hi = idPart(id, 0);
+        long lo = idPart(id, 16);
+        if ((hi | lo) == 0L) return false;
+
+        byte[] data = SessionCodec.encode(attributes);
+        if (data.length > slotSize - SLOT_HEADER_SIZE) return false;
+
+        int[] window = lock(bucketOf(hi, lo));
+        try {
+            long now = System.currentTimeMillis();
+            int slot = find(window, hi, lo);
+            if (slot < 0) slot = freeSlot(window, now);
+            if (slot < 0) {
+                LOG.debug("Paquets de sessions pleins : nouvelle session non enregistrée");
+                return false;
+            }
+            // données d'abord, identifiant en dernier : un emplacement n'est jamais visible à moitié écrit
+            buffer.putLong(slot, 0L);
+            buffer.putLong(slot + 8, 0L);
+            buffer.put(slot + SLOT_HEADER_SIZE, data);
+            buffer.putInt(slot + 24, data.length);
+            buffer.putLong(slot + 16, now + ttlMillis);
+            buffer.putLong(slot + 8, lo);
+            buffer.putLong(slot, hi);
+        } finally {
+            unlock(window);
+        }
+        return true;
+    }
+
+    @Override
+    public void remove(String id) {
+        if (!isHexId(id)) return;
+        long hi = idPart(id, 0);
+        long lo = idPart(id, 16);
+        int[] window = lock(bucketOf(hi, lo));
+        try {
+            int slot = find(window, hi, lo);
+            if (slot >= 0) clear(slot);
+        } finally {
+            unlock(window);
+        }
+    }
+
+    /**
+     * Écrit les pages modifiées sur le disque et libère le fichier.
+     */
+    @Override
+    public void close() throws IOException {
+        if (!channel.isOpen()) return;
+        buffer.force();
+        fileLock.release();
+        channel.close();
+    }
+
+    // verrouille les paquets où la session peut se trouver, par indice croissant (pas d'interblocage)
+    private int[] lock(int home) {
+        int[] window = new int[probes];
+        for (int i = 0; i < probes; i++) window[i] = (home + i) % buckets;
+        int[] order = window.clone();
+        Arrays.sort(order);
+        for (int bucket : order) locks[bucket].lock();
+        return window;
+    }
+
+    private void unlock(int[] window) {
+        for (int bucket : window) locks[bucket].unlock();
+    }
+
+    // position de l'emplacement de la session dans ses paquets, -1 si absente
+    private int find(int[] window, long hi, long lo) {
+        for (int bucket : window) {
+            int first = slotOffset(bucket, 0);
+            for (int i = 0; i < BUCKET_SIZE; i++) {
+                int slot = first + i * slotSize;
+                if (buffer.getLong(slot) == hi && buffer.getLong(slot + 8) == lo) return slot;
+            }
+        }
+        return -1;
+    }
+
+    // emplacement libre ou expiré, dans l'ordre des paquets ; -1 si tous portent une session vivante
+    private int freeSlot(int[] window, long now) {
+        for (int bucket : window) {
+            int first = slotOffset(bucket, 0);
+            for (int i = 0; i < BUCKET_SIZE; i++) {
+                int slot = first + i * slotSize;
+                if ((buffer.getLong(slot) | buffer.getLong(slot + 8)) == 0L) return slot;
+                if (buffer.getLong(slot + 16) <= now) return slot;
+            }
+        }
+        return -1;
+    }
+
+    private void clear(int slot) {
+        buffer.putLong(slot, 0L);
+        buffer.putLong(slot + 8, 0L);
+    }
+
+    private int slotOffset(int bucket, int index) {
+        return HEADER_SIZE + (bucket * BUCKET_SIZE + index) * slotSize;
+    }
+
+    private int bucketOf(long hi, long lo) {
+        return (int) Long.remainderUnsigned(hi ^ lo, buckets);
+    }
+
+    // identifiant : 32 chiffres hexadécimaux (voir StoreSessionBackend)
+    private static boolean isHexId(String id) {
+        if (id == null || id.length() != 32) return false;
+        for (int i = 0; i < 32; i++) {
+            if (Character.digit(id.charAt(i), 16) < 0) return false;
+        }
+        return true;
+    }
+
+    // 16 chiffres à partir de start, id déjà validé par isHexId
+    private static long idPart(String id, int start) {
+        long value = 0L;
+        for (int i = start; i < start + 16; i++) value = value << 4 | Character.digit(id.charAt(i), 16);
+        return value;
+    }
+}
@@ -1,6 +1,5 @@
 package framework.util;
 
-import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
 import java.util.*;
 
@@ -9,6 +8,7 @@ import java.util.*;
  * Exemple: etudiant.notes.moyenne -> remplit l'objet Etudiant
  */
 public class ObjectBinder {
+    private static final Logger LOG = Logger.get(ObjectBinder.class);
 
     /**
      * Construit les arguments de méthode en bindant les paramètres HTTP aux objets
@@ -18,306 +18,210 @@ public class ObjectBinder {
      * @return Tableau d'objets à passer à la méthode
      */
     public static Object[] bindParameters(Class<?>[] paramTypes, Parameter[] params, Map<String, String[]> parameterMap) {
-        Object[] args = new Object[paramTypes.length];
-
-        // Créer une Map de tous les paramètres en une seule clé-valeur
-        Map<String, Object> flatParams = flattenParameterMap(parameterMap);
+        return bindParameters(paramTypes, params, ParamTree.of(parameterMap));
+    }
 
+    /**
+     * Variante sur l'arbre des paramètres de la requête (construit une seule fois, voir ParamTree.of(req))
+     */
+    public static Object[] bindParameters(Class<?>[] paramTypes, Parameter[] params, ParamTree tree) {
+        Object[] args = new Object[paramTypes.length];
         for (int i = 0; i < paramTypes.length; i++) {
-            String paramName = params[i].getName();
-            Class<?> paramType = paramTypes[i];
-
-            // Si c'est un type primitif ou String, chercher directement
-            if (isPrimitiveOrString(paramType)) {
-                args[i] = getDirectValue(paramName, paramType, flatParams);
-            } else {
-                // Vérifier s'il y a des données pour cet objet (notation pointée)
-                boolean hasDataForObject = hasDataForObject(paramName, flatParams);
-                
-                if (hasDataForObject) {
-                    // C'est un objet custom avec notation pointée, créer et remplir
-                    args[i] = createAndPopulateObject(paramName, paramType, flatParams);
-                } else {
-                    // Pas de donnée pour cet objet, retourner null (fallback au système ancien)
-                    args[i] = null;
-                }
-            }
+            args[i] = bind(tree, params[i].getName(), paramTypes[i]);
         }
-
         return args;
     }
 
     /**
-     * Vérifie s'il y a des paramètres avec la notation pointée pour cet objet
-     * Exemple: si paramName="etudiant", cherche "etudiant.*"
+     * Binde un seul argument : valeur directe pour un type simple, sinon objet rempli
+     * par notation pointée (null s'il n'y a aucune donnée "paramName.*")
      */
-    private static boolean hasDataForObject(String paramName, Map<String, Object> params) {
-        String prefix = paramName + ".";
-        for (String key : params.keySet()) {
-            if (key.startsWith(prefix)) {
-                return true;
-            }
+    public static Object bind(ParamTree tree, String paramName, Class<?> paramType) {
+        // Si c'est un type primitif ou String, chercher directement
+        if (isPrimitiveOrString(paramType)) {
+            Object value = tree.value(paramName);
+            return value != null ? convertValue(value, paramType) : null;
         }
-        return false;
-    }
 
-    /**
-     * Transforme Map<String, String[]> en Map<String, Object> simple
-     */
-    private static Map<String, Object> flattenParameterMap(Map<String, String[]> parameterMap) {
-        Map<String, Object> result = new HashMap<>();
-        for (String key : parameterMap.keySet()) {
-            String[] values = parameterMap.get(key);
-            result.put(key, values.length == 1 ? values[0] : values);
+        // Vérifier s'il y a des données pour cet objet (notation pointée)
+        ParamTree.Node node = tree.child(paramName);
+        if (node == null || !node.hasChildren()) {
+            // Pas de donnée pour cet objet, retourner null (fallback au système ancien)
+            return null;
         }
-        return result;
+
+        // C'est un objet custom avec notation pointée, créer et remplir
+        return createAndPopulateObject(node, paramType);
     }
 
     /**
-     * Crée un objet et le remplit avec les paramètres correspondants
-     * Exemple: si paramName="etudiant", cherche "etudiant.notes.moyenne"
+     * Crée un objet et le remplit avec les paramètres du sous-arbre
+     * Exemple: pour le noeud "etudiant", parcourt "etudiant.notes.moyenne"
      */
-    private static Object createAndPopulateObject(String paramName, Class<?> objectClass, Map<String, Object> params) {
+    private static Object createAndPopulateObject(ParamTree.Node node, Class<?> objectClass) {
         try {
             // Créer l'instance vide
-            Object instance = objectClass.getDeclaredConstructor().newInstance();
+            BeanMetadata metadata = BeanMetadata.of(objectClass);
+            Object instance = metadata.newInstance();
 
-            // Chercher tous les paramètres commençant par "paramName."
-            String prefix = paramName + ".";
-            for (String fullKey : params.keySet()) {
-                if (fullKey.startsWith(prefix)) {
-                    String path = fullKey.substring(prefix.length()); // ex: "notes.moyenne"
-                    Object value = params.get(fullKey);
-                    
-                    // Setter la valeur imbriquée
-                    setNestedValue(instance, path, value);
-                }
-            }
+            // Setter chaque valeur imbriquée (chemin relatif, ex: "notes.moyenne")
+            node.forEachValue((path, value) -> setNestedValue(instance, metadata, path, value));
 
             return instance;
         } catch (Exception e) {
-            System.err.println("Erreur création objet " + objectClass.getName() + ": " + e.getMessage());
-            e.printStackTrace();
+            LOG.warn("Erreur création objet " + objectClass.getName() + ": " + e.getMessage(), e);
             return null;
         }
     }
 
     /**
      * Set une valeur imbriquée. Exemple: setNestedValue(etudiant, "notes.moyenne", "15.5")
-     * Crée les objets intermédiaires si nécessaire
+     * Crée les objets intermédiaires si nécessaire. Les étapes du chemin sont résolues
+     * une seule fois par classe (BeanMetadata).
      */
-    private static void setNestedValue(Object obj, String path, Object value) {
-        String[] parts = path.split("\\.");
+    private static void setNestedValue(Object obj, BeanMetadata metadata, String path, Object value) {
+        BeanMetadata.Step[] steps = metadata.path(path);
+        if (steps == null) {
+            if (LOG.isDebugEnabled()) LOG.debug("Setter non trouvé: " + obj.getClass().getName() + "." + path);
+            return;
+        }
+
         Object current = obj;
 
         // Naviguer jusqu'à l'avant-dernier attribut
-        for (int i = 0; i < parts.length - 1; i++) {
-            String attributeName = parts[i];
-            Object nextObj = getAttributeValue(current, attributeName);
-
-            // Si l'attribut est null, créer une instance
-            if (nextObj == null) {
-                Class<?> attributeType = getAttributeType(current, attributeName);
-                if (attributeType != null) {
-                    try {
-                        nextObj = attributeType.getDeclaredConstructor().newInstance();
-                        setAttributeValue(current, attributeName, nextObj);
-                    } catch (Exception e) {
-                        System.err.println("Erreur création attribut " + attributeName + ": " + e.getMessage());
-                        return;
-                    }
-                }
-            }
-
-            current = nextObj;
+        for (int i = 0; i < steps.length - 1; i++) {
+            current = getOrCreateChild(current, steps[i]);
             if (current == null) return;
         }
 
         // Set la valeur finale
-        String lastAttribute = parts[parts.length - 1];
-        setAttributeValue(current, lastAttribute, value);
+        setAttributeValue(current, steps[steps.length - 1], value);
     }
 
     /**
-     * Récupère la valeur d'un attribut en utilisant le getter
+     * Récupère l'objet intermédiaire d'un chemin, en le créant (et en l'affectant) s'il est null
      */
-    private static Object getAttributeValue(Object obj, String attributeName) {
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object getOrCreateChild(Object obj, BeanMetadata.Step step) {
+        BeanMetadata.Property property = step.getProperty();
         try {
-            // strip array/index suffix if present: moyenne[0] -> moyenne
-            String baseName = attributeName.split("\\[")[0];
-            String getterName = "get" + capitalize(baseName);
-            Method getter = findMethod(obj.getClass(), getterName);
-            if (getter != null) {
-                return getter.invoke(obj);
+            Object value = property.get(obj);
+
+            if (step.isIndexed() && property.getElementType() != null) {
+                // élément d'une liste/tableau : items[2].nom
+                int index = step.getIndex();
+                Class<?> elementType = property.getElementType();
+                if (property.getType().isArray()) {
+                    Object arr = ensureArrayLength(value, elementType, index + 1);
+                    Object element = java.lang.reflect.Array.get(arr, index);
+                    if (element == null) {
+                        element = BeanMetadata.of(elementType).newInstance();
+                        java.lang.reflect.Array.set(arr, index, element);
+                    }
+                    if (arr != value) property.set(obj, arr);
+                    return element;
+                }
+                java.util.List list = value != null ? (java.util.List) value : new java.util.ArrayList();
+                while (list.size() <= index) list.add(null);
+                Object element = list.get(index);
+                if (element == null) {
+                    element = BeanMetadata.of(elementType).newInstance();
+                    list.set(index, element);
+                }
+                if (list != value) property.set(obj, list);
+                return element;
+            }
+
+            // Si l'attribut est null, créer une instance
+            if (value == null) {
+                value = BeanMetadata.of(property.getType()).newInstance();
+                property.set(obj, value);
             }
+            return value;
         } catch (Exception e) {
-            // Ignorer
+            if (LOG.isWarnEnabled()) LOG.warn("Erreur création attribut " + property.getName() + ": " + e.getMessage());
+            return null;
         }
-        return null;
     }
 
     /**
      * Set la valeur d'un attribut en utilisant le setter
      */
-    private static void setAttributeValue(Object obj, String attributeName, Object value) {
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static void setAttributeValue(Object obj, BeanMetadata.Step step, Object value) {
+        BeanMetadata.Property property = step.getProperty();
         try {
-            // gérer notation tableau/index : nomAttribut ou nomAttribut[] ou nomAttribut[2]
-            String baseName = attributeName.split("\\[")[0];
-            Integer index = null;
-            if (attributeName.contains("[")) {
-                String inside = attributeName.substring(attributeName.indexOf('[') + 1, attributeName.indexOf(']'));
-                if (inside != null && !inside.isEmpty()) {
-                    try { index = Integer.parseInt(inside); } catch (NumberFormatException ex) { index = null; }
-                }
-            }
-
-            String setterName = "set" + capitalize(baseName);
-            Class<?> targetType = getAttributeType(obj, baseName);
-
-            if (targetType == null) {
-                System.err.println("Setter non trouvé: " + obj.getClass().getName() + "." + baseName);
+            if (!property.isWritable()) {
+                if (LOG.isDebugEnabled()) LOG.debug("Setter non trouvé: " + obj.getClass().getName() + "." + property.getName());
                 return;
             }
 
-            // Si on a un index explicit (ex: items[2]) -> manipuler tableau/list
-            if (index != null) {
-                Object current = getAttributeValue(obj, baseName);
-                Class<?> tt = targetType;
+            Class<?> targetType = property.getType();
+            Class<?> elementType = property.getElementType();
 
-                if (tt.isArray()) {
-                    Class<?> comp = tt.getComponentType();
-                    Object arr = current;
-                    int needed = index + 1;
-                    if (arr == null) {
-                        arr = java.lang.reflect.Array.newInstance(comp, needed);
-                    } else if (java.lang.reflect.Array.getLength(arr) <= index) {
-                        Object newArr = java.lang.reflect.Array.newInstance(comp, needed);
-                        System.arraycopy(arr, 0, newArr, 0, java.lang.reflect.Array.getLength(arr));
-                        arr = newArr;
-                    }
+            // Si on a un index explicite (ex: items[2]) -> manipuler tableau/list
+            if (step.isIndexed() && elementType != null) {
+                int index = step.getIndex();
+                Object current = property.get(obj);
 
-                    Object converted = convertValue(value, comp);
-                    java.lang.reflect.Array.set(arr, index, converted);
-
-                    Method setter = obj.getClass().getMethod(setterName, tt);
-                    setter.invoke(obj, arr);
-                    return;
-                } else if (java.util.List.class.isAssignableFrom(tt)) {
-                    java.util.List list = (java.util.List) current;
-                    if (list == null) list = new java.util.ArrayList();
-                    // ensure size
+                if (targetType.isArray()) {
+                    Object arr = ensureArrayLength(current, elementType, index + 1);
+                    java.lang.reflect.Array.set(arr, index, convertValue(value, elementType));
+                    property.set(obj, arr);
+                } else {
+                    java.util.List list = current != null ? (java.util.List) current : new java.util.ArrayList();
                     while (list.size() <= index) list.add(null);
-                    Object converted = value;
-                    // try to determine element type from setter parameter if available
-                    Method setter = null;
-                    for (Method m : obj.getClass().getMethods()) {
-                        if (m.getName().equals(setterName) && m.getParameterCount() == 1) {
-                            setter = m; break;
-                        }
-                    }
-                    if (setter != null) {
-                        Class<?> param = setter.getParameterTypes()[0];
-                        if (param.isArray()) {
-                            // not expected for List, ignore
-                        }
-                    }
-
-                    list.set(index, converted);
-                    // call setter
-                    Method setterList = obj.getClass().getMethod(setterName, tt);
-                    setterList.invoke(obj, list);
-                    return;
+                    list.set(index, convertValue(value, elementType));
+                    property.set(obj, list);
                 }
+                return;
             }
 
             // Pas d'index explicite -> valeur entière: si setter attend un array ou List, convertir
             if (targetType.isArray()) {
-                Class<?> comp = targetType.getComponentType();
                 Object arrVal = null;
                 if (value instanceof String[]) {
                     String[] src = (String[]) value;
-                    arrVal = java.lang.reflect.Array.newInstance(comp, src.length);
+                    arrVal = java.lang.reflect.Array.newInstance(elementType, src.length);
                     for (int i = 0; i < src.length; i++) {
-                        Object cv = convertValue(src[i], comp);
-                        java.lang.reflect.Array.set(arrVal, i, cv);
+                        java.lang.reflect.Array.set(arrVal, i, convertValue(src[i], elementType));
                     }
                 } else if (value instanceof String) {
-                    Object cv = convertValue(value, comp);
-                    arrVal = java.lang.reflect.Array.newInstance(comp, 1);
-                    java.lang.reflect.Array.set(arrVal, 0, cv);
+                    arrVal = java.lang.reflect.Array.newInstance(elementType, 1);
+                    java.lang.reflect.Array.set(arrVal, 0, convertValue(value, elementType));
                 }
-                Method setter = obj.getClass().getMethod(setterName, targetType);
-                setter.invoke(obj, arrVal);
+                property.set(obj, arrVal);
                 return;
-            } else if (java.util.List.class.isAssignableFrom(targetType)) {
+            } else if (elementType != null) {
                 java.util.List listVal = new java.util.ArrayList();
                 if (value instanceof String[]) {
-                    for (String s : (String[]) value) listVal.add(s);
+                    for (String s : (String[]) value) listVal.add(convertValue(s, elementType));
                 } else if (value instanceof String) {
-                    listVal.add((String) value);
+                    listVal.add(convertValue(value, elementType));
                 }
-                Method setter = obj.getClass().getMethod(setterName, targetType);
-                setter.invoke(obj, listVal);
+                property.set(obj, listVal);
                 return;
             }
 
             // Convertir la valeur si nécessaire
-            Object convertedValue = convertValue(value, targetType);
-
-            Method setter = obj.getClass().getMethod(setterName, targetType);
-            setter.invoke(obj, convertedValue);
-        } catch (NoSuchMethodException e) {
-            System.err.println("Setter non trouvé: " + obj.getClass().getName() + "." + attributeName);
-        } catch (Exception e) {
-            System.err.println("Erreur set attribut " + attributeName + ": " + e.getMessage());
-        }
-    }
-
-    /**
-     * Récupère le type d'un attribut en cherchant le getter
-     */
-    private static Class<?> getAttributeType(Object obj, String attributeName) {
-        try {
-            String baseName = attributeName.split("\\[")[0];
-            String getterName = "get" + capitalize(baseName);
-            Method getter = findMethod(obj.getClass(), getterName);
-            if (getter != null) {
-                return getter.getReturnType();
-            }
-
-            // Sinon chercher le setter
-            String setterName = "set" + capitalize(attributeName);
-            for (Method m : obj.getClass().getMethods()) {
-                if (m.getName().equals(setterName) && m.getParameterCount() == 1) {
-                    return m.getParameterTypes()[0];
-                }
-            }
+            property.set(obj, convertValue(value, targetType));
         } catch (Exception e) {
-            // Ignorer
-        }
-        return null;
-    }
-
-    /**
-     * Cherche une méthode dans la classe (cas-insensible pour compatibilité)
-     */
-    private static Method findMethod(Class<?> clazz, String methodName) {
-        try {
-            return clazz.getMethod(methodName);
-        } catch (NoSuchMethodException e) {
-            return null;
+            if (LOG.isWarnEnabled()) LOG.warn("Erreur set attribut " + property.getName() + ": " + e.getMessage());
         }
     }
 
     /**
-     * Récupère une valeur directe (primitive ou String)
+     * Renvoie un tableau d'au moins "length" éléments (copie agrandie si nécessaire)
      */
-    private static Object getDirectValue(String paramName, Class<?> targetType, Map<String, Object> params) {
-        Object value = params.get(paramName);
-        if (value != null) {
-            return convertValue(value, targetType);
+    private static Object ensureArrayLength(Object arr, Class<?> componentType, int length) {
+        if (arr == null) {
+            return java.lang.reflect.Array.newInstance(componentType, length);
         }
-        return null;
+        int currentLength = java.lang.reflect.Array.getLength(arr);
+        if (currentLength >= length) return arr;
+        Object newArr = java.lang.reflect.Array.newInstance(componentType, length);
+        System.arraycopy(arr, 0, newArr, 0, currentLength);
+        return newArr;
     }
 
     /**
@@ -331,25 +235,24 @@ public class ObjectBinder {
             return value;
         }
 
-        String strValue = value.toString().trim();
-
-        // Conversions primitives
-        if (targetType == int.class || targetType == Integer.class) {
-            return Integer.parseInt(strValue);
-        } else if (targetType == double.class || targetType == Double.class) {
-            return Double.parseDouble(strValue);
-        } else if (targetType == float.class || targetType == Float.class) {
-            return Float.parseFloat(strValue);
-        } else if (targetType == long.class || targetType == Long.class) {
-            return Long.parseLong(strValue);
-        } else if (targetType == boolean.class || targetType == Boolean.class) {
-            return Boolean.parseBoolean(strValue);
-        } else if (targetType == String.class) {
-            return strValue;
+        // Conversions via ConverterRegistry (même règles que les paramètres simples)
+        Converter converter = ConverterRegistry.forType(targetType);
+        if (converter == null) {
+            // Sinon, retourner la valeur brute
+            return value;
         }
-
-        // Sinon, retourner la valeur brute
-        return value;
+        String strValue = value instanceof String[]
+                ? (((String[]) value).length > 0 ? ((String[]) value)[0] : "")
+                : value.toString();
+        strValue = strValue.trim();
+        if (strValue.isEmpty()) return ParamConverter.convert(strValue, targetType, converter);
+
+        Object converted = converter.convert(strValue);
+        if (converted == Converter.INVALID) {
+            if (LOG.isDebugEnabled()) LOG.debug("Valeur invalide pour " + targetType.getSimpleName() + " : " + strValue);
+            return targetType.isPrimitive() ? ParamConverter.defaultPrimitiveValue(targetType) : null;
+        }
+        return converted;
     }
 
     /**
@@ -360,12 +263,4 @@ public class ObjectBinder {
                type == Double.class || type == Float.class || type == Long.class || 
                type == Boolean.class;
     }
-
-    /**
-     * Met en majuscule la première lettre
-     */
-    private static String capitalize(String str) {
-        if (str == null || str.isEmpty()) return str;
-        return str.substring(0, 1).toUpperCase() + str.substring(1);
-    }
 }
@@ -1,29 +1,38 @@
 package framework.util;
 
+/**
+ * Conversion du texte d'un paramètre vers le type attendu, via ConverterRegistry.
+ * Une valeur vide ou invalide donne la valeur par défaut des primitifs, null sinon.
+ */
 public final class ParamConverter {
 
     private ParamConverter() {}
 
     public static Object convert(String value, Class<?> targetType) {
-        if (value == null || value.isEmpty()) {
+        return convert(value, targetType, ConverterRegistry.forType(targetType));
+    }
+
+    /**
+     * Variante avec un convertisseur déjà résolu (une fois par paramètre, à la compilation du plan).
+     */
+    public static Object convert(String value, Class<?> targetType, Converter converter) {
+        if (value == null || value.isEmpty() || converter == null) {
+            // type non géré -> null
             return targetType.isPrimitive() ? defaultPrimitiveValue(targetType) : null;
         }
-        try {
-            if (targetType == String.class) return value;
-            if (targetType == int.class || targetType == Integer.class) return Integer.parseInt(value);
-            if (targetType == long.class || targetType == Long.class) return Long.parseLong(value);
-            if (targetType == boolean.class || targetType == Boolean.class) return Boolean.parseBoolean(value);
-            if (targetType == double.class || targetType == Double.class) return Double.parseDouble(value);
-            if (targetType == float.class || targetType == Float.class) return Float.parseFloat(value);
-            if (targetType == short.class || targetType == Short.class) return Short.parseShort(value);
-            if (targetType == byte.class || targetType == Byte.class) return Byte.parseByte(value);
-            if (targetType == char.class || targetType == Character.class) return value.charAt(0);
-        } catch (Exception ex) {
+        Object result = converter.convert(value);
+        if (result == Converter.INVALID) {
             // parsing failed -> retourne valeur par défaut pour primitifs, null sinon
             return targetType.isPrimitive() ? defaultPrimitiveValue(targetType) : null;
         }
-        // type non géré
-        return null;
+        return result;
+    }
+
+    /**
+     * Indique si convert() sait produire ce type.
+     */
+    public static boolean supports(Class<?> targetType) {
+        return ConverterRegistry.forType(targetType) != null;
     }
 
     public static Object defaultPrimitiveValue(Class<?> primitiveType) {
@@ -37,4 +46,4 @@ public final class ParamConverter {
         if (primitiveType == char.class) return '\0';
         return null;
     }
-}
\ No newline at end of file
+}
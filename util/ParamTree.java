@@ -0,0 +1,288 @@
+package framework.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Arbre des paramètres d'une requête, construit en une seule passe sur getParameterMap()
+ * (notation pointée et [i]) puis partagé par tous les consommateurs de la requête :
+ * ObjectBinder, la Map des paramètres et l'écho JSON.
+ *
+ * Exemple : "etudiant.notes[1].moyenne" -> etudiant / notes[1] / moyenne
+ */
+public class ParamTree {
+    private static final String ATTRIBUTE = ParamTree.class.getName();
+
+    private final Map<String, String[]> source;
+    private final Node root = new Node(null, null);
+    private Map<String, Object> flatValues;
+
+    private ParamTree(Map<String, String[]> source) {
+        this.source = source;
+        for (Map.Entry<String, String[]> entry : source.entrySet()) {
+            if (entry.getValue() == null) continue;
+            insert(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Arbre de la requête, construit au premier appel puis gardé en attribut de requête.
+     */
+    public static ParamTree of(HttpServletRequest req) {
+        Map<String, String[]> parameterMap = req.getParameterMap();
+        Object cached = req.getAttribute(ATTRIBUTE);
+        if (cached instanceof ParamTree && ((ParamTree) cached).source == parameterMap) {
+            return (ParamTree) cached;
+        }
+        ParamTree tree = new ParamTree(parameterMap);
+        req.setAttribute(ATTRIBUTE, tree);
+        return tree;
+    }
+
+    public static ParamTree of(Map<String, String[]> parameterMap) {
+        return new ParamTree(parameterMap);
+    }
+
+    public Node root() {
+        return root;
+    }
+
+    /**
+     * Noeud de premier niveau (ex: "etudiant"), ou null.
+     */
+    public Node child(String name) {
+        return root.child(name);
+    }
+
+    /**
+     * Valeur d'un paramètre : String si une seule valeur, String[] sinon, null si absent.
+     */
+    public Object value(String fullKey) {
+        return flatValue(source.get(fullKey));
+    }
+
+    /**
+     * Paramètres à plat (clé complète -> String ou String[]), calculés une fois par requête.
+     */
+    public Map<String, Object> flatValues() {
+        if (flatValues == null) {
+            Map<String, Object> values = new HashMap<>();
+            for (Map.Entry<String, String[]> entry : source.entrySet()) {
+                if (entry.getValue() == null) continue;
+                values.put(entry.getKey(), flatValue(entry.getValue()));
+            }
+            flatValues = Collections.unmodifiableMap(values);
+        }
+        return flatValues;
+    }
+
+    /**
+     * Copie modifiable des paramètres à plat, sans les clés exclues (ex: champs fichiers).
+     */
+    public Map<String, Object> toFlatMap(Set<String> excluded) {
+        Map<String, Object> result = new HashMap<>(flatValues());
+        if (excluded != null && !excluded.isEmpty()) result.keySet().removeAll(excluded);
+        return result;
+    }
+
+    /**
+     * Paramètres imbriqués : "user.name" -> {user={name=...}}, "tags[1]" et "tags[]" -> listes.
+     */
+    public Map<String, Object> toNestedMap() {
+        Map<String, Object> nested = new HashMap<>();
+        fillNested(root, nested);
+        return nested;
+    }
+
+    private void insert(String fullKey, String[] values) {
+        Node current = root;
+        int start = 0;
+        while (true) {
+            int dot = fullKey.indexOf('.', start);
+            String segment = dot < 0 ? fullKey.substring(start) : fullKey.substring(start, dot);
+            current = current.getOrCreate(segment);
+            if (dot < 0) break;
+            start = dot + 1;
+        }
+        current.fullKey = fullKey;
+        current.values = values;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void fillNested(Node node, Map<String, Object> current) {
+        if (node.children == null) return;
+
+        for (Node child : node.children.values()) {
+            String name = child.baseName();
+            int idx = child.index();
+
+            if (child.values != null) {
+                Object value = flatValue(child.values);
+                if (idx == Node.NO_INDEX) {
+                    current.put(name, value);
+                } else if (idx == Node.APPEND) {
+                    List<Object> list = asList(current.get(name));
+                    if (value instanceof String[]) {
+                        for (String s : (String[]) value) list.add(s);
+                    } else {
+                        list.add(value);
+                    }
+                    current.put(name, list);
+                } else {
+                    List<Object> list = asList(current.get(name));
+                    while (list.size() <= idx) list.add(null);
+                    list.set(idx, value);
+                    current.put(name, list);
+                }
+            }
+
+            if (child.children != null) {
+                Object next = current.get(name);
+                if (!(next instanceof Map)) {
+                    next = new HashMap<String, Object>();
+                    current.put(name, next);
+                }
+                fillNested(child, (Map<String, Object>) next);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Object> asList(Object existing) {
+        if (existing instanceof List) return (List<Object>) existing;
+        List<Object> list = new ArrayList<>();
+        if (existing != null && existing.getClass().isArray()) {
+            int len = java.lang.reflect.Array.getLength(existing);
+            for (int k = 0; k < len; k++) list.add(java.lang.reflect.Array.get(existing, k));
+        } else if (existing != null) {
+            list.add(existing);
+        }
+        return list;
+    }
+
+    private static Object flatValue(String[] values) {
+        if (values == null) return null;
+        return values.length == 1 ? values[0] : values;
+    }
+
+    /**
+     * Un segment de clé. Porte des valeurs si une clé complète se termine ici.
+     */
+    public static final class Node {
+        static final int NO_INDEX = -1;
+        static final int APPEND = -2;
+
+        private final String segment;
+        private final Node parent;
+        private Map<String, Node> children;
+        private String fullKey;
+        private String[] values;
+
+        Node(String segment, Node parent) {
+            this.segment = segment;
+            this.parent = parent;
+        }
+
+        public String getSegment() {
+            return segment;
+        }
+
+        /**
+         * Clé complète du paramètre qui se termine sur ce noeud, ou null.
+         */
+        public String getFullKey() {
+            return fullKey;
+        }
+
+        public String[] getValues() {
+            return values;
+        }
+
+        /**
+         * String si une seule valeur, String[] sinon, null si aucun paramètre ne se termine ici.
+         */
+        public Object getValue() {
+            return flatValue(values);
+        }
+
+        public boolean hasChildren() {
+            return children != null && !children.isEmpty();
+        }
+
+        public Node child(String segment) {
+            return children != null ? children.get(segment) : null;
+        }
+
+        public Iterable<Node> children() {
+            return children != null ? children.values() : Collections.<Node>emptyList();
+        }
+
+        /**
+         * Appelle le visiteur pour chaque paramètre du sous-arbre, avec son chemin relatif à ce noeud.
+         * Exemple : sur "etudiant", la clé "etudiant.notes.moyenne" donne "notes.moyenne".
+         */
+        public void forEachValue(ValueVisitor visitor) {
+            int prefixLength = fullKeyPrefixLength();
+            visit(this, prefixLength, visitor);
+        }
+
+        private static void visit(Node node, int prefixLength, ValueVisitor visitor) {
+            if (node.children == null) return;
+            for (Node child : node.children.values()) {
+                if (child.values != null) {
+                    visitor.visit(child.fullKey.substring(prefixLength), flatValue(child.values));
+                }
+                visit(child, prefixLength, visitor);
+            }
+        }
+
+        // longueur de "a.b." pour le noeud "b" sous "a"
+        private int fullKeyPrefixLength() {
+            int length = 0;
+            for (Node n = this; n != null && n.segment != null; n = n.parent) {
+                length += n.segment.length() + 1;
+            }
+            return length;
+        }
+
+        Node getOrCreate(String segment) {
+            if (children == null) children = new LinkedHashMap<>();
+            Node child = children.get(segment);
+            if (child == null) {
+                child = new Node(segment, this);
+                children.put(segment, child);
+            }
+            return child;
+        }
+
+        String baseName() {
+            int bracket = segment.indexOf('[');
+            return bracket >= 0 ? segment.substring(0, bracket) : segment;
+        }
+
+        int index() {
+            int bracket = segment.indexOf('[');
+            if (bracket < 0) return NO_INDEX;
+            int close = segment.indexOf(']', bracket);
+            if (close == bracket + 1) return APPEND;
+            if (close < 0) return NO_INDEX;
+            try {
+                return Integer.parseInt(segment.substring(bracket + 1, close));
+            } catch (NumberFormatException ex) {
+                return NO_INDEX;
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface ValueVisitor {
+        void visit(String relativePath, Object value);
+    }
+}
@@ -0,0 +1,131 @@
+package framework.util;
+
+import java.util.UUID;
+
+/**
+ * Types de variables de chemin reconnus dans les patterns : {id:int}, {n:long}, {ref:uuid}.
+ * Le segment est validé pendant la recherche de route, sans exception ni allocation :
+ * un segment invalide fait simplement essayer la route suivante.
+ * Toute autre contrainte après ':' reste une expression régulière ({code:[a-z]+}).
+ */
+public enum PathType {
+    INT("-?\\d+") {
+        @Override
+        boolean accepts(String path, int start, int end) {
+            return fitsInLong(path, start, end, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        }
+
+        @Override
+        Object parse(String path, int start, int end) {
+            return Integer.parseInt(path, start, end, 10);
+        }
+    },
+    LONG("-?\\d+") {
+        @Override
+        boolean accepts(String path, int start, int end) {
+            return fitsInLong(path, start, end, Long.MIN_VALUE, Long.MAX_VALUE);
+        }
+
+        @Override
+        Object parse(String path, int start, int end) {
+            return Long.parseLong(path, start, end, 10);
+        }
+    },
+    UUID("[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}") {
+        @Override
+        boolean accepts(String path, int start, int end) {
+            if (end - start != 36) return false;
+            for (int i = 0; i < 36; i++) {
+                char c = path.charAt(start + i);
+                if (i == 8 || i == 13 || i == 18 || i == 23) {
+                    if (c != '-') return false;
+                } else if (Character.digit(c, 16) < 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        Object parse(String path, int start, int end) {
+            return new UUID(hex(path, start, start + 8) << 32 | hex(path, start + 9, start + 13) << 16
+                    | hex(path, start + 14, start + 18),
+                    hex(path, start + 19, start + 23) << 48 | hex(path, start + 24, start + 36));
+        }
+    };
+
+    private final String regex;
+
+    PathType(String regex) {
+        this.regex = regex;
+    }
+
+    /**
+     * Équivalent en expression régulière (pour UrlMapping.getRegex()).
+     */
+    public String regex() {
+        return regex;
+    }
+
+    /**
+     * Type désigné par la contrainte d'un placeholder (insensible à la casse), ou null si c'est une regex.
+     */
+    public static PathType of(String constraint) {
+        if (constraint == null) return null;
+        switch (constraint.toLowerCase()) {
+            case "int": return INT;
+            case "long": return LONG;
+            case "uuid": return UUID;
+            default: return null;
+        }
+    }
+
+    /**
+     * Le segment path[start, end) est-il une valeur valide de ce type ?
+     */
+    abstract boolean accepts(String path, int start, int end);
+
+    /**
+     * Valeur du segment, déjà validé par accepts().
+     */
+    abstract Object parse(String path, int start, int end);
+
+    /**
+     * parse() produit-il directement une valeur du type Java demandé ?
+     */
+    boolean produces(Class<?> type) {
+        switch (this) {
+            case INT: return type == int.class || type == Integer.class;
+            case LONG: return type == long.class || type == Long.class;
+            default: return type == UUID.class;
+        }
+    }
+
+    // entier décimal signé dans [min, max], sans exception
+    private static boolean fitsInLong(String path, int start, int end, long min, long max) {
+        int i = start;
+        boolean negative = i < end && path.charAt(i) == '-';
+        if (negative) i++;
+        if (i == end || end - i > 19) return false;
+
+        // accumulé en négatif, comme Long.parseLong, pour couvrir Long.MIN_VALUE
+        long limit = negative ? min : -max;
+        long multMin = limit / 10;
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = path.charAt(i) - '0';
+            if (digit < 0 || digit > 9) return false;
+            if (value < multMin) return false;
+            value *= 10;
+            if (value < limit + digit) return false;
+            value -= digit;
+        }
+        return true;
+    }
+
+    private static long hex(String path, int start, int end) {
+        long value = 0;
+        for (int i = start; i < end; i++) value = value << 4 | Character.digit(path.charAt(i), 16);
+        return value;
+    }
+}
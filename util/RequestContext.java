@@ -0,0 +1,181 @@
+package framework.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.Part;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Données d'une requête partagées par les résolveurs d'arguments.
+ * Les parties multipart ne sont analysées qu'au premier accès, et le contenu des fichiers
+ * n'est chargé en mémoire que pour les paramètres Map<String, byte[]>.
+ * La SessionMap des paramètres @Session est partagée et reportée dans la session par flushSession().
+ */
+public class RequestContext {
+    private static final Logger LOG = Logger.get(RequestContext.class);
+    private final HttpServletRequest request;
+    // route trouvée pour la requête (variables de chemin), null hors routage
+    private final RouteMatch<?> routeMatch;
+
+    private ParamTree paramTree;
+    private List<UploadedFile> uploads;
+    private Map<String, byte[]> fileParams;
+    private Set<String> fileParamNames;
+    private boolean jsonBodyOpened;
+    private SessionMap sessionMap;
+
+    public RequestContext(HttpServletRequest request) {
+        this(request, null);
+    }
+
+    public RequestContext(HttpServletRequest request, RouteMatch<?> routeMatch) {
+        this.request = request;
+        this.routeMatch = routeMatch;
+    }
+
+    public HttpServletRequest getRequest() {
+        return request;
+    }
+
+    public RouteMatch<?> getRouteMatch() {
+        return routeMatch;
+    }
+
+    /**
+     * Attributs de session vus comme une Map, créée au premier paramètre @Session de l'action.
+     */
+    public SessionMap getSessionMap() {
+        if (sessionMap == null) sessionMap = new SessionMap(SessionBackend.configured().open(request));
+        return sessionMap;
+    }
+
+    /**
+     * Reporte dans la session les attributs modifiés par l'action, puis laisse le backend
+     * les rendre durables (cookie signé) avant que la réponse ne parte.
+     */
+    public void flushSession(HttpServletResponse response) {
+        if (sessionMap != null) sessionMap.flush();
+        SessionBackend.configured().commit(request, response);
+    }
+
+    /**
+     * Paramètres de la requête analysés une seule fois (notation pointée et [i]).
+     */
+    public ParamTree getParamTree() {
+        if (paramTree == null) paramTree = ParamTree.of(request);
+        return paramTree;
+    }
+
+    public boolean isMultipart() {
+        String contentType = request.getContentType();
+        return contentType != null && contentType.startsWith("multipart/form-data");
+    }
+
+    public boolean isJson() {
+        String contentType = request.getContentType();
+        return contentType != null && contentType.regionMatches(true, 0, "application/json", 0, 16);
+    }
+
+    /**
+     * Lecteur en flux du corps JSON (UTF-8 sauf charset explicite). Le corps ne peut être lu qu'une fois.
+     */
+    public JsonReader openJsonBody() throws IOException {
+        return new JsonReader(jsonBodyReader());
+    }
+
+    /**
+     * Corps JSON lu en entier, pour qui doit le parcourir deux fois. Même règles que openJsonBody.
+     */
+    public String readJsonBody() throws IOException {
+        StringWriter body = new StringWriter();
+        try (Reader in = jsonBodyReader()) {
+            in.transferTo(body);
+        }
+        return body.toString();
+    }
+
+    private Reader jsonBodyReader() throws IOException {
+        if (jsonBodyOpened) throw new IllegalStateException("Le corps JSON a déjà été lu");
+        jsonBodyOpened = true;
+        String encoding = request.getCharacterEncoding();
+        Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+        return new InputStreamReader(request.getInputStream(), charset);
+    }
+
+    /**
+     * Fichiers envoyés, dans l'ordre de la requête. Le contenu reste chez le conteneur
+     * (mémoire ou fichier temporaire) : rien n'est lu ici.
+     */
+    public List<UploadedFile> getUploads() {
+        if (uploads == null) parseParts();
+        return uploads;
+    }
+
+    /**
+     * Fichiers envoyés dans le champ fieldName.
+     */
+    public List<UploadedFile> getUploads(String fieldName) {
+        List<UploadedFile> matching = new ArrayList<>();
+        for (UploadedFile upload : getUploads()) {
+            if (fieldName.equals(upload.getFieldName())) matching.add(upload);
+        }
+        return matching;
+    }
+
+    /**
+     * Fichiers envoyés, chargés en mémoire et indexés par nom de fichier (avec extension) :
+     * mode de compatibilité des paramètres Map<String, byte[]>. Deux fichiers de même nom
+     * gardent le dernier.
+     */
+    public Map<String, byte[]> getFileParams() {
+        if (fileParams == null) {
+            fileParams = new HashMap<>();
+            for (UploadedFile upload : getUploads()) {
+                try {
+                    // Utiliser le vrai nom du fichier avec extension
+                    fileParams.put(upload.getFileName(), upload.getBytes());
+                } catch (IOException e) {
+                    LOG.warn("Erreur lecture fichier " + upload.getFileName() + ": " + e.getMessage(), e);
+                }
+            }
+        }
+        return fileParams;
+    }
+
+    /**
+     * Noms des champs de formulaire qui portent un fichier.
+     */
+    public Set<String> getFileParamNames() {
+        if (fileParamNames == null) parseParts();
+        return fileParamNames;
+    }
+
+    private void parseParts() {
+        uploads = new ArrayList<>();
+        fileParamNames = new HashSet<>();
+        if (!isMultipart()) return;
+
+        try {
+            for (Part part : request.getParts()) {
+                if (part.getSubmittedFileName() != null && !part.getSubmittedFileName().isEmpty()) {
+                    uploads.add(new UploadedFile(part));
+                    fileParamNames.add(part.getName()); // Le nom du champ pour tracker
+                }
+            }
+        } catch (Exception e) {
+            LOG.warn("Erreur lecture fichiers: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package framework.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Résultat d'une recherche dans un RouteTree : la route trouvée et les paramètres capturés.
+ * Les valeurs sont gardées comme positions dans le chemin : aucune chaîne n'est créée tant
+ * qu'on ne les demande pas, et un {id:int} est converti directement depuis le chemin.
+ */
+public class RouteMatch<T> {
+    private static final PathType[] NO_TYPES = new PathType[0];
+
+    private final T handler;
+    private final String pattern;
+    private final String[] paramNames;
+    private final PathType[] paramTypes;
+    private final String path;
+    // début et fin de chaque valeur dans path
+    private final int[] offsets;
+    private String[] paramValues;
+
+    public RouteMatch(T handler, String pattern, String[] paramNames, String[] paramValues) {
+        this.handler = handler;
+        this.pattern = pattern;
+        this.paramNames = paramNames;
+        this.paramTypes = NO_TYPES;
+        this.path = null;
+        this.offsets = null;
+        this.paramValues = paramValues;
+    }
+
+    RouteMatch(T handler, String pattern, String[] paramNames, PathType[] paramTypes, String path, int[] offsets) {
+        this.handler = handler;
+        this.pattern = pattern;
+        this.paramNames = paramNames;
+        this.paramTypes = paramTypes;
+        this.path = path;
+        this.offsets = offsets;
+    }
+
+    public T getHandler() {
+        return handler;
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    public String[] getParamNames() {
+        return paramNames;
+    }
+
+    public String[] getParamValues() {
+        if (paramValues == null) {
+            String[] values = new String[paramNames.length];
+            for (int i = 0; i < values.length; i++) values[i] = getParamValue(i);
+            paramValues = values;
+        }
+        return paramValues;
+    }
+
+    public int getParamCount() {
+        return paramNames.length;
+    }
+
+    public String getParamValue(int index) {
+        if (paramValues != null) return paramValues[index];
+        return path.substring(offsets[2 * index], offsets[2 * index + 1]);
+    }
+
+    /**
+     * Valeur du paramètre convertie vers le type Java demandé : directement depuis le chemin
+     * si le placeholder est typé ({id:int}) et produit ce type, sinon via ConverterRegistry.
+     */
+    public Object convert(int index, Class<?> type) {
+        return convert(index, type, ConverterRegistry.forType(type));
+    }
+
+    /**
+     * Variante avec un convertisseur déjà résolu pour le type (voir ArgumentPlan).
+     */
+    public Object convert(int index, Class<?> type, Converter converter) {
+        PathType pathType = index < paramTypes.length ? paramTypes[index] : null;
+        if (pathType != null && offsets != null && pathType.produces(type)) {
+            return pathType.parse(path, offsets[2 * index], offsets[2 * index + 1]);
+        }
+        return ParamConverter.convert(getParamValue(index), type, converter);
+    }
+
+    /**
+     * Expose les paramètres du chemin comme attributs de requête (comportement historique).
+     */
+    public void exportTo(HttpServletRequest req) {
+        for (int i = 0; i < paramNames.length; i++) {
+            req.setAttribute(paramNames[i], getParamValue(i));
+        }
+    }
+}
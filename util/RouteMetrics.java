@@ -0,0 +1,203 @@
+package framework.util;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compteurs par route : nombre de requêtes, classes de statut (1xx..5xx), refus d'autorisation,
+ * requêtes en cours et histogramme de latence à seaux fixes.
+ *
+ * Chaque route reçoit un identifiant au démarrage (register) ; à la requête on ne fait
+ * qu'indexer un tableau et incrémenter des LongAdder : ni verrou, ni allocation.
+ * writePrometheus() publie le tout au format texte Prometheus.
+ */
+public final class RouteMetrics {
+    // bornes supérieures des seaux de latence, en millisecondes (+Inf implicite)
+    private static final double[] BUCKET_MILLIS = { 0.5, 1, 2.5, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000 };
+    private static final long[] BUCKET_NANOS = new long[BUCKET_MILLIS.length];
+    private static final String[] BUCKET_LABELS = new String[BUCKET_MILLIS.length];
+
+    static {
+        for (int i = 0; i < BUCKET_MILLIS.length; i++) {
+            BUCKET_NANOS[i] = (long) (BUCKET_MILLIS[i] * 1_000_000L);
+            BUCKET_LABELS[i] = Double.toString(BUCKET_MILLIS[i] / 1000.0);
+        }
+    }
+
+    private final Route unmatched = new Route(-1, "", "", "unmatched");
+    private volatile Route[] routes = new Route[0];
+    // étiquettes -> identifiant : une même route vue par les deux scans partage ses compteurs
+    private final Map<String, Integer> ids = new HashMap<>();
+
+    /**
+     * Enregistre une route (au scan) et renvoie son identifiant.
+     */
+    public synchronized int register(String httpMethod, String pattern, String handler) {
+        Route route = new Route(routes.length, httpMethod, pattern, handler);
+        Integer existing = ids.get(route.labels);
+        if (existing != null) return existing;
+
+        Route[] next = Arrays.copyOf(routes, routes.length + 1);
+        next[route.id] = route;
+        routes = next;
+        ids.put(route.labels, route.id);
+        return route.id;
+    }
+
+    /**
+     * Compteurs de la route, ou ceux des requêtes sans route si l'identifiant est inconnu.
+     */
+    public Route route(int id) {
+        Route[] current = routes;
+        return id >= 0 && id < current.length ? current[id] : unmatched;
+    }
+
+    public Route unmatched() {
+        return unmatched;
+    }
+
+    public int size() {
+        return routes.length;
+    }
+
+    public void writePrometheus(Appendable out) throws IOException {
+        Route[] current = routes;
+
+        header(out, "framework_requests_total", "counter", "Requêtes traitées par route");
+        for (Route r : current) sample(out, "framework_requests_total", r, null, null, r.requests.sum());
+        sample(out, "framework_requests_total", unmatched, null, null, unmatched.requests.sum());
+
+        header(out, "framework_responses_total", "counter", "Réponses par classe de statut HTTP");
+        for (Route r : current) writeStatuses(out, r);
+        writeStatuses(out, unmatched);
+
+        header(out, "framework_auth_rejections_total", "counter", "Requêtes refusées par la vérification d'autorisation");
+        for (Route r : current) sample(out, "framework_auth_rejections_total", r, null, null, r.authRejections.sum());
+
+        header(out, "framework_requests_in_flight", "gauge", "Requêtes en cours de traitement");
+        for (Route r : current) sample(out, "framework_requests_in_flight", r, null, null, r.inFlight.sum());
+        sample(out, "framework_requests_in_flight", unmatched, null, null, unmatched.inFlight.sum());
+
+        header(out, "framework_request_duration_seconds", "histogram", "Durée de traitement des requêtes");
+        for (Route r : current) writeHistogram(out, r);
+        writeHistogram(out, unmatched);
+    }
+
+    private static void writeStatuses(Appendable out, Route r) throws IOException {
+        for (int i = 0; i < r.statuses.length; i++) {
+            long count = r.statuses[i].sum();
+            if (count > 0) sample(out, "framework_responses_total", r, "status", (i + 1) + "xx", count);
+        }
+    }
+
+    private static void writeHistogram(Appendable out, Route r) throws IOException {
+        long cumulative = 0;
+        for (int i = 0; i < BUCKET_LABELS.length; i++) {
+            cumulative += r.buckets[i].sum();
+            sample(out, "framework_request_duration_seconds_bucket", r, "le", BUCKET_LABELS[i], cumulative);
+        }
+        cumulative += r.buckets[BUCKET_LABELS.length].sum();
+        sample(out, "framework_request_duration_seconds_bucket", r, "le", "+Inf", cumulative);
+        out.append("framework_request_duration_seconds_sum");
+        labels(out, r, null, null);
+        out.append(' ').append(Double.toString(r.totalNanos.sum() / 1e9)).append('\n');
+        sample(out, "framework_request_duration_seconds_count", r, null, null, cumulative);
+    }
+
+    private static void header(Appendable out, String name, String type, String help) throws IOException {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(Appendable out, String name, Route r, String extraName, String extraValue, long value)
+            throws IOException {
+        out.append(name);
+        labels(out, r, extraName, extraValue);
+        out.append(' ').append(Long.toString(value)).append('\n');
+    }
+
+    private static void labels(Appendable out, Route r, String extraName, String extraValue) throws IOException {
+        out.append(r.labels);
+        if (extraName != null) {
+            out.append(',').append(extraName).append("=\"").append(extraValue).append('"');
+        }
+        out.append('}');
+    }
+
+    // échappement des valeurs d'étiquettes Prometheus : \ " et retour à la ligne
+    private static String escapeLabel(String value) {
+        if (value == null) return "";
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    /**
+     * Compteurs d'une route.
+     */
+    public static final class Route {
+        private final int id;
+        // étiquettes pré-formatées, sans l'accolade fermante : {route="...",method="...",handler="..."
+        private final String labels;
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder[] statuses = adders(5);
+        private final LongAdder authRejections = new LongAdder();
+        private final LongAdder inFlight = new LongAdder();
+        private final LongAdder[] buckets = adders(BUCKET_NANOS.length + 1);
+        private final LongAdder totalNanos = new LongAdder();
+
+        Route(int id, String httpMethod, String pattern, String handler) {
+            this.id = id;
+            this.labels = "{route=\"" + escapeLabel(pattern) + "\",method=\"" + escapeLabel(httpMethod)
+                    + "\",handler=\"" + escapeLabel(handler) + "\"";
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        /**
+         * Début d'une requête ; renvoie l'instant à passer à finish().
+         */
+        public long start() {
+            inFlight.increment();
+            return System.nanoTime();
+        }
+
+        public void finish(long startNanos, int status) {
+            long elapsed = System.nanoTime() - startNanos;
+            inFlight.decrement();
+            requests.increment();
+            int statusClass = status / 100;
+            if (statusClass >= 1 && statusClass <= 5) statuses[statusClass - 1].increment();
+            buckets[bucketIndex(elapsed)].increment();
+            totalNanos.add(elapsed);
+        }
+
+        public void authRejected() {
+            authRejections.increment();
+        }
+
+        public long getRequestCount() {
+            return requests.sum();
+        }
+
+        public long getInFlight() {
+            return inFlight.sum();
+        }
+
+        private static int bucketIndex(long nanos) {
+            for (int i = 0; i < BUCKET_NANOS.length; i++) {
+                if (nanos <= BUCKET_NANOS[i]) return i;
+            }
+            return BUCKET_NANOS.length;
+        }
+
+        private static LongAdder[] adders(int n) {
+            LongAdder[] result = new LongAdder[n];
+            for (int i = 0; i < n; i++) result[i] = new LongAdder();
+            return result;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package framework.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Liste des contrôleurs et de leurs méthodes, générée à la compilation par
+ * framework.processor.RouteRegistryProcessor (fichier META-INF/services/framework.util.RouteRegistry).
+ *
+ * Un registre ne vaut que pour la racine qui le contient (WEB-INF/classes ou un jar de WEB-INF/lib) :
+ * UrlScanner l'utilise au lieu de lire les .class de cette racine seulement s'il déclare exactement
+ * les classes qui s'y trouvent (nombre et empreinte des noms). Compilation incrémentale, jars
+ * fusionnés, registre d'un autre module du même nom : la racine est parcourue comme sans registre.
+ */
+public interface RouteRegistry {
+    String SERVICE_FILE = "META-INF/services/" + RouteRegistry.class.getName();
+
+    void registerRoutes(Routes routes);
+
+    /**
+     * Reçoit les déclarations du registre généré.
+     */
+    interface Routes {
+        /**
+         * @param className        nom binaire de la classe (ex: app.Outer$Inner)
+         * @param methodSignatures signatures "nom(type,type)" ; types en nom binaire, primitifs par leur nom,
+         *                         tableaux suffixés par "[]"
+         */
+        void controller(String className, String... methodSignatures);
+
+        /**
+         * Classes de premier niveau compilées avec le registre (lui compris) : nombre et fingerprint().
+         * Un registre qui ne l'appelle pas n'est jamais considéré comme complet.
+         */
+        default void covers(int classCount, long fingerprint) {
+        }
+    }
+
+    /**
+     * Contrôleurs déclarés par les registres de la racine root (répertoire de classes ou jar), dans
+     * l'ordre de déclaration ; null si la racine n'a pas de registre, si une classe/méthode déclarée
+     * est introuvable ou si le registre ne couvre pas toutes les classes de la racine.
+     */
+    static Map<Class<?>, List<Method>> load(File root, ClassLoader loader) {
+        Logger log = Logger.get(RouteRegistry.class);
+        List<String> registries = new ArrayList<>();
+        List<String> classNames = new ArrayList<>();
+        try {
+            if (root.isDirectory()) {
+                File services = new File(root, SERVICE_FILE);
+                if (!services.isFile()) return null;
+                readServiceFile(Files.readAllLines(services.toPath(), StandardCharsets.UTF_8), registries);
+                listClasses(root, "", classNames);
+            } else {
+                try (ZipFile zip = new ZipFile(root)) {
+                    ZipEntry services = zip.getEntry(SERVICE_FILE);
+                    if (services == null) return null;
+                    try (InputStream in = zip.getInputStream(services)) {
+                        String content = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+                        readServiceFile(Arrays.asList(content.split("\\R")), registries);
+                    }
+                    Enumeration<? extends ZipEntry> entries = zip.entries();
+                    while (entries.hasMoreElements()) {
+                        ZipEntry entry = entries.nextElement();
+                        // META-INF/versions/... : variantes d'un jar multi-release, déjà vues à la racine
+                        if (!entry.isDirectory() && !entry.getName().startsWith("META-INF/")) {
+                            addClassName(entry.getName(), classNames);
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Registre de routes illisible dans " + root + " : " + e.getMessage());
+            return null;
+        }
+        if (registries.isEmpty()) return null;
+
+        Set<String> present = new HashSet<>(classNames);
+        long expected = fingerprint(classNames);
+        Map<Class<?>, List<Method>> controllers = new LinkedHashMap<>();
+        for (String registryName : registries) {
+            // même nom qu'un registre d'une autre racine : le ClassLoader rendrait le mauvais
+            if (!present.contains(registryName)) {
+                log.warn("Registre de routes " + registryName + " absent de " + root + ", scan");
+                return null;
+            }
+            final class Declared implements Routes {
+                int classCount = -1;
+                long declaredFingerprint;
+
+                @Override
+                public void controller(String className, String... signatures) {
+                    try {
+                        Class<?> cls = Class.forName(className, false, loader);
+                        List<Method> methods = controllers.computeIfAbsent(cls, c -> new ArrayList<>());
+                        for (String signature : signatures) methods.add(resolveMethod(cls, signature, loader));
+                    } catch (ClassNotFoundException | NoSuchMethodException | LinkageError e) {
+                        throw new IllegalStateException(className + " : " + e, e);
+                    }
+                }
+
+                @Override
+                public void covers(int count, long fingerprint) {
+                    classCount = count;
+                    declaredFingerprint = fingerprint;
+                }
+            }
+            Declared declared = new Declared();
+            try {
+                Class<?> cls = Class.forName(registryName, true, loader);
+                ((RouteRegistry) cls.getConstructor().newInstance()).registerRoutes(declared);
+            } catch (ReflectiveOperationException | ClassCastException | LinkageError | IllegalStateException e) {
+                log.warn("Registre de routes inutilisable dans " + root + ", scan : " + e);
+                return null;
+            }
+            if (declared.classCount != classNames.size() || declared.declaredFingerprint != expected) {
+                log.warn("Registre de routes " + registryName + " ne couvre pas les classes de " + root + " ("
+                        + Math.max(declared.classCount, 0) + " déclarée(s), " + classNames.size()
+                        + " trouvée(s) : compilation partielle, autre module ?), scan");
+                return null;
+            }
+        }
+        return controllers;
+    }
+
+    /**
+     * Empreinte (FNV-1a 64 bits) des noms binaires triés : calculée par le processeur sur les classes
+     * compilées, puis au démarrage sur les .class de la racine.
+     */
+    static long fingerprint(Collection<String> classNames) {
+        List<String> sorted = new ArrayList<>(classNames);
+        Collections.sort(sorted);
+        long hash = 0xcbf29ce484222325L;
+        for (String name : sorted) {
+            for (int i = 0; i < name.length(); i++) {
+                hash = (hash ^ name.charAt(i)) * 0x100000001b3L;
+            }
+            hash = (hash ^ '\n') * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static void readServiceFile(List<String> lines, List<String> registries) {
+        for (String line : lines) {
+            int comment = line.indexOf('#');
+            String name = (comment >= 0 ? line.substring(0, comment) : line).trim();
+            if (!name.isEmpty()) registries.add(name);
+        }
+    }
+
+    // noms des classes de premier niveau d'un répertoire de classes (sans META-INF)
+    private static void listClasses(File dir, String prefix, List<String> classNames) {
+        File[] children = dir.listFiles();
+        if (children == null) return;
+        for (File f : children) {
+            if (f.isDirectory()) {
+                if (!prefix.isEmpty() || !"META-INF".equals(f.getName())) {
+                    listClasses(f, prefix + f.getName() + "/", classNames);
+                }
+            } else {
+                addClassName(prefix + f.getName(), classNames);
+            }
+        }
+    }
+
+    // comme le scan : classes imbriquées ($), package-info et module-info ne comptent pas
+    private static void addClassName(String path, List<String> classNames) {
+        if (!path.endsWith(".class") || path.indexOf('$') >= 0) return;
+        String name = path.substring(0, path.length() - ".class".length()).replace('/', '.');
+        if (name.equals("module-info") || name.endsWith("package-info")) return;
+        classNames.add(name);
+    }
+
+    private static Method resolveMethod(Class<?> cls, String signature, ClassLoader loader)
+            throws ClassNotFoundException, NoSuchMethodException {
+        int open = signature.indexOf('(');
+        String name = signature.substring(0, open);
+        String params = signature.substring(open + 1, signature.length() - 1);
+        if (params.isEmpty()) return cls.getDeclaredMethod(name);
+
+        String[] typeNames = params.split(",");
+        Class<?>[] types = new Class<?>[typeNames.length];
+        for (int i = 0; i < typeNames.length; i++) types[i] = resolveType(typeNames[i].trim(), loader);
+        return cls.getDeclaredMethod(name, types);
+    }
+
+    private static Class<?> resolveType(String typeName, ClassLoader loader) throws ClassNotFoundException {
+        if (typeName.endsWith("[]")) {
+            Class<?> component = resolveType(typeName.substring(0, typeName.length() - 2), loader);
+            return Array.newInstance(component, 0).getClass();
+        }
+        switch (typeName) {
+            case "boolean": return boolean.class;
+            case "byte": return byte.class;
+            case "char": return char.class;
+            case "short": return short.class;
+            case "int": return int.class;
+            case "long": return long.class;
+            case "float": return float.class;
+            case "double": return double.class;
+            default: return Class.forName(typeName, false, loader);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package framework.util;
+
+import framework.annotations.GetMapping;
+import framework.annotations.PostMapping;
+import framework.annotations.Url;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Table de routage immuable : mappings, index RouteTree et sources d'instances des contrôleurs.
+ *
+ * FrontServlet la publie dans une AtomicReference : une requête lit la référence une fois et
+ * travaille sur cet instantané, sans verrou. Ajouter un contrôleur ou désactiver une route
+ * construit une nouvelle table (with...) qui remplace l'ancienne d'un seul coup ; les requêtes
+ * en cours terminent sur l'ancienne.
+ */
+public final class RouteTable {
+    public static final RouteTable EMPTY = new RouteTable(Collections.emptyMap(), Collections.emptyList(),
+            Collections.emptySet(), Collections.emptyMap());
+
+    private final Map<String, List<ActionMapping>> actionMappings;
+    private final List<UrlMapping> urlMappings;
+    // routes désactivées : "MÉTHODE pattern", "* pattern" pour toutes les méthodes
+    private final Set<String> disabled;
+    private final RouteTree<ActionMapping> actionRoutes;
+    private final RouteTree<UrlMapping> urlRoutes;
+    private final Map<Class<?>, ControllerProvider> controllerProviders;
+
+    private RouteTable(Map<String, List<ActionMapping>> actionMappings, List<UrlMapping> urlMappings,
+                       Set<String> disabled, Map<Class<?>, ControllerProvider> previousProviders) {
+        Map<String, List<ActionMapping>> actions = new LinkedHashMap<>();
+        actionMappings.forEach((pattern, list) -> actions.put(pattern, Collections.unmodifiableList(new ArrayList<>(list))));
+        this.actionMappings = Collections.unmodifiableMap(actions);
+        this.urlMappings = Collections.unmodifiableList(new ArrayList<>(urlMappings));
+        this.disabled = Collections.unmodifiableSet(new HashSet<>(disabled));
+
+        // index : les routes désactivées n'y entrent pas
+        Map<String, List<ActionMapping>> activeActions = new LinkedHashMap<>();
+        for (Map.Entry<String, List<ActionMapping>> entry : actions.entrySet()) {
+            List<ActionMapping> active = new ArrayList<>();
+            for (ActionMapping am : entry.getValue()) {
+                if (!isDisabled(am.getHttpMethod(), entry.getKey())) active.add(am);
+            }
+            if (!active.isEmpty()) activeActions.put(entry.getKey(), active);
+        }
+        List<UrlMapping> activeUrls = new ArrayList<>();
+        for (UrlMapping mapping : this.urlMappings) {
+            if (!isDisabled(mapping)) activeUrls.add(mapping);
+        }
+        this.actionRoutes = buildActionIndex(activeActions);
+        this.urlRoutes = UrlMatcher.buildIndex(activeUrls);
+
+        // un contrôleur déjà connu garde sa source d'instances (singleton, pool)
+        Map<Class<?>, ControllerProvider> providers = new HashMap<>();
+        for (List<ActionMapping> list : this.actionMappings.values()) {
+            for (ActionMapping am : list) {
+                Class<?> cls = am.getTheMethod().getDeclaringClass();
+                providers.computeIfAbsent(cls, c -> provider(previousProviders, c, am.getInvoker()));
+            }
+        }
+        for (UrlMapping mapping : this.urlMappings) {
+            providers.computeIfAbsent(mapping.getMappedClass(),
+                    c -> provider(previousProviders, c, mapping.getInvoker()));
+        }
+        this.controllerProviders = Collections.unmodifiableMap(providers);
+    }
+
+    public static RouteTable of(Map<String, List<ActionMapping>> actionMappings, List<UrlMapping> urlMappings) {
+        return new RouteTable(actionMappings, urlMappings, Collections.emptySet(), Collections.emptyMap());
+    }
+
+    /**
+     * Nouvelle table avec des routes en plus ; pour un même pattern et une même méthode,
+     * la route déjà présente reste prioritaire.
+     */
+    public RouteTable withRoutes(Map<String, List<ActionMapping>> addedActions, List<UrlMapping> addedUrls) {
+        Map<String, List<ActionMapping>> actions = new LinkedHashMap<>();
+        actionMappings.forEach((pattern, list) -> actions.put(pattern, new ArrayList<>(list)));
+        addedActions.forEach((pattern, list) -> actions.computeIfAbsent(pattern, p -> new ArrayList<>()).addAll(list));
+
+        List<UrlMapping> urls = new ArrayList<>(urlMappings);
+        urls.addAll(addedUrls);
+        return new RouteTable(actions, urls, disabled, controllerProviders);
+    }
+
+    /**
+     * Nouvelle table sans aucune route de la classe.
+     */
+    public RouteTable withoutController(Class<?> cls) {
+        Map<String, List<ActionMapping>> actions = new LinkedHashMap<>();
+        for (Map.Entry<String, List<ActionMapping>> entry : actionMappings.entrySet()) {
+            List<ActionMapping> kept = new ArrayList<>();
+            for (ActionMapping am : entry.getValue()) {
+                if (am.getTheMethod().getDeclaringClass() != cls) kept.add(am);
+            }
+            if (!kept.isEmpty()) actions.put(entry.getKey(), kept);
+        }
+        List<UrlMapping> urls = new ArrayList<>();
+        for (UrlMapping mapping : urlMappings) {
+            if (mapping.getMappedClass() != cls) urls.add(mapping);
+        }
+        return new RouteTable(actions, urls, disabled, controllerProviders);
+    }
+
+    /**
+     * Nouvelle table où la route est désactivée (ou réactivée). La route reste déclarée :
+     * elle ne répond plus, sans perdre son contrôleur ni ses métriques.
+     * @param httpMethod méthode telle que déclarée (GET, POST, ALL...), null pour toutes
+     */
+    public RouteTable withDisabled(String httpMethod, String pattern, boolean disable) {
+        Set<String> next = new HashSet<>(disabled);
+        String key = disabledKey(httpMethod, pattern);
+        if (disable ? !next.add(key) : !next.remove(key)) return this;
+        return new RouteTable(actionMappings, urlMappings, next, controllerProviders);
+    }
+
+    public Map<String, List<ActionMapping>> getActionMappings() {
+        return actionMappings;
+    }
+
+    public List<UrlMapping> getUrlMappings() {
+        return urlMappings;
+    }
+
+    public RouteTree<ActionMapping> getActionRoutes() {
+        return actionRoutes;
+    }
+
+    public RouteTree<UrlMapping> getUrlRoutes() {
+        return urlRoutes;
+    }
+
+    public ControllerProvider getControllerProvider(Class<?> cls) {
+        return controllerProviders.get(cls);
+    }
+
+    public boolean isDisabled(String httpMethod, String pattern) {
+        String normalized = normalizePattern(pattern);
+        return !disabled.isEmpty() && (disabled.contains("* " + normalized)
+                || (httpMethod != null && disabled.contains(httpMethod.toUpperCase() + " " + normalized)));
+    }
+
+    // Index des ActionMapping : une entrée par (pattern, méthode HTTP), dans l'ordre des listes
+    public static RouteTree<ActionMapping> buildActionIndex(Map<String, List<ActionMapping>> mappings) {
+        RouteTree<ActionMapping> routes = new RouteTree<>();
+        for (Map.Entry<String, List<ActionMapping>> entry : mappings.entrySet()) {
+            for (ActionMapping am : entry.getValue()) {
+                routes.add(entry.getKey(), am.getHttpMethod(), am);
+            }
+        }
+        return routes;
+    }
+
+    private boolean isDisabled(UrlMapping mapping) {
+        if (disabled.isEmpty()) return false;
+        Method m = mapping.getMethod();
+        String url = mapping.getUrl();
+        return isDisabled(null, url)
+                || (m.isAnnotationPresent(GetMapping.class) && isDisabled("GET", url))
+                || (m.isAnnotationPresent(PostMapping.class) && isDisabled("POST", url))
+                || (m.isAnnotationPresent(Url.class) && isDisabled("ALL", url));
+    }
+
+    private static ControllerProvider provider(Map<Class<?>, ControllerProvider> previous, Class<?> cls,
+                                               ActionInvoker invoker) {
+        ControllerProvider existing = previous.get(cls);
+        return existing != null ? existing : ControllerProvider.create(cls, invoker);
+    }
+
+    private static String disabledKey(String httpMethod, String pattern) {
+        return (httpMethod == null ? "*" : httpMethod.toUpperCase()) + " " + normalizePattern(pattern);
+    }
+
+    // comme le scan : patterns avec "/" initial, en minuscules
+    private static String normalizePattern(String pattern) {
+        if (pattern == null || pattern.isEmpty()) return "/";
+        return (pattern.startsWith("/") ? pattern : "/" + pattern).toLowerCase();
+    }
+}
@@ -0,0 +1,219 @@
+package framework.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Index des routes construit une seule fois au démarrage (arbre par segments).
+ * Quatre sortes de noeuds : statique, {param}, {param:type} (int, long, uuid : voir PathType)
+ * et {param:regex}. La recherche coûte O(nombre de segments) et ne compile aucune regex par requête ;
+ * les valeurs capturées sont des positions dans le chemin, converties seulement à l'usage (RouteMatch).
+ *
+ * Priorités (déterministes) :
+ *  - un segment statique passe avant un paramètre, un {param:type} ou {param:regex} avant un {param} ;
+ *  - un segment refusé par le type ou la regex fait essayer la route suivante ;
+ *  - sur un même noeud, la route de la méthode HTTP demandée passe avant ALL/ANY.
+ */
+public class RouteTree<T> {
+
+    private final boolean ignoreCase;
+    private final Node<T> root = new Node<>();
+    private int size;
+    private int maxParams;
+
+    public RouteTree() {
+        this(false);
+    }
+
+    /**
+     * @param ignoreCase si vrai, les segments statiques et les contraintes regex sont
+     *                   comparés au chemin mis en minuscules (les valeurs capturées restent intactes)
+     */
+    public RouteTree(boolean ignoreCase) {
+        this.ignoreCase = ignoreCase;
+    }
+
+    /**
+     * Ajoute une route. En cas de doublon (même chemin, même méthode), la première route ajoutée est conservée.
+     * @param httpMethod GET, POST... ou ALL/ANY/null pour toutes les méthodes
+     */
+    public void add(String pattern, String httpMethod, T handler) {
+        Node<T> node = root;
+        List<String> paramNames = new ArrayList<>();
+        List<PathType> paramTypes = new ArrayList<>();
+
+        for (String segment : segments(pattern)) {
+            if (segment.length() > 1 && segment.startsWith("{") && segment.endsWith("}")) {
+                String spec = segment.substring(1, segment.length() - 1);
+                int colonIndex = spec.indexOf(':');
+                String name = colonIndex >= 0 ? spec.substring(0, colonIndex) : spec;
+                String regex = colonIndex >= 0 ? spec.substring(colonIndex + 1) : null;
+                paramNames.add(name);
+                paramTypes.add(PathType.of(regex));
+                node = node.paramChild(regex);
+            } else {
+                node = node.staticChild(ignoreCase ? segment.toLowerCase() : segment);
+            }
+        }
+
+        Route<T> route = new Route<>(pattern, handler, paramNames.toArray(new String[0]),
+                paramTypes.toArray(new PathType[0]));
+        if (isAnyMethod(httpMethod)) {
+            if (node.anyRoute != null) return;
+            node.anyRoute = route;
+        } else {
+            if (node.methodRoutes == null) node.methodRoutes = new HashMap<>();
+            if (node.methodRoutes.putIfAbsent(httpMethod.toUpperCase(), route) != null) return;
+        }
+        size++;
+        maxParams = Math.max(maxParams, paramNames.size());
+    }
+
+    /**
+     * Cherche la route correspondant au chemin (déjà normalisé, commençant par "/").
+     * @return la correspondance avec les paramètres capturés, ou null
+     */
+    public RouteMatch<T> find(String path, String httpMethod) {
+        if (path == null) return null;
+        String matchPath = ignoreCase ? path.toLowerCase() : path;
+        // toLowerCase peut changer la longueur (rare) : on capture alors sur le chemin normalisé
+        String valuePath = matchPath.length() == path.length() ? path : matchPath;
+
+        // début et fin de chaque valeur capturée
+        int[] captures = new int[2 * maxParams];
+        Route<T> route;
+        if (matchPath.isEmpty() || "/".equals(matchPath)) {
+            route = root.select(httpMethod);
+        } else {
+            int start = matchPath.charAt(0) == '/' ? 1 : 0;
+            route = match(root, matchPath, valuePath, start, httpMethod, captures, 0);
+        }
+        if (route == null) return null;
+
+        int[] offsets = captures.length == 2 * route.paramNames.length
+                ? captures : Arrays.copyOf(captures, 2 * route.paramNames.length);
+        return new RouteMatch<>(route.handler, route.pattern, route.paramNames, route.paramTypes, valuePath, offsets);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private Route<T> match(Node<T> node, String path, String valuePath, int pos, String httpMethod,
+                           int[] captures, int depth) {
+        if (pos > path.length()) {
+            return node.select(httpMethod);
+        }
+
+        int end = path.indexOf('/', pos);
+        if (end < 0) end = path.length();
+        int next = end + 1;
+
+        // 1) segment statique
+        if (node.statics != null) {
+            Node<T> child = node.statics.get(path.substring(pos, end));
+            if (child != null) {
+                Route<T> found = match(child, path, valuePath, next, httpMethod, captures, depth);
+                if (found != null) return found;
+            }
+        }
+
+        // 2) paramètres (typés ou contraints d'abord), jamais vides
+        if (node.params != null && end > pos) {
+            String segment = null;
+            for (Node<T> child : node.params) {
+                if (child.type != null) {
+                    if (!child.type.accepts(path, pos, end)) continue;
+                } else if (child.constraint != null) {
+                    if (segment == null) segment = path.substring(pos, end);
+                    if (!child.constraint.matcher(segment).matches()) continue;
+                }
+                captures[2 * depth] = pos;
+                captures[2 * depth + 1] = end;
+                Route<T> found = match(child, path, valuePath, next, httpMethod, captures, depth + 1);
+                if (found != null) return found;
+            }
+        }
+        return null;
+    }
+
+    private static List<String> segments(String pattern) {
+        List<String> result = new ArrayList<>();
+        if (pattern == null || pattern.isEmpty() || "/".equals(pattern)) return result;
+
+        int pos = pattern.charAt(0) == '/' ? 1 : 0;
+        while (pos <= pattern.length()) {
+            int end = pattern.indexOf('/', pos);
+            if (end < 0) end = pattern.length();
+            result.add(pattern.substring(pos, end));
+            pos = end + 1;
+        }
+        return result;
+    }
+
+    private static boolean isAnyMethod(String httpMethod) {
+        return httpMethod == null || "ALL".equalsIgnoreCase(httpMethod) || "ANY".equalsIgnoreCase(httpMethod);
+    }
+
+    private static final class Node<T> {
+        private Map<String, Node<T>> statics;
+        private List<Node<T>> params;
+        private String constraintSource;
+        private PathType type;
+        private Pattern constraint;
+        private Map<String, Route<T>> methodRoutes;
+        private Route<T> anyRoute;
+
+        Node<T> staticChild(String segment) {
+            if (statics == null) statics = new HashMap<>();
+            return statics.computeIfAbsent(segment, s -> new Node<>());
+        }
+
+        Node<T> paramChild(String regex) {
+            if (params == null) params = new ArrayList<>();
+            for (Node<T> child : params) {
+                if (regex == null ? child.constraintSource == null : regex.equals(child.constraintSource)) {
+                    return child;
+                }
+            }
+            Node<T> child = new Node<>();
+            child.constraintSource = regex;
+            child.type = PathType.of(regex);
+            child.constraint = regex != null && child.type == null ? Pattern.compile(regex) : null;
+            // les paramètres typés ou contraints sont essayés avant les paramètres libres
+            int index = params.size();
+            if (regex != null) {
+                index = 0;
+                while (index < params.size() && params.get(index).constraintSource != null) index++;
+            }
+            params.add(index, child);
+            return child;
+        }
+
+        Route<T> select(String httpMethod) {
+            if (methodRoutes != null && httpMethod != null) {
+                Route<T> route = methodRoutes.get(httpMethod);
+                if (route != null) return route;
+            }
+            return anyRoute;
+        }
+    }
+
+    private static final class Route<T> {
+        private final String pattern;
+        private final T handler;
+        private final String[] paramNames;
+        private final PathType[] paramTypes;
+
+        Route(String pattern, T handler, String[] paramNames, PathType[] paramTypes) {
+            this.pattern = pattern;
+            this.handler = handler;
+            this.paramNames = paramNames;
+            this.paramTypes = paramTypes;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package framework.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Résultat du scan précédent, conservé dans un fichier binaire (répertoire temporaire de la webapp).
+ *
+ * Pour chaque fichier .class (ou jar) : chemin, taille, date de modification et classes annotées
+ * qu'il contient. Un fichier dont la taille et la date n'ont pas changé n'est pas relu ; le fichier
+ * de cache est réécrit seulement si quelque chose a changé (fichier modifié, ajouté ou supprimé).
+ */
+final class ScanCache {
+    private static final Logger LOG = Logger.get(ScanCache.class);
+    private static final int MAGIC = 0x46575343; // "FWSC"
+    private static final int VERSION = 1;
+
+    private final File file;
+    private final String annotation;
+    private final Map<String, Entry> previous;
+    private final Map<String, Entry> current = new ConcurrentHashMap<>();
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger misses = new AtomicInteger();
+
+    private ScanCache(File file, String annotation, Map<String, Entry> previous) {
+        this.file = file;
+        this.annotation = annotation;
+        this.previous = previous;
+    }
+
+    /**
+     * Charge le cache ; un fichier absent, illisible ou écrit pour une autre annotation donne un cache vide.
+     */
+    static ScanCache load(File file, String annotation) {
+        Map<String, Entry> entries = new HashMap<>();
+        if (file.isFile()) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+                if (in.readInt() == MAGIC && in.readInt() == VERSION && annotation.equals(in.readUTF())) {
+                    int count = in.readInt();
+                    for (int i = 0; i < count; i++) {
+                        String path = in.readUTF();
+                        long size = in.readLong();
+                        long lastModified = in.readLong();
+                        int n = in.readInt();
+                        List<String> names = n == 0 ? Collections.emptyList() : new ArrayList<>(n);
+                        for (int j = 0; j < n; j++) names.add(in.readUTF());
+                        entries.put(path, new Entry(size, lastModified, names));
+                    }
+                }
+            } catch (IOException e) {
+                LOG.warn("Cache de scan illisible, scan complet : " + file + " (" + e.getMessage() + ")");
+                entries.clear();
+            }
+        }
+        return new ScanCache(file, annotation, entries);
+    }
+
+    /**
+     * Classes annotées du fichier si elles sont connues pour cette taille et cette date, sinon null.
+     */
+    List<String> lookup(File source, long size, long lastModified) {
+        String path = source.getPath();
+        Entry entry = previous.get(path);
+        if (entry == null || entry.size != size || entry.lastModified != lastModified) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        current.put(path, entry);
+        return entry.names;
+    }
+
+    void put(File source, long size, long lastModified, List<String> names) {
+        current.put(source.getPath(), new Entry(size, lastModified, names));
+    }
+
+    int hits() {
+        return hits.get();
+    }
+
+    int misses() {
+        return misses.get();
+    }
+
+    /**
+     * Réécrit le cache si un fichier a été relu ou a disparu depuis le scan précédent.
+     */
+    void save() {
+        if (misses.get() == 0 && current.size() == previous.size()) return;
+
+        File tmp = new File(file.getPath() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeUTF(annotation);
+                out.writeInt(current.size());
+                for (Map.Entry<String, Entry> e : current.entrySet()) {
+                    Entry entry = e.getValue();
+                    out.writeUTF(e.getKey());
+                    out.writeLong(entry.size);
+                    out.writeLong(entry.lastModified);
+                    out.writeInt(entry.names.size());
+                    for (String name : entry.names) out.writeUTF(name);
+                }
+            }
+            // remplacement atomique : un init() concurrent ne lit jamais un fichier à moitié écrit
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOG.warn("Écriture du cache de scan impossible : " + file + " (" + e.getMessage() + ")");
+            tmp.delete();
+        }
+    }
+
+    private static final class Entry {
+        final long size;
+        final long lastModified;
+        final List<String> names;
+
+        Entry(long size, long lastModified, List<String> names) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.names = names;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package framework.util;
+
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+
+import java.io.IOException;
+import java.util.Enumeration;
+
+/**
+ * Où vivent les attributs de session lus par AuthManager et les paramètres @Session.
+ * Choisi par session.mode dans application.properties :
+ * - container (défaut) : HttpSession du conteneur ;
+ * - cookie : attributs dans un cookie signé HMAC (SignedCookieBackend), rien côté serveur,
+ *   ce qui permet plusieurs nœuds sans affinité de session ni réplication ;
+ * - store : identifiant en cookie, attributs dans un SessionStore (StoreSessionBackend), par
+ *   défaut un fichier mappé en mémoire qui survit aux redémarrages.
+ */
+public abstract class SessionBackend {
+    private static final Logger LOG = Logger.get(SessionBackend.class);
+    private static final Object LOCK = new Object();
+    private static volatile SessionBackend configured;
+
+    /**
+     * Attributs de la session de la requête, ou null s'il n'y en a pas : n'en crée jamais.
+     */
+    public abstract Attributes find(HttpServletRequest req);
+
+    /**
+     * Attributs de la session de la requête, créée au besoin.
+     */
+    public abstract Attributes open(HttpServletRequest req);
+
+    /**
+     * Appelé une fois l'action terminée, avant l'écriture de la réponse : rend les
+     * modifications durables (rien à faire pour HttpSession, cookie à renvoyer sinon).
+     */
+    public void commit(HttpServletRequest req, HttpServletResponse res) {
+    }
+
+    public abstract String getMode();
+
+    /**
+     * Libère les ressources du backend (fichier du store...), à l'arrêt de l'application.
+     */
+    public void close() throws IOException {
+    }
+
+    /**
+     * Crée le backend configuré avec le contexte de la webapp (répertoire temporaire, class loader).
+     * Appelé par FrontServlet.init : une configuration invalide empêche le démarrage.
+     * @throws IllegalStateException si la configuration est invalide (mode inconnu, secret absent...)
+     */
+    public static SessionBackend configure(ServletContext ctx) {
+        synchronized (LOCK) {
+            if (configured == null) configured = fromProperties(ctx);
+            return configured;
+        }
+    }
+
+    /**
+     * Backend configuré (créé sans contexte de webapp si configure() n'a pas encore été appelé).
+     */
+    public static SessionBackend configured() {
+        SessionBackend backend = configured;
+        return backend != null ? backend : configure(null);
+    }
+
+    /**
+     * Ferme le backend configuré ; le prochain appel à configured() en recrée un.
+     */
+    public static void shutdown() {
+        synchronized (LOCK) {
+            if (configured == null) return;
+            try {
+                configured.close();
+            } catch (IOException e) {
+                LOG.warn("Fermeture des sessions : " + e.getMessage(), e);
+            }
+            configured = null;
+        }
+    }
+
+    /**
+     * Vue des attributs d'une HttpSession (mode container).
+     */
+    public static Attributes of(HttpSession session) {
+        return new SessionAttributes(session);
+    }
+
+    private static SessionBackend fromProperties(ServletContext ctx) {
+        String mode = PropertiesUtil.get("session.mode");
+        if (mode == null || mode.trim().isEmpty() || "container".equalsIgnoreCase(mode.trim())) {
+            return new Container();
+        }
+        if ("cookie".equalsIgnoreCase(mode.trim())) {
+            return SignedCookieBackend.fromProperties();
+        }
+        if ("store".equalsIgnoreCase(mode.trim())) {
+            return StoreSessionBackend.fromProperties(ctx);
+        }
+        throw new IllegalStateException("session.mode inconnu : " + mode + " (container, cookie ou store)");
+    }
+
+    /**
+     * Attributs d'une session, quelle que soit leur forme de stockage (mêmes méthodes que HttpSession).
+     */
+    public interface Attributes {
+        Object getAttribute(String name);
+
+        Enumeration<String> getAttributeNames();
+
+        void setAttribute(String name, Object value);
+
+        void removeAttribute(String name);
+    }
+
+    // Comportement historique : session du conteneur
+    private static final class Container extends SessionBackend {
+        @Override
+        public Attributes find(HttpServletRequest req) {
+            HttpSession session = req.getSession(false);
+            return session != null ? new SessionAttributes(session) : null;
+        }
+
+        @Override
+        public Attributes open(HttpServletRequest req) {
+            return new SessionAttributes(req.getSession());
+        }
+
+        @Override
+        public String getMode() {
+            return "container";
+        }
+    }
+
+    private static final class SessionAttributes implements Attributes {
+        private final HttpSession session;
+
+        SessionAttributes(HttpSession session) {
+            this.session = session;
+        }
+
+        @Override
+        public Object getAttribute(String name) {
+            return session.getAttribute(name);
+        }
+
+        @Override
+        public Enumeration<String> getAttributeNames() {
+            return session.getAttributeNames();
+        }
+
+        @Override
+        public void setAttribute(String name, Object value) {
+            session.setAttribute(name, value);
+        }
+
+        @Override
+        public void removeAttribute(String name) {
+            session.removeAttribute(name);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package framework.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodage binaire compact des attributs de session pour les SessionStore.
+ *
+ * Une étiquette d'un octet par valeur : String, nombres, Boolean, Character, byte[], List et
+ * Map à clés String sont écrits directement ; tout autre objet Serializable passe par la
+ * sérialisation Java (classes chargées par le class loader de la webapp). Les attributs null
+ * ne sont pas écrits.
+ */
+public final class SessionCodec {
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte INT = 2;
+    private static final byte LONG = 3;
+    private static final byte DOUBLE = 4;
+    private static final byte FLOAT = 5;
+    private static final byte BOOLEAN = 6;
+    private static final byte SHORT = 7;
+    private static final byte BYTE = 8;
+    private static final byte CHAR = 9;
+    private static final byte BYTES = 10;
+    private static final byte LIST = 11;
+    private static final byte MAP = 12;
+    private static final byte SERIALIZED = 13;
+
+    private SessionCodec() {}
+
+    /**
+     * @throws IllegalArgumentException si une valeur n'est ni d'un type connu ni Serializable
+     */
+    public static byte[] encode(Map<String, Object> attributes) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            int count = 0;
+            for (Object value : attributes.values()) {
+                if (value != null) count++;
+            }
+            out.writeInt(count);
+            for (Map.Entry<String, Object> entry : attributes.entrySet()) {
+                if (entry.getValue() == null) continue;
+                out.writeUTF(entry.getKey());
+                writeValue(out, entry.getValue());
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Attribut de session non enregistrable : " + e.getMessage(), e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @throws IOException si les données sont illisibles (classe disparue ou modifiée...)
+     */
+    public static Map<String, Object> decode(byte[] data, int offset, int length) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data, offset, length))) {
+            int count = in.readInt();
+            Map<String, Object> attributes = new LinkedHashMap<>();
+            for (int i = 0; i < count; i++) {
+                String name = in.readUTF();
+                attributes.put(name, readValue(in));
+            }
+            return attributes;
+        }
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof String) {
+            out.writeByte(STRING);
+            out.writeUTF((String) value);
+        } else if (value instanceof Integer) {
+            out.writeByte(INT);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte(LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof Double) {
+            out.writeByte(DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (value instanceof Float) {
+            out.writeByte(FLOAT);
+            out.writeFloat((Float) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof Short) {
+            out.writeByte(SHORT);
+            out.writeShort((Short) value);
+        } else if (value instanceof Byte) {
+            out.writeByte(BYTE);
+            out.writeByte((Byte) value);
+        } else if (value instanceof Character) {
+            out.writeByte(CHAR);
+            out.writeChar((Character) value);
+        } else if (value instanceof byte[]) {
+            byte[] bytes = (byte[]) value;
+            out.writeByte(BYTES);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        } else if (value instanceof List) {
+            Collection<?> list = (Collection<?>) value;
+            out.writeByte(LIST);
+            out.writeInt(list.size());
+            for (Object item : list) writeValue(out, item);
+        } else if (value instanceof Map && hasStringKeys((Map<?, ?>) value)) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            out.writeByte(MAP);
+            out.writeInt(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                out.writeUTF((String) entry.getKey());
+                writeValue(out, entry.getValue());
+            }
+        } else if (value instanceof Serializable) {
+            ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+            try (ObjectOutputStream objects = new ObjectOutputStream(serialized)) {
+                objects.writeObject(value);
+            }
+            out.writeByte(SERIALIZED);
+            out.writeInt(serialized.size());
+            serialized.writeTo(out);
+        } else {
+            throw new IOException("type non Serializable : " + value.getClass().getName());
+        }
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException {
+        byte tag = in.readByte();
+        switch (tag) {
+            case NULL: return null;
+            case STRING: return in.readUTF();
+            case INT: return in.readInt();
+            case LONG: return in.readLong();
+            case DOUBLE: return in.readDouble();
+            case FLOAT: return in.readFloat();
+            case BOOLEAN: return in.readBoolean();
+            case SHORT: return in.readShort();
+            case BYTE: return in.readByte();
+            case CHAR: return in.readChar();
+            case BYTES: {
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                return bytes;
+            }
+            case LIST: {
+                int size = in.readInt();
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) list.add(readValue(in));
+                return list;
+            }
+            case MAP: {
+                int size = in.readInt();
+                Map<String, Object> map = new LinkedHashMap<>();
+                for (int i = 0; i < size; i++) {
+                    String key = in.readUTF();
+                    map.put(key, readValue(in));
+                }
+                return map;
+            }
+            case SERIALIZED: {
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                try (ObjectInputStream objects = new WebappObjectInputStream(new ByteArrayInputStream(bytes))) {
+                    return objects.readObject();
+                } catch (ClassNotFoundException e) {
+                    throw new IOException("classe introuvable : " + e.getMessage(), e);
+                }
+            }
+            default:
+                throw new IOException("étiquette inconnue : " + tag);
+        }
+    }
+
+    private static boolean hasStringKeys(Map<?, ?> map) {
+        for (Object key : map.keySet()) {
+            if (!(key instanceof String)) return false;
+        }
+        return true;
+    }
+
+    // classes de l'application : class loader du thread (celui de la webapp pendant une requête)
+    private static final class WebappObjectInputStream extends ObjectInputStream {
+        WebappObjectInputStream(InputStream in) throws IOException {
+            super(in);
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            ClassLoader loader = Thread.currentThread().getContextClassLoader();
+            if (loader != null) {
+                try {
+                    return Class.forName(desc.getName(), false, loader);
+                } catch (ClassNotFoundException e) {
+                    // classe du JDK ou du framework : résolution par défaut
+                }
+            }
+            return super.resolveClass(desc);
+        }
+    }
+}
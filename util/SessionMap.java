@@ -1,96 +1,256 @@
 package framework.util;
 
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Set;
-import java.util.Collection;
-import java.util.Enumeration;
 import jakarta.servlet.http.HttpSession;
 
-public class SessionMap implements Map<String, Object> {
-    private HttpSession session;
-    private Map<String, Object> localMap;
+/**
+ * Vue Map des attributs de session pour les paramètres @Session (HttpSession ou cookie signé,
+ * selon SessionBackend).
+ *
+ * Les attributs sont lus à la demande puis gardés en cache : une action qui lit une clé ne
+ * parcourt pas toute la session. Les écritures restent locales et seules les clés modifiées sont
+ * reportées dans la session par flush(), une fois l'action terminée (FrontServlet) : un conteneur
+ * en cluster ne réplique la session qu'une fois, pour les attributs qui ont changé.
+ *
+ * size(), keySet(), values() et entrySet() chargent tous les attributs ; leurs vues sont modifiables
+ * (remove, setValue) et marquent les clés concernées comme modifiées.
+ */
+public class SessionMap extends AbstractMap<String, Object> {
+    private static final Logger LOG = Logger.get(SessionMap.class);
+    // clé connue sans valeur : absente de la session, ou supprimée localement
+    private static final Object ABSENT = new Object();
+
+    private final SessionBackend.Attributes session;
+    private final Map<String, Object> cache = new HashMap<>();
+    private final Set<String> dirty = new LinkedHashSet<>();
+    // clear() appelé : les attributs de la session sont supprimés au flush
+    private boolean cleared;
+    // tous les attributs de la session sont dans le cache
+    private boolean loaded;
+    private Set<Entry<String, Object>> entrySet;
 
     public SessionMap(HttpSession session) {
-        this.session = session;
-        this.localMap = new HashMap<>();
-        // Charger les données existantes de la session
-        Enumeration<String> attrNames = session.getAttributeNames();
-        while (attrNames.hasMoreElements()) {
-            String attrName = attrNames.nextElement();
-            localMap.put(attrName, session.getAttribute(attrName));
-        }
+        this(SessionBackend.of(session));
     }
 
-    @Override
-    public int size() {
-        return localMap.size();
+    public SessionMap(SessionBackend.Attributes session) {
+        this.session = session;
     }
 
     @Override
-    public boolean isEmpty() {
-        return localMap.isEmpty();
+    public Object get(Object key) {
+        if (!(key instanceof String)) return null;
+        Object value = lookup((String) key);
+        return value == ABSENT ? null : value;
     }
 
     @Override
     public boolean containsKey(Object key) {
-        return localMap.containsKey(key);
+        return get(key) != null;
     }
 
     @Override
-    public boolean containsValue(Object value) {
-        return localMap.containsValue(value);
+    public Object put(String key, Object value) {
+        Object old = get(key);
+        // comme HttpSession.setAttribute : une valeur null supprime l'attribut
+        cache.put(key, value == null ? ABSENT : value);
+        dirty.add(key);
+        return old;
     }
 
     @Override
-    public Object get(Object key) {
-        return localMap.get(key);
+    public Object remove(Object key) {
+        Object old = get(key);
+        if (old != null) {
+            cache.put((String) key, ABSENT);
+            dirty.add((String) key);
+        }
+        return old;
     }
 
     @Override
-    public Object put(String key, Object value) {
-        Object oldValue = localMap.put(key, value);
-        session.setAttribute(key, value);
-        return oldValue;
+    public void clear() {
+        cache.clear();
+        dirty.clear();
+        cleared = true;
+        loaded = true;
     }
 
     @Override
-    public Object remove(Object key) {
-        Object oldValue = localMap.remove(key);
-        session.removeAttribute((String) key);
-        return oldValue;
+    public int size() {
+        loadAll();
+        int size = 0;
+        for (Object value : cache.values()) {
+            if (value != ABSENT) size++;
+        }
+        return size;
     }
 
     @Override
-    public void putAll(Map<? extends String, ? extends Object> m) {
-        localMap.putAll(m);
-        for (Entry<? extends String, ? extends Object> entry : m.entrySet()) {
-            session.setAttribute(entry.getKey(), entry.getValue());
-        }
+    public boolean isEmpty() {
+        return size() == 0;
     }
 
     @Override
-    public void clear() {
-        localMap.clear();
-        // Supprimer tous les attributs de session
-        Enumeration<String> attrNames = session.getAttributeNames();
-        while (attrNames.hasMoreElements()) {
-            session.removeAttribute(attrNames.nextElement());
+    public Set<Entry<String, Object>> entrySet() {
+        if (entrySet == null) entrySet = new EntrySet();
+        return entrySet;
+    }
+
+    /**
+     * Des modifications attendent-elles d'être reportées dans la session ?
+     */
+    public boolean isDirty() {
+        return cleared || !dirty.isEmpty();
+    }
+
+    /**
+     * Reporte dans la session les clés modifiées (et la suppression des autres après clear()).
+     * Sans modification, la session n'est pas touchée.
+     */
+    public void flush() {
+        if (!isDirty()) return;
+        try {
+            if (cleared) {
+                // les clés réécrites ensuite ne sont pas supprimées d'abord : un seul événement par attribut
+                for (String name : Collections.list(session.getAttributeNames())) {
+                    if (!dirty.contains(name)) session.removeAttribute(name);
+                }
+            }
+            for (String key : dirty) {
+                Object value = cache.get(key);
+                if (value == ABSENT) {
+                    session.removeAttribute(key);
+                } else {
+                    session.setAttribute(key, value);
+                }
+            }
+        } catch (IllegalStateException e) {
+            // session invalidée pendant l'action
+            LOG.warn("Session invalidée : modifications de session ignorées (" + e.getMessage() + ")");
         }
+        dirty.clear();
+        cleared = false;
     }
 
-    @Override
-    public Set<String> keySet() {
-        return localMap.keySet();
+    private Object lookup(String key) {
+        Object value = cache.get(key);
+        if (value != null) return value;
+        if (loaded) return ABSENT;
+        value = session.getAttribute(key);
+        if (value == null) value = ABSENT;
+        cache.put(key, value);
+        return value;
     }
 
-    @Override
-    public Collection<Object> values() {
-        return localMap.values();
+    private void loadAll() {
+        if (loaded) return;
+        Enumeration<String> names = session.getAttributeNames();
+        while (names.hasMoreElements()) {
+            String name = names.nextElement();
+            if (!cache.containsKey(name)) {
+                Object value = session.getAttribute(name);
+                cache.put(name, value == null ? ABSENT : value);
+            }
+        }
+        loaded = true;
     }
 
-    @Override
-    public Set<Entry<String, Object>> entrySet() {
-        return localMap.entrySet();
+    // Vue des attributs présents ; remove et setValue passent par la Map (clés marquées modifiées)
+    private final class EntrySet extends AbstractSet<Entry<String, Object>> {
+        @Override
+        public Iterator<Entry<String, Object>> iterator() {
+            loadAll();
+            List<String> keys = new ArrayList<>(cache.size());
+            cache.forEach((key, value) -> {
+                if (value != ABSENT) keys.add(key);
+            });
+            return new Iterator<Entry<String, Object>>() {
+                private final Iterator<String> it = keys.iterator();
+                private String current;
+
+                @Override
+                public boolean hasNext() {
+                    return it.hasNext();
+                }
+
+                @Override
+                public Entry<String, Object> next() {
+                    if (!it.hasNext()) throw new NoSuchElementException();
+                    current = it.next();
+                    return new SessionEntry(current);
+                }
+
+                @Override
+                public void remove() {
+                    if (current == null) throw new IllegalStateException();
+                    SessionMap.this.remove(current);
+                    current = null;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return SessionMap.this.size();
+        }
+
+        @Override
+        public void clear() {
+            SessionMap.this.clear();
+        }
+    }
+
+    private final class SessionEntry implements Entry<String, Object> {
+        private final String key;
+
+        SessionEntry(String key) {
+            this.key = key;
+        }
+
+        @Override
+        public String getKey() {
+            return key;
+        }
+
+        @Override
+        public Object getValue() {
+            return get(key);
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            return put(key, value);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry)) return false;
+            Entry<?, ?> e = (Entry<?, ?>) o;
+            return key.equals(e.getKey()) && Objects.equals(getValue(), e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            Object value = getValue();
+            return key.hashCode() ^ (value == null ? 0 : value.hashCode());
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + getValue();
+        }
     }
 }
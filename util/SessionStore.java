@@ -0,0 +1,34 @@
+package framework.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Stockage des sessions côté serveur pour session.mode=store (voir StoreSessionBackend).
+ *
+ * Implémentation par défaut : MappedFileSessionStore (fichier mappé en mémoire, hors du tas,
+ * conservé entre deux redémarrages). Une autre implémentation (base, cache partagé...) se
+ * déclare avec session.store.class : classe publique avec un constructeur sans argument.
+ * Les méthodes sont appelées en parallèle par les requêtes.
+ */
+public interface SessionStore extends Closeable {
+
+    /**
+     * Attributs de la session, ou null si elle est inconnue ou expirée.
+     * Une lecture prolonge la durée de vie de la session.
+     */
+    Map<String, Object> load(String id);
+
+    /**
+     * Remplace les attributs de la session (et prolonge sa durée de vie).
+     * @return false si la session ne peut pas être enregistrée (trop grande, stockage plein)
+     */
+    boolean save(String id, Map<String, Object> attributes);
+
+    void remove(String id);
+
+    @Override
+    default void close() throws IOException {
+    }
+}
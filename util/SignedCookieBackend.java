@@ -0,0 +1,275 @@
+package framework.util;
+
+import framework.views.JsonWriter;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Session sans état serveur : les attributs voyagent dans un cookie signé (session.mode=cookie).
+ *
+ * Jeton : base64url(JSON {"exp":..., "a":{attributs}}) "." base64url(HMAC-SHA256), avec la clé
+ * session.cookie.secret (32 octets au moins). Le jeton est vérifié une fois par requête et le
+ * résultat gardé en attribut de requête ; un jeton altéré ou expiré vaut « pas de session ».
+ * Le cookie n'est renvoyé que si les attributs ont changé, ou pour prolonger une session
+ * arrivée à mi-vie (session.cookie.max-age, 1800 s par défaut).
+ *
+ * Les valeurs passent par JSON : elles reviennent en String, nombres, Boolean, List ou Map.
+ * Le cookie est limité à 4 Ko : n'y mettre que des identifiants et de petites valeurs.
+ * Les attributs écrits directement dans HttpSession ne sont pas vus dans ce mode.
+ */
+public final class SignedCookieBackend extends SessionBackend {
+    private static final Logger LOG = Logger.get(SignedCookieBackend.class);
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MIN_SECRET_LENGTH = 32;
+    private static final String DEFAULT_COOKIE_NAME = "FWSESSION";
+    private static final int DEFAULT_MAX_AGE = 1800;
+    // au-delà, les navigateurs ignorent le cookie
+    private static final int MAX_COOKIE_LENGTH = 4096;
+    private static final String STATE_ATTRIBUTE = SignedCookieBackend.class.getName() + ".state";
+    // requête déjà examinée : pas de jeton valide
+    private static final Object NO_SESSION = new Object();
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final String cookieName;
+    private final int maxAge;
+    // Mac n'est pas thread-safe : une instance par thread
+    private final ThreadLocal<Mac> macs;
+
+    public SignedCookieBackend(byte[] secret, String cookieName, int maxAge) {
+        if (secret == null || secret.length < MIN_SECRET_LENGTH) {
+            throw new IllegalStateException("session.cookie.secret doit faire au moins " + MIN_SECRET_LENGTH + " octets");
+        }
+        if (maxAge <= 0) throw new IllegalStateException("session.cookie.max-age doit être positif : " + maxAge);
+        this.cookieName = cookieName;
+        this.maxAge = maxAge;
+        SecretKeySpec key = new SecretKeySpec(secret.clone(), ALGORITHM);
+        this.macs = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(ALGORITHM);
+                mac.init(key);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(ALGORITHM + " indisponible", e);
+            }
+        });
+        macs.get(); // algorithme et clé vérifiés dès la création
+    }
+
+    static SignedCookieBackend fromProperties() {
+        String secret = PropertiesUtil.get("session.cookie.secret");
+        if (secret == null || secret.isEmpty()) {
+            throw new IllegalStateException("session.mode=cookie exige session.cookie.secret");
+        }
+        String name = PropertiesUtil.get("session.cookie.name");
+        String maxAge = PropertiesUtil.get("session.cookie.max-age");
+        int seconds;
+        try {
+            seconds = maxAge != null ? Integer.parseInt(maxAge.trim()) : DEFAULT_MAX_AGE;
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("session.cookie.max-age invalide : " + maxAge);
+        }
+        return new SignedCookieBackend(secret.getBytes(StandardCharsets.UTF_8),
+                name != null && !name.trim().isEmpty() ? name.trim() : DEFAULT_COOKIE_NAME, seconds);
+    }
+
+    @Override
+    public Attributes find(HttpServletRequest req) {
+        Object state = req.getAttribute(STATE_ATTRIBUTE);
+        if (state == NO_SESSION) return null;
+        if (state != null) return (CookieSession) state;
+
+        CookieSession session = readCookie(req);
+        req.setAttribute(STATE_ATTRIBUTE, session != null ? session : NO_SESSION);
+        return session;
+    }
+
+    @Override
+    public Attributes open(HttpServletRequest req) {
+        Attributes session = find(req);
+        if (session == null) {
+            session = new CookieSession(new LinkedHashMap<>(), 0L);
+            req.setAttribute(STATE_ATTRIBUTE, session);
+        }
+        return session;
+    }
+
+    @Override
+    public void commit(HttpServletRequest req, HttpServletResponse res) {
+        Object state = req.getAttribute(STATE_ATTRIBUTE);
+        if (!(state instanceof CookieSession)) return;
+        CookieSession session = (CookieSession) state;
+
+        long now = System.currentTimeMillis() / 1000;
+        boolean refresh = session.expires != 0L && session.expires - now < maxAge / 2;
+        if (!session.modified && !refresh) return;
+        if (res.isCommitted()) {
+            LOG.warn("Réponse déjà envoyée : cookie de session non mis à jour");
+            return;
+        }
+
+        if (session.values.isEmpty()) {
+            // plus aucun attribut : le cookie existant est effacé
+            if (session.expires != 0L) res.addCookie(cookie(req, "", 0));
+        } else {
+            long expires = now + maxAge;
+            String token = sign(session.values, expires);
+            if (token.length() + cookieName.length() + 1 > MAX_COOKIE_LENGTH) {
+                LOG.warn("Session trop grande pour un cookie (" + token.length() + " caractères) : non enregistrée");
+                return;
+            }
+            res.addCookie(cookie(req, token, maxAge));
+            session.expires = expires;
+        }
+        session.modified = false;
+    }
+
+    @Override
+    public String getMode() {
+        return "cookie";
+    }
+
+    private CookieSession readCookie(HttpServletRequest req) {
+        Cookie[] cookies = req.getCookies();
+        if (cookies == null) return null;
+        for (Cookie cookie : cookies) {
+            if (cookieName.equals(cookie.getName())) return verify(cookie.getValue());
+        }
+        return null;
+    }
+
+    // Jeton valide et non expiré -> attributs, sinon null (jamais d'exception sur un jeton du client)
+    private CookieSession verify(String token) {
+        if (token == null) return null;
+        int dot = token.indexOf('.');
+        if (dot <= 0 || !isBase64Url(token, 0, dot) || !isBase64Url(token, dot + 1, token.length())) return null;
+
+        byte[] expected = mac(token.substring(0, dot).getBytes(StandardCharsets.US_ASCII));
+        byte[] signature = DECODER.decode(token.substring(dot + 1));
+        if (!MessageDigest.isEqual(expected, signature)) {
+            LOG.debug("Cookie de session rejeté : signature invalide");
+            return null;
+        }
+
+        Object payload;
+        try {
+            String json = new String(DECODER.decode(token.substring(0, dot)), StandardCharsets.UTF_8);
+            JsonReader reader = new JsonReader(new StringReader(json));
+            payload = reader.nextValue();
+            reader.endDocument();
+        } catch (IOException | IllegalArgumentException e) {
+            // signé par nous : ne peut venir que d'une autre version du format
+            LOG.debug("Cookie de session illisible : " + e.getMessage());
+            return null;
+        }
+        if (!(payload instanceof Map)) return null;
+        Map<?, ?> content = (Map<?, ?>) payload;
+        Object exp = content.get("exp");
+        Object attributes = content.get("a");
+        if (!(exp instanceof Number) || !(attributes instanceof Map)) return null;
+
+        long expires = ((Number) exp).longValue();
+        if (expires <= System.currentTimeMillis() / 1000) return null;
+
+        Map<String, Object> values = new LinkedHashMap<>();
+        ((Map<?, ?>) attributes).forEach((name, value) -> values.put(String.valueOf(name), value));
+        return new CookieSession(values, expires);
+    }
+
+    private String sign(Map<String, Object> values, long expires) {
+        ByteArrayOutputStream json = new ByteArrayOutputStream(256);
+        try (JsonWriter writer = new JsonWriter(json)) {
+            Map<String, Object> content = new LinkedHashMap<>();
+            content.put("exp", expires);
+            content.put("a", values);
+            writer.writeValue(content);
+        } catch (IOException e) {
+            throw new IllegalStateException("Attribut de session non sérialisable en JSON : " + e.getMessage(), e);
+        }
+        String payload = ENCODER.encodeToString(json.toByteArray());
+        return payload + "." + ENCODER.encodeToString(mac(payload.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    private byte[] mac(byte[] data) {
+        Mac mac = macs.get();
+        return mac.doFinal(data);
+    }
+
+    private Cookie cookie(HttpServletRequest req, String value, int age) {
+        Cookie cookie = new Cookie(cookieName, value);
+        String contextPath = req.getContextPath();
+        cookie.setPath(contextPath == null || contextPath.isEmpty() ? "/" : contextPath);
+        cookie.setHttpOnly(true);
+        cookie.setSecure(req.isSecure());
+        cookie.setMaxAge(age);
+        cookie.setAttribute("SameSite", "Lax");
+        return cookie;
+    }
+
+    // alphabet base64url sans remplissage, longueur décodable
+    private static boolean isBase64Url(String s, int start, int end) {
+        if (start == end || (end - start) % 4 == 1) return false;
+        for (int i = start; i < end; i++) {
+            char c = s.charAt(i);
+            if (!((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-' || c == '_')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Attributs du cookie pour la durée de la requête
+    private static final class CookieSession implements Attributes {
+        private final Map<String, Object> values;
+        // expiration du jeton reçu (secondes), 0 si aucun cookie n'a encore été envoyé
+        private long expires;
+        private boolean modified;
+
+        CookieSession(Map<String, Object> values, long expires) {
+            this.values = values;
+            this.expires = expires;
+        }
+
+        @Override
+        public Object getAttribute(String name) {
+            return values.get(name);
+        }
+
+        @Override
+        public Enumeration<String> getAttributeNames() {
+            return Collections.enumeration(new ArrayList<>(values.keySet()));
+        }
+
+        @Override
+        public void setAttribute(String name, Object value) {
+            if (value == null) {
+                removeAttribute(name);
+                return;
+            }
+            values.put(name, value);
+            modified = true;
+        }
+
+        @Override
+        public void removeAttribute(String name) {
+            if (values.remove(name) != null) modified = true;
+        }
+    }
+}
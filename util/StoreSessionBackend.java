@@ -0,0 +1,244 @@
+package framework.util;
+
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Sessions dans un SessionStore (session.mode=store) : le cookie ne porte qu'un identifiant
+ * aléatoire de 128 bits, les attributs sont lus une fois par requête dans le store et
+ * réécrits seulement s'ils ont changé.
+ *
+ * Propriétés : session.store.class (SessionStore de l'application), sinon MappedFileSessionStore
+ * avec session.store.file (par défaut framework-sessions.dat dans le répertoire temporaire propre à
+ * la webapp ; jamais dans java.io.tmpdir, partagé entre utilisateurs), session.store.slots (4096), session.store.slot-size (4096 octets) et
+ * session.store.ttl (1800 s) ; session.cookie.name (FWSID).
+ */
+public final class StoreSessionBackend extends SessionBackend {
+    private static final Logger LOG = Logger.get(StoreSessionBackend.class);
+    private static final String DEFAULT_COOKIE_NAME = "FWSID";
+    private static final String STATE_ATTRIBUTE = StoreSessionBackend.class.getName() + ".state";
+    // requête déjà examinée : pas de session
+    private static final Object NO_SESSION = new Object();
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final SessionStore store;
+    private final String cookieName;
+    private final SecureRandom random = new SecureRandom();
+
+    public StoreSessionBackend(SessionStore store, String cookieName) {
+        this.store = store;
+        this.cookieName = cookieName;
+    }
+
+    static StoreSessionBackend fromProperties(ServletContext ctx) {
+        String name = PropertiesUtil.get("session.cookie.name");
+        String cookieName = name != null && !name.trim().isEmpty() ? name.trim() : DEFAULT_COOKIE_NAME;
+
+        String storeClass = PropertiesUtil.get("session.store.class");
+        if (storeClass != null && !storeClass.trim().isEmpty()) {
+            try {
+                ClassLoader loader = ctx != null ? ctx.getClassLoader() : Thread.currentThread().getContextClassLoader();
+                Class<?> cls = Class.forName(storeClass.trim(), true, loader);
+                return new StoreSessionBackend((SessionStore) cls.getConstructor().newInstance(), cookieName);
+            } catch (ReflectiveOperationException | ClassCastException e) {
+                throw new IllegalStateException("session.store.class invalide : " + storeClass, e);
+            }
+        }
+
+        Path file = storeFile(ctx);
+        int slots = intProperty("session.store.slots", 4096);
+        int slotSize = intProperty("session.store.slot-size", 4096);
+        long ttl = intProperty("session.store.ttl", 1800) * 1000L;
+        try {
+            return new StoreSessionBackend(MappedFileSessionStore.open(file, slots, slotSize, ttl), cookieName);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalStateException("Store de sessions indisponible : " + e.getMessage(), e);
+        }
+    }
+
+    public SessionStore getStore() {
+        return store;
+    }
+
+    @Override
+    public Attributes find(HttpServletRequest req) {
+        Object state = req.getAttribute(STATE_ATTRIBUTE);
+        if (state == NO_SESSION) return null;
+        if (state != null) return (StoredSession) state;
+
+        StoredSession session = null;
+        String id = cookieValue(req);
+        if (id != null) {
+            Map<String, Object> values = store.load(id);
+            if (values != null) session = new StoredSession(id, values, false);
+        }
+        req.setAttribute(STATE_ATTRIBUTE, session != null ? session : NO_SESSION);
+        return session;
+    }
+
+    @Override
+    public Attributes open(HttpServletRequest req) {
+        Attributes session = find(req);
+        if (session == null) {
+            session = new StoredSession(newId(), new LinkedHashMap<>(), true);
+            req.setAttribute(STATE_ATTRIBUTE, session);
+        }
+        return session;
+    }
+
+    @Override
+    public void commit(HttpServletRequest req, HttpServletResponse res) {
+        Object state = req.getAttribute(STATE_ATTRIBUTE);
+        if (!(state instanceof StoredSession)) return;
+        StoredSession session = (StoredSession) state;
+        if (!session.modified) return;
+        session.modified = false;
+
+        if (session.values.isEmpty()) {
+            // plus aucun attribut : la session disparaît du store et du navigateur
+            if (!session.isNew) {
+                store.remove(session.id);
+                if (!res.isCommitted()) res.addCookie(cookie(req, "", 0));
+            }
+            return;
+        }
+        if (session.isNew && res.isCommitted()) {
+            LOG.warn("Réponse déjà envoyée : nouvelle session non créée");
+            return;
+        }
+        boolean saved;
+        try {
+            saved = store.save(session.id, session.values);
+        } catch (IllegalArgumentException e) {
+            LOG.warn(e.getMessage());
+            return;
+        }
+        if (!saved) {
+            LOG.warn("Session non enregistrée, trop grande ou store plein (" + session.values.keySet() + ")");
+            return;
+        }
+        if (session.isNew) {
+            res.addCookie(cookie(req, session.id, -1));
+            session.isNew = false;
+        }
+    }
+
+    @Override
+    public String getMode() {
+        return "store";
+    }
+
+    @Override
+    public void close() throws IOException {
+        store.close();
+    }
+
+    private String cookieValue(HttpServletRequest req) {
+        Cookie[] cookies = req.getCookies();
+        if (cookies == null) return null;
+        for (Cookie cookie : cookies) {
+            if (cookieName.equals(cookie.getName())) return cookie.getValue();
+        }
+        return null;
+    }
+
+    // 128 bits aléatoires en 32 chiffres hexadécimaux (jamais nul : 0 marque un emplacement libre)
+    private String newId() {
+        long hi;
+        long lo;
+        do {
+            hi = random.nextLong();
+            lo = random.nextLong();
+        } while ((hi | lo) == 0L);
+        char[] id = new char[32];
+        for (int i = 0; i < 16; i++) {
+            id[i] = HEX[(int) (hi >>> (60 - 4 * i)) & 0xF];
+            id[16 + i] = HEX[(int) (lo >>> (60 - 4 * i)) & 0xF];
+        }
+        return new String(id);
+    }
+
+    private Cookie cookie(HttpServletRequest req, String value, int age) {
+        Cookie cookie = new Cookie(cookieName, value);
+        String contextPath = req.getContextPath();
+        cookie.setPath(contextPath == null || contextPath.isEmpty() ? "/" : contextPath);
+        cookie.setHttpOnly(true);
+        cookie.setSecure(req.isSecure());
+        cookie.setMaxAge(age);
+        cookie.setAttribute("SameSite", "Lax");
+        return cookie;
+    }
+
+    private static Path storeFile(ServletContext ctx) {
+        String configured = PropertiesUtil.get("session.store.file");
+        if (configured != null && !configured.trim().isEmpty()) return Paths.get(configured.trim());
+        Object tempDir = ctx != null ? ctx.getAttribute(ServletContext.TEMPDIR) : null;
+        if (!(tempDir instanceof File)) {
+            throw new IllegalStateException("session.store.file requis : pas de répertoire temporaire de webapp");
+        }
+        return new File((File) tempDir, "framework-sessions.dat").toPath();
+    }
+
+    private static int intProperty(String key, int defaultValue) {
+        String value = PropertiesUtil.get(key);
+        if (value == null || value.trim().isEmpty()) return defaultValue;
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException(key + " invalide : " + value);
+        }
+    }
+
+    // Attributs lus dans le store, pour la durée de la requête
+    private static final class StoredSession implements Attributes {
+        private final String id;
+        private final Map<String, Object> values;
+        // identifiant pas encore envoyé au navigateur
+        private boolean isNew;
+        private boolean modified;
+
+        StoredSession(String id, Map<String, Object> values, boolean isNew) {
+            this.id = id;
+            this.values = values;
+            this.isNew = isNew;
+        }
+
+        @Override
+        public Object getAttribute(String name) {
+            return values.get(name);
+        }
+
+        @Override
+        public Enumeration<String> getAttributeNames() {
+            return Collections.enumeration(new ArrayList<>(values.keySet()));
+        }
+
+        @Override
+        public void setAttribute(String name, Object value) {
+            if (value == null) {
+                removeAttribute(name);
+                return;
+            }
+            values.put(name, value);
+            modified = true;
+        }
+
+        @Override
+        public void removeAttribute(String name) {
+            if (values.remove(name) != null) modified = true;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package framework.util;
+
+import jakarta.servlet.http.Part;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Fichier reçu dans une requête multipart, pour un paramètre d'action de type UploadedFile
+ * (ou List<UploadedFile>, UploadedFile[] : tous les fichiers d'un même champ).
+ *
+ * Le contenu n'est pas copié dans le tas : il reste là où le conteneur l'a reçu (en mémoire sous
+ * fileSizeThreshold de @MultipartConfig, dans un fichier temporaire au-delà). On le lit en flux
+ * avec getInputStream() ou on l'enregistre avec transferTo(), sans jamais le charger en entier.
+ */
+public final class UploadedFile {
+    // au plus 1 Mo par appel à transferFrom quand la source n'est pas un fichier
+    private static final long CHUNK = 1 << 20;
+
+    private final Part part;
+
+    public UploadedFile(Part part) {
+        this.part = part;
+    }
+
+    /**
+     * Nom du champ de formulaire.
+     */
+    public String getFieldName() {
+        return part.getName();
+    }
+
+    /**
+     * Nom du fichier chez le client (avec extension), tel qu'envoyé par le navigateur.
+     */
+    public String getFileName() {
+        return part.getSubmittedFileName();
+    }
+
+    public long getSize() {
+        return part.getSize();
+    }
+
+    public String getContentType() {
+        return part.getContentType();
+    }
+
+    public InputStream getInputStream() throws IOException {
+        return part.getInputStream();
+    }
+
+    /**
+     * Copie le contenu dans target (créé ou remplacé). Si le conteneur a gardé le fichier sur disque,
+     * la copie se fait de canal à canal (FileChannel.transferTo, sans passer par le tas Java) ;
+     * sinon le flux est recopié par blocs dans le canal du fichier cible.
+     * @return nombre d'octets écrits
+     */
+    public long transferTo(Path target) throws IOException {
+        try (InputStream in = part.getInputStream();
+             FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                     StandardOpenOption.TRUNCATE_EXISTING)) {
+            long position = 0;
+            if (in instanceof FileInputStream) {
+                FileChannel source = ((FileInputStream) in).getChannel();
+                long size = source.size();
+                while (position < size) {
+                    long transferred = source.transferTo(position, size - position, out);
+                    if (transferred <= 0) break;
+                    position += transferred;
+                }
+            } else {
+                ReadableByteChannel source = Channels.newChannel(in);
+                long transferred;
+                while ((transferred = out.transferFrom(source, position, CHUNK)) > 0) {
+                    position += transferred;
+                }
+            }
+            return position;
+        }
+    }
+
+    /**
+     * Contenu complet en mémoire : à réserver aux petits fichiers.
+     */
+    public byte[] getBytes() throws IOException {
+        try (InputStream in = part.getInputStream()) {
+            return in.readAllBytes();
+        }
+    }
+
+    /**
+     * Supprime le fichier temporaire du conteneur (sinon supprimé en fin de requête).
+     */
+    public void delete() throws IOException {
+        part.delete();
+    }
+
+    public Part getPart() {
+        return part;
+    }
+
+    @Override
+    public String toString() {
+        return getFieldName() + "=" + getFileName() + " (" + getSize() + " octets)";
+    }
+}
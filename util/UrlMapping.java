@@ -11,15 +11,23 @@ public class UrlMapping {
     public final String url;
     public final Method method;
     public final Class<?> mappedClass;
+    private final ActionInvoker invoker;
+    private final ArgumentPlan argumentPlan;
+    private final AuthManager.Policy authPolicy;
 
     private String regex;
     private List<String> paramNames;
+    // identifiant attribué au démarrage pour les métriques (RouteMetrics), -1 sinon
+    private int routeId = -1;
 
     // Constructeur principal utilisé par UrlScanner
     public UrlMapping(String url, Method method) {
         this.url = url;
         this.method = method;
         this.mappedClass = method != null ? method.getDeclaringClass() : null;
+        this.invoker = method != null ? ActionInvoker.of(method) : null;
+        this.argumentPlan = method != null ? ArgumentPlan.compile(method, url) : null;
+        this.authPolicy = method != null ? AuthManager.compile(method) : null;
     }
 
     // utilitaire : getters au besoin
@@ -35,6 +43,26 @@ public class UrlMapping {
         return mappedClass;
     }
 
+    public ActionInvoker getInvoker() {
+        return invoker;
+    }
+
+    public ArgumentPlan getArgumentPlan() {
+        return argumentPlan;
+    }
+
+    public AuthManager.Policy getAuthPolicy() {
+        return authPolicy;
+    }
+
+    public int getRouteId() {
+        return routeId;
+    }
+
+    public void setRouteId(int routeId) {
+        this.routeId = routeId;
+    }
+
     public void setRegex(String regex) {
         this.regex = regex;
     }
@@ -4,9 +4,13 @@ import jakarta.servlet.ServletContext;
 import java.io.File;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -17,37 +21,112 @@ import framework.annotations.GetMapping;
 import framework.annotations.PostMapping;
 
 public class UrlScanner {
+    private static final Logger LOG = Logger.get(UrlScanner.class);
+
     public static class ScanResult {
         public final List<UrlMapping> urlMappings = new ArrayList<>();
     }
 
     public static ScanResult scan(ServletContext ctx) {
-        ScanResult result = new ScanResult();
-        if (ctx == null) return result;
+        return scan(findControllers(ctx));
+    }
 
-        String classesPath = ctx.getRealPath("/WEB-INF/classes");
-        if (classesPath == null) return result;
+    // MÉTHODE PRIVÉE : getAllUrl() comme sur l'image
+    public static HashMap<String, List<ActionMapping>> getAllUrl(ServletContext ctx) throws Exception {
+        return getAllUrl(findControllers(ctx));
+    }
 
-        File root = new File(classesPath);
-        if (!root.exists() || !root.isDirectory()) return result;
+    /**
+     * Contrôleurs de WEB-INF/classes et des jars de WEB-INF/lib, avec leurs méthodes déclarées.
+     * Une racine (répertoire ou jar) dont le RouteRegistry généré couvre toutes les classes est lue
+     * dans ce registre ; les autres sont parcourues : fichiers .class lus sans chargement
+     * (ClassFileScanner), seules les classes annotées @Controller sont chargées.
+     * Un seul parcours sert à scan() et getAllUrl().
+     */
+    public static Map<Class<?>, List<Method>> findControllers(ServletContext ctx) {
+        Map<Class<?>, List<Method>> controllers = new LinkedHashMap<>();
+        if (ctx == null) return controllers;
+        ClassLoader loader = ctx.getClassLoader();
+
+        List<File> classDirs = new ArrayList<>();
+        File classes = realDir(ctx, "/WEB-INF/classes");
+        if (classes != null) classDirs.add(classes);
+
+        List<File> jars = new ArrayList<>();
+        File lib = realDir(ctx, "/WEB-INF/lib");
+        File[] libFiles = lib != null ? lib.listFiles((dir, name) -> name.endsWith(".jar")) : null;
+        if (libFiles != null) jars.addAll(Arrays.asList(libFiles));
+
+        int registered = fromRegistries(classDirs, loader, controllers) + fromRegistries(jars, loader, controllers);
+        if (registered > 0) {
+            LOG.info("Routes de " + registered + " racine(s) chargées depuis un registre généré ("
+                    + controllers.size() + " contrôleur(s))");
+        }
+        if (classDirs.isEmpty() && jars.isEmpty()) return controllers;
 
-        scanDir(root, root, ctx.getClassLoader(), result);
-        return result;
+        ScanCache cache = openScanCache(ctx);
+        List<String> names = new ClassFileScanner(Controller.class.getName(), cache).scan(classDirs, jars);
+        if (cache != null) {
+            cache.save();
+            LOG.info("Scan des classes : " + cache.misses() + " fichier(s) lu(s), " + cache.hits() + " repris du cache");
+        }
+        for (String fqcn : names) {
+            try {
+                Class<?> cls = loader.loadClass(fqcn);
+                if (!cls.isAnnotationPresent(Controller.class)) continue;
+                controllers.put(cls, Arrays.asList(cls.getDeclaredMethods()));
+            } catch (ClassNotFoundException | NoClassDefFoundError e) {
+                // ignore
+            }
+        }
+        return controllers;
     }
 
-    // MÉTHODE PRIVÉE : getAllUrl() comme sur l'image
-    public static HashMap<String, List<ActionMapping>> getAllUrl(ServletContext ctx) throws Exception {
-        HashMap<String, List<ActionMapping>> result = new HashMap<>();
-        
-        if (ctx == null) return result;
+    // racines dont le registre est complet : contrôleurs ajoutés, racine retirée de la liste à parcourir
+    private static int fromRegistries(List<File> roots, ClassLoader loader, Map<Class<?>, List<Method>> controllers) {
+        int count = 0;
+        for (Iterator<File> it = roots.iterator(); it.hasNext(); ) {
+            Map<Class<?>, List<Method>> registered = RouteRegistry.load(it.next(), loader);
+            if (registered == null) continue;
+            registered.forEach(controllers::putIfAbsent);
+            it.remove();
+            count++;
+        }
+        return count;
+    }
 
-        String classesPath = ctx.getRealPath("/WEB-INF/classes");
-        if (classesPath == null) return result;
+    // cache du scan dans le répertoire temporaire de la webapp (scan.cache=false pour le désactiver)
+    private static ScanCache openScanCache(ServletContext ctx) {
+        if ("false".equalsIgnoreCase(String.valueOf(PropertiesUtil.get("scan.cache")).trim())) return null;
+        Object tempDir = ctx.getAttribute(ServletContext.TEMPDIR);
+        if (!(tempDir instanceof File) || !((File) tempDir).isDirectory()) return null;
+        return ScanCache.load(new File((File) tempDir, "framework-scan.cache"), Controller.class.getName());
+    }
 
-        File root = new File(classesPath);
-        if (!root.exists() || !root.isDirectory()) return result;
+    private static File realDir(ServletContext ctx, String path) {
+        String realPath = ctx.getRealPath(path);
+        if (realPath == null) return null;
+        File dir = new File(realPath);
+        return dir.isDirectory() ? dir : null;
+    }
 
-        scanDirForActionMapping(root, root, ctx.getClassLoader(), result);
+    /**
+     * Variante sans parcours de répertoire : contrôleurs et méthodes fournis par findControllers()
+     * ou par un RouteRegistry généré à la compilation.
+     */
+    public static ScanResult scan(Map<Class<?>, List<Method>> controllers) {
+        ScanResult result = new ScanResult();
+        for (Map.Entry<Class<?>, List<Method>> entry : controllers.entrySet()) {
+            scanClass(entry.getKey(), entry.getValue(), result);
+        }
+        return result;
+    }
+
+    public static HashMap<String, List<ActionMapping>> getAllUrl(Map<Class<?>, List<Method>> controllers) {
+        HashMap<String, List<ActionMapping>> result = new HashMap<>();
+        for (Map.Entry<Class<?>, List<Method>> entry : controllers.entrySet()) {
+            scanClassForActionMapping(entry.getKey(), entry.getValue(), result);
+        }
         return result;
     }
 
@@ -69,7 +148,8 @@ public class UrlScanner {
 
             String spec = matcher.group(1);
             String[] parts = spec.split(":", 2);
-            String partRegex = parts.length == 2 ? parts[1] : "[^/]+";
+            PathType type = parts.length == 2 ? PathType.of(parts[1]) : null;
+            String partRegex = type != null ? type.regex() : parts.length == 2 ? parts[1] : "[^/]+";
             regex.append(partRegex);
 
             lastEnd = matcher.end();
@@ -92,142 +172,98 @@ public class UrlScanner {
         return params;
     }
 
-    private static void scanDir(File root, File current, ClassLoader loader, ScanResult result) {
-        File[] children = current.listFiles();
-        if (children == null) return;
-
-        for (File f : children) {
-            if (f.isDirectory()) {
-                scanDir(root, f, loader, result);
-            } else if (f.getName().endsWith(".class")) {
-                String rel = root.toURI().relativize(f.toURI()).getPath();
-                if (rel.contains("$")) continue;
-                String fqcn = rel.replace('/', '.').replace('\\', '.');
-                fqcn = fqcn.substring(0, fqcn.length() - ".class".length());
-                try {
-                    Class<?> cls = loader.loadClass(fqcn);
-
-                    //AJOUTER CETTE LIGNE (comme dans scanDirForActionMapping)
-                    if (!cls.isAnnotationPresent(Controller.class)) continue;
-
-                    String base = deriveControllerBase(cls);
-                    Set<String> seen = new HashSet<>();
-
-                    for (Method m : cls.getDeclaredMethods()) {
-                        String path = null;
-                        String httpMethod = "ANY";
-
-                        if (m.isAnnotationPresent(Url.class)) {
-                            Url u = m.getAnnotation(Url.class);
-                            path = u.value();
-                            httpMethod = "ANY";
-                        } else if (m.isAnnotationPresent(GetMapping.class)) {
-                            GetMapping u = m.getAnnotation(GetMapping.class);
-                            path = u.value();
-                            httpMethod = "GET";
-                        } else if (m.isAnnotationPresent(PostMapping.class)) {
-                            PostMapping u = m.getAnnotation(PostMapping.class);
-                            path = u.value();
-                            httpMethod = "POST";
-                        } else if (cls.isAnnotationPresent(Controller.class)) {
-                            String action = m.getName();
-                            if ("index".equals(action)) {
-                                path = base;
-                            } else {
-                                path = base.endsWith("/") ? base + action : base + "/" + action;
-                            }
-                            httpMethod = "ANY";
-                        }
-
-                        if (path == null) continue;
-                        if (!path.startsWith("/")) path = "/" + path;
-                        path = path.toLowerCase();
-
-                        String mappingKey = httpMethod + ":" + path;
-                        if (seen.contains(mappingKey)) continue;
-                        seen.add(mappingKey);
-
-                        UrlMapping mapping = new UrlMapping(path, m);
-                        if (hasPathParam(path)) {
-                            mapping.setRegex(patternToRegex(path));
-                            mapping.setParamNames(extractParamNames(path));
-                        }
-                        result.urlMappings.add(mapping);
-                    }
-
-                } catch (ClassNotFoundException | NoClassDefFoundError e) {
-                    // ignore
+    // UrlMapping des méthodes d'un contrôleur
+    private static void scanClass(Class<?> cls, List<Method> methods, ScanResult result) {
+        String base = deriveControllerBase(cls);
+        Set<String> seen = new HashSet<>();
+
+        for (Method m : methods) {
+            String path = null;
+            String httpMethod = "ANY";
+
+            if (m.isAnnotationPresent(Url.class)) {
+                Url u = m.getAnnotation(Url.class);
+                path = u.value();
+                httpMethod = "ANY";
+            } else if (m.isAnnotationPresent(GetMapping.class)) {
+                GetMapping u = m.getAnnotation(GetMapping.class);
+                path = u.value();
+                httpMethod = "GET";
+            } else if (m.isAnnotationPresent(PostMapping.class)) {
+                PostMapping u = m.getAnnotation(PostMapping.class);
+                path = u.value();
+                httpMethod = "POST";
+            } else if (cls.isAnnotationPresent(Controller.class)) {
+                String action = m.getName();
+                if ("index".equals(action)) {
+                    path = base;
+                } else {
+                    path = base.endsWith("/") ? base + action : base + "/" + action;
                 }
+                httpMethod = "ANY";
             }
+
+            if (path == null) continue;
+            if (!path.startsWith("/")) path = "/" + path;
+            path = path.toLowerCase();
+
+            String mappingKey = httpMethod + ":" + path;
+            if (seen.contains(mappingKey)) continue;
+            seen.add(mappingKey);
+
+            UrlMapping mapping = new UrlMapping(path, m);
+            if (hasPathParam(path)) {
+                mapping.setRegex(patternToRegex(path));
+                mapping.setParamNames(extractParamNames(path));
+            }
+            result.urlMappings.add(mapping);
         }
     }
 
-    // MÉTHODE PRIVÉE pour scanner et créer ActionMapping
-    private static void scanDirForActionMapping(File root, File current, ClassLoader loader, 
-                                                 HashMap<String, List<ActionMapping>> result) {
-        File[] children = current.listFiles();
-        if (children == null) return;
-
-        for (File f : children) {
-            if (f.isDirectory()) {
-                scanDirForActionMapping(root, f, loader, result);
-            } else if (f.getName().endsWith(".class")) {
-                String rel = root.toURI().relativize(f.toURI()).getPath();
-                if (rel.contains("$")) continue;
-                String fqcn = rel.replace('/', '.').replace('\\', '.');
-                fqcn = fqcn.substring(0, fqcn.length() - ".class".length());
-                try {
-                    Class<?> cls = loader.loadClass(fqcn);
-
-                    if (!cls.isAnnotationPresent(Controller.class)) continue;
-
-                    String base = deriveControllerBase(cls);
-
-                    for (Method m : cls.getDeclaredMethods()) {
-                        String path = null;
-                        String httpMethod = "ALL";
-
-                        if (m.isAnnotationPresent(Url.class)) {
-                            Url u = m.getAnnotation(Url.class);
-                            path = u.value();
-                            httpMethod = "ALL";
-                        } else if (m.isAnnotationPresent(GetMapping.class)) {
-                            GetMapping u = m.getAnnotation(GetMapping.class);
-                            path = u.value();
-                            httpMethod = "GET";
-                        } else if (m.isAnnotationPresent(PostMapping.class)) {
-                            PostMapping u = m.getAnnotation(PostMapping.class);
-                            path = u.value();
-                            httpMethod = "POST";
-                        } else if (cls.isAnnotationPresent(Controller.class)) {
-                            String action = m.getName();
-                            if ("index".equals(action)) {
-                                path = base;
-                            } else {
-                                path = base.endsWith("/") ? base + action : base + "/" + action;
-                            }
-                            httpMethod = "ALL";
-                        }
-
-                        if (path == null) continue;
-                        if (!path.startsWith("/")) path = "/" + path;
-                        
-                        // normaliser en lowercase (comme dans scanDir)
-                        path = path.toLowerCase();
-
-                        // Créer ActionMapping
-                        ActionMapping am = new ActionMapping(cls.getName(), m, httpMethod);
-                        
-                        // Ajouter à la liste correspondante
-                        List<ActionMapping> list = result.getOrDefault(path, new ArrayList<>());
-                        list.add(am);
-                        result.put(path, list);
-                    }
-
-                } catch (ClassNotFoundException | NoClassDefFoundError e) {
-                    // ignore
+    // ActionMapping des méthodes d'un contrôleur
+    private static void scanClassForActionMapping(Class<?> cls, List<Method> methods,
+                                                  HashMap<String, List<ActionMapping>> result) {
+        String base = deriveControllerBase(cls);
+
+        for (Method m : methods) {
+            String path = null;
+            String httpMethod = "ALL";
+
+            if (m.isAnnotationPresent(Url.class)) {
+                Url u = m.getAnnotation(Url.class);
+                path = u.value();
+                httpMethod = "ALL";
+            } else if (m.isAnnotationPresent(GetMapping.class)) {
+                GetMapping u = m.getAnnotation(GetMapping.class);
+                path = u.value();
+                httpMethod = "GET";
+            } else if (m.isAnnotationPresent(PostMapping.class)) {
+                PostMapping u = m.getAnnotation(PostMapping.class);
+                path = u.value();
+                httpMethod = "POST";
+            } else if (cls.isAnnotationPresent(Controller.class)) {
+                String action = m.getName();
+                if ("index".equals(action)) {
+                    path = base;
+                } else {
+                    path = base.endsWith("/") ? base + action : base + "/" + action;
                 }
+                httpMethod = "ALL";
             }
+
+            if (path == null) continue;
+            if (!path.startsWith("/")) path = "/" + path;
+            
+            // normaliser en lowercase (comme dans scanClass)
+            path = path.toLowerCase();
+
+            // Créer ActionMapping
+            ActionMapping am = new ActionMapping(cls.getName(), m, httpMethod, path);
+            
+            // Ajouter à la liste correspondante
+            List<ActionMapping> list = result.getOrDefault(path, new ArrayList<>());
+            list.add(am);
+            result.put(path, list);
         }
     }
 
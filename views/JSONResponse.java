@@ -1,5 +1,9 @@
 package framework.views;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
@@ -8,6 +12,11 @@ import java.util.Map;
  * Simple container for JSON responses: status, code, count and data map.
  */
 public class JSONResponse {
+    private static final byte[] STATUS_NAME = "\"status\":".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] CODE_NAME = ",\"code\":".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] COUNT_NAME = ",\"count\":".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] DATA_NAME = ",\"data\":".getBytes(StandardCharsets.UTF_8);
+
     private String status;
     private int code;
     private int count;
@@ -57,100 +66,38 @@ public class JSONResponse {
      * Serialize to JSON string (small built-in serializer, no external deps).
      */
     public String toJson() {
-        StringBuilder sb = new StringBuilder();
-        sb.append('{');
-        sb.append("\"status\":\"").append(escape(status)).append("\"");
-        sb.append(',').append("\"code\":").append(code);
-        sb.append(',').append("\"count\":").append(count);
-        sb.append(',').append("\"data\":");
-        sb.append('{');
-        boolean first = true;
-        for (Map.Entry<String, Object> e : data.entrySet()) {
-            if (!first) sb.append(',');
-            first = false;
-            sb.append('"').append(escape(e.getKey())).append('"').append(':');
-            appendValue(sb, e.getValue());
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            writeTo(bytes);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
         }
-        sb.append('}');
-        sb.append('}');
-        return sb.toString();
+        return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
     }
 
-    private static void appendValue(StringBuilder sb, Object v) {
-        if (v == null) { sb.append("null"); return; }
-        if (v instanceof Number || v instanceof Boolean) {
-            sb.append(v.toString());
-            return;
-        }
-        if (v instanceof String) {
-            sb.append('"').append(escape((String) v)).append('"');
-            return;
-        }
-        if (v instanceof java.util.Map) {
-            sb.append('{');
-            java.util.Map<?,?> m = (java.util.Map<?,?>) v;
-            boolean first = true;
-            for (java.util.Map.Entry<?,?> e : m.entrySet()) {
-                if (!first) sb.append(','); first = false;
-                sb.append('"').append(escape(String.valueOf(e.getKey()))).append('"').append(':');
-                appendValue(sb, e.getValue());
-            }
-            sb.append('}');
-            return;
-        }
-        if (v instanceof String[]) {
-            sb.append('[');
-            String[] a = (String[]) v;
-            for (int i = 0; i < a.length; i++) {
-                if (i > 0) sb.append(',');
-                sb.append('"').append(escape(a[i])).append('"');
-            }
-            sb.append(']');
-            return;
-        }
-        if (v.getClass().isArray()) {
-            sb.append('[');
-            int len = java.lang.reflect.Array.getLength(v);
-            for (int i = 0; i < len; i++) {
-                if (i > 0) sb.append(',');
-                Object item = java.lang.reflect.Array.get(v, i);
-                appendValue(sb, item);
-            }
-            sb.append(']');
-            return;
-        }
-        if (v instanceof java.util.Collection) {
-            sb.append('[');
-            java.util.Iterator<?> it = ((java.util.Collection<?>) v).iterator();
+    /**
+     * Serialize directly to the stream as UTF-8 (same output as toJson(), without building a String).
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        try (JsonWriter w = new JsonWriter(out)) {
+            w.writeByte('{');
+            w.writeRaw(STATUS_NAME);
+            w.writeString(status);
+            w.writeRaw(CODE_NAME);
+            w.writeLong(code);
+            w.writeRaw(COUNT_NAME);
+            w.writeLong(count);
+            w.writeRaw(DATA_NAME);
+            w.writeByte('{');
             boolean first = true;
-            while (it.hasNext()) {
-                if (!first) sb.append(','); first = false;
-                appendValue(sb, it.next());
-            }
-            sb.append(']');
-            return;
-        }
-        // Fallback: use toString as string
-        sb.append('"').append(escape(String.valueOf(v))).append('"');
-    }
-
-    private static String escape(String s) {
-        if (s == null) return "";
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < s.length(); i++) {
-            char c = s.charAt(i);
-            switch (c) {
-                case '"': sb.append("\\\""); break;
-                case '\\': sb.append("\\\\"); break;
-                case '\b': sb.append("\\b"); break;
-                case '\f': sb.append("\\f"); break;
-                case '\n': sb.append("\\n"); break;
-                case '\r': sb.append("\\r"); break;
-                case '\t': sb.append("\\t"); break;
-                default:
-                    if (c < ' ') sb.append(String.format("\\u%04x", (int)c)); else sb.append(c);
+            for (Map.Entry<String, Object> e : data.entrySet()) {
+                if (!first) w.writeByte(',');
+                first = false;
+                w.writeName(e.getKey());
+                w.writeValue(e.getValue());
             }
+            w.writeByte('}');
+            w.writeByte('}');
         }
-        return sb.toString();
     }
 }
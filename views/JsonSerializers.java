@@ -0,0 +1,174 @@
+package framework.views;
+
+import framework.util.BeanMetadata;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sérialiseurs JSON par classe, construits une seule fois (réflexion au premier usage) puis en cache.
+ * - bean : ses getters (getX/isX), noms de champs pré-échappés et pré-encodés en UTF-8 ;
+ * - record : ses composants, dans l'ordre de déclaration ;
+ * - enum : son nom ; java.time et autres types du JDK : leur toString() ; Optional : sa valeur ou null.
+ */
+final class JsonSerializers {
+    private static final ConcurrentHashMap<Class<?>, Serializer> CACHE = new ConcurrentHashMap<>();
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    // au-delà, on suppose une référence circulaire entre objets
+    static final int MAX_DEPTH = 64;
+
+    private JsonSerializers() {}
+
+    interface Serializer {
+        void write(JsonWriter w, Object value) throws IOException;
+    }
+
+    static Serializer forClass(Class<?> cls) {
+        return CACHE.computeIfAbsent(cls, JsonSerializers::create);
+    }
+
+    private static Serializer create(Class<?> cls) {
+        if (cls.isEnum() || (cls.getSuperclass() != null && cls.getSuperclass().isEnum())) {
+            return (w, v) -> w.writeString(((Enum<?>) v).name());
+        }
+        if (cls == Optional.class) {
+            return (w, v) -> w.writeValue(((Optional<?>) v).orElse(null));
+        }
+        if (isValueType(cls)) {
+            return TO_STRING;
+        }
+
+        List<PropertyWriter> properties = cls.isRecord() ? recordProperties(cls) : beanProperties(cls);
+        if (properties.isEmpty()) {
+            // aucune propriété lisible : comportement historique (toString)
+            return TO_STRING;
+        }
+        return new BeanSerializer(properties.toArray(new PropertyWriter[0]));
+    }
+
+    private static final Serializer TO_STRING = (w, v) -> w.writeString(String.valueOf(v));
+
+    // types du JDK (java.time, UUID, Date, URI...) : écrits via toString(), jamais décomposés
+    private static boolean isValueType(Class<?> cls) {
+        String name = cls.getName();
+        return cls.isPrimitive() || name.startsWith("java.") || name.startsWith("javax.")
+                || name.startsWith("jakarta.") || name.startsWith("jdk.") || name.startsWith("sun.");
+    }
+
+    private static List<PropertyWriter> beanProperties(Class<?> cls) {
+        List<PropertyWriter> result = new ArrayList<>();
+        for (Map.Entry<String, BeanMetadata.Property> entry : BeanMetadata.of(cls).properties().entrySet()) {
+            BeanMetadata.Property property = entry.getValue();
+            if (!property.isReadable()) continue;
+            result.add(new PropertyWriter(decapitalize(entry.getKey()), property::get));
+        }
+        return result;
+    }
+
+    // composants d'un record, dans l'ordre de déclaration
+    private static List<PropertyWriter> recordProperties(Class<?> cls) {
+        List<PropertyWriter> result = new ArrayList<>();
+        MethodHandles.Lookup lookup = lookupFor(cls);
+        for (RecordComponent component : cls.getRecordComponents()) {
+            try {
+                Method accessor = component.getAccessor();
+                MethodHandle handle;
+                if (lookup != null) {
+                    handle = lookup.unreflect(accessor);
+                } else {
+                    accessor.setAccessible(true);
+                    handle = MethodHandles.lookup().unreflect(accessor);
+                }
+                MethodHandle getter = handle.asType(GETTER_TYPE);
+                result.add(new PropertyWriter(component.getName(), bean -> invokeGetter(getter, bean)));
+            } catch (IllegalAccessException | RuntimeException e) {
+                // composant sans accesseur accessible : ignoré
+            }
+        }
+        return result;
+    }
+
+    private static Object invokeGetter(MethodHandle getter, Object bean) throws Exception {
+        try {
+            return (Object) getter.invokeExact(bean);
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    private static MethodHandles.Lookup lookupFor(Class<?> cls) {
+        try {
+            return MethodHandles.privateLookupIn(cls, MethodHandles.lookup());
+        } catch (IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    // même règle que java.beans.Introspector : "URL" reste "URL", "Nom" devient "nom"
+    private static String decapitalize(String name) {
+        if (name.length() > 1 && Character.isUpperCase(name.charAt(1)) && Character.isUpperCase(name.charAt(0))) {
+            return name;
+        }
+        return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private interface Accessor {
+        Object get(Object bean) throws Exception;
+    }
+
+    private static final class PropertyWriter {
+        private final byte[] name;       // "nom": déjà échappé et encodé
+        private final byte[] nameWithComma;
+        private final Accessor accessor;
+
+        PropertyWriter(String name, Accessor accessor) {
+            byte[] encoded = JsonWriter.encodeString(name);
+            this.name = new byte[encoded.length + 1];
+            System.arraycopy(encoded, 0, this.name, 0, encoded.length);
+            this.name[encoded.length] = ':';
+            this.nameWithComma = new byte[this.name.length + 1];
+            this.nameWithComma[0] = ',';
+            System.arraycopy(this.name, 0, this.nameWithComma, 1, this.name.length);
+            this.accessor = accessor;
+        }
+    }
+
+    private static final class BeanSerializer implements Serializer {
+        private final PropertyWriter[] properties;
+
+        BeanSerializer(PropertyWriter[] properties) {
+            this.properties = properties;
+        }
+
+        @Override
+        public void write(JsonWriter w, Object bean) throws IOException {
+            w.writeByte('{');
+            for (int i = 0; i < properties.length; i++) {
+                PropertyWriter property = properties[i];
+                Object value;
+                try {
+                    value = property.accessor.get(bean);
+                } catch (IOException | RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new IOException("Lecture impossible de " + bean.getClass().getName(), e);
+                }
+                w.writeRaw(i == 0 ? property.name : property.nameWithComma);
+                w.writeValue(value);
+            }
+            w.writeByte('}');
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package framework.views;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Écrivain JSON en flux : encode directement en UTF-8 dans un tampon d'octets réutilisé
+ * (un par thread) qui est vidé dans le flux de sortie, sans construire le document en mémoire.
+ * Les chaînes sans caractère spécial passent par un chemin rapide ; l'échappement est tabulé.
+ *
+ * Usage : try (JsonWriter w = new JsonWriter(out)) { w.writeValue(v); }
+ * close() vide le tampon et le rend au thread, sans fermer le flux sous-jacent.
+ */
+public final class JsonWriter implements Closeable {
+    private static final int BUFFER_SIZE = 8192;
+    private static final ThreadLocal<byte[]> BUFFERS = new ThreadLocal<>();
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes();
+    private static final byte[] NULL = { 'n', 'u', 'l', 'l' };
+    private static final byte[] TRUE = { 't', 'r', 'u', 'e' };
+    private static final byte[] FALSE = { 'f', 'a', 'l', 's', 'e' };
+    private static final byte[] MIN_LONG = Long.toString(Long.MIN_VALUE).getBytes();
+
+    // séquence d'échappement pour chaque caractère ASCII qui en a besoin, null sinon
+    private static final byte[][] ESCAPES = new byte[128][];
+
+    static {
+        for (int c = 0; c < 0x20; c++) {
+            ESCAPES[c] = new byte[] { '\\', 'u', '0', '0', HEX[c >> 4], HEX[c & 0xF] };
+        }
+        ESCAPES['"'] = new byte[] { '\\', '"' };
+        ESCAPES['\\'] = new byte[] { '\\', '\\' };
+        ESCAPES['\b'] = new byte[] { '\\', 'b' };
+        ESCAPES['\f'] = new byte[] { '\\', 'f' };
+        ESCAPES['\n'] = new byte[] { '\\', 'n' };
+        ESCAPES['\r'] = new byte[] { '\\', 'r' };
+        ESCAPES['\t'] = new byte[] { '\\', 't' };
+    }
+
+    private final OutputStream out;
+    private byte[] buffer;
+    private int position;
+    private int depth;
+
+    public JsonWriter(OutputStream out) {
+        this.out = out;
+        byte[] reused = BUFFERS.get();
+        if (reused != null) {
+            // retiré du thread pendant l'usage : un écrivain imbriqué prendra un nouveau tampon
+            BUFFERS.remove();
+            this.buffer = reused;
+        } else {
+            this.buffer = new byte[BUFFER_SIZE];
+        }
+    }
+
+    /**
+     * Écrit une valeur : Map, tableau, Collection, Number, Boolean, String, null ;
+     * un bean ou un record devient un objet JSON (ses getters / composants), un enum son nom,
+     * Optional sa valeur ; les autres types du JDK (java.time, UUID...) sont écrits via toString().
+     */
+    public void writeValue(Object v) throws IOException {
+        if (v == null) { writeRaw(NULL); return; }
+        if (v instanceof String) { writeString((String) v); return; }
+        if (v instanceof Integer || v instanceof Long || v instanceof Short || v instanceof Byte) {
+            writeLong(((Number) v).longValue());
+            return;
+        }
+        if (v instanceof Number) { writeAscii(v.toString()); return; }
+        if (v instanceof Boolean) { writeRaw((Boolean) v ? TRUE : FALSE); return; }
+        if (v instanceof Map) {
+            writeByte('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> e : ((Map<?, ?>) v).entrySet()) {
+                if (!first) writeByte(',');
+                first = false;
+                writeString(String.valueOf(e.getKey()));
+                writeByte(':');
+                writeValue(e.getValue());
+            }
+            writeByte('}');
+            return;
+        }
+        if (v instanceof String[]) {
+            writeByte('[');
+            String[] a = (String[]) v;
+            for (int i = 0; i < a.length; i++) {
+                if (i > 0) writeByte(',');
+                // une entrée null d'un String[] s'écrit "" (format historique)
+                writeString(a[i] != null ? a[i] : "");
+            }
+            writeByte(']');
+            return;
+        }
+        if (v.getClass().isArray()) {
+            writeByte('[');
+            int len = java.lang.reflect.Array.getLength(v);
+            for (int i = 0; i < len; i++) {
+                if (i > 0) writeByte(',');
+                writeValue(java.lang.reflect.Array.get(v, i));
+            }
+            writeByte(']');
+            return;
+        }
+        if (v instanceof Collection) {
+            writeByte('[');
+            Iterator<?> it = ((Collection<?>) v).iterator();
+            boolean first = true;
+            while (it.hasNext()) {
+                if (!first) writeByte(',');
+                first = false;
+                writeValue(it.next());
+            }
+            writeByte(']');
+            return;
+        }
+        // Objets : sérialiseur de la classe (bean, record, enum, java.time, Optional), construit une fois
+        if (++depth > JsonSerializers.MAX_DEPTH) {
+            throw new IOException("Profondeur JSON maximale dépassée (référence circulaire ?) : " + v.getClass().getName());
+        }
+        try {
+            JsonSerializers.forClass(v.getClass()).write(this, v);
+        } finally {
+            depth--;
+        }
+    }
+
+    /**
+     * Écrit une chaîne entre guillemets, échappée ; null s'écrit "".
+     */
+    public void writeString(String s) throws IOException {
+        writeByte('"');
+        if (s != null) writeEscaped(s);
+        writeByte('"');
+    }
+
+    /**
+     * Écrit un nom de champ suivi de ':'.
+     */
+    public void writeName(String name) throws IOException {
+        writeString(name);
+        writeByte(':');
+    }
+
+    public void writeLong(long value) throws IOException {
+        if (value == Long.MIN_VALUE) { writeRaw(MIN_LONG); return; }
+        if (value < 0) {
+            writeByte('-');
+            value = -value;
+        }
+        if (buffer.length - position < 20) flushBuffer();
+        // chiffres écrits à l'envers puis retournés, sans allocation
+        int start = position;
+        do {
+            buffer[position++] = (byte) ('0' + (value % 10));
+            value /= 10;
+        } while (value != 0);
+        for (int i = start, j = position - 1; i < j; i++, j--) {
+            byte tmp = buffer[i];
+            buffer[i] = buffer[j];
+            buffer[j] = tmp;
+        }
+    }
+
+    public void writeByte(int b) throws IOException {
+        if (position == buffer.length) flushBuffer();
+        buffer[position++] = (byte) b;
+    }
+
+    /**
+     * Écrit des octets déjà encodés (ex: noms de champs pré-encodés).
+     */
+    public void writeRaw(byte[] bytes) throws IOException {
+        if (bytes.length > buffer.length - position) {
+            flushBuffer();
+            if (bytes.length > buffer.length) {
+                out.write(bytes);
+                return;
+            }
+        }
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    public void flush() throws IOException {
+        flushBuffer();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (buffer == null) return;
+        try {
+            flushBuffer();
+        } finally {
+            BUFFERS.set(buffer);
+            buffer = null;
+        }
+    }
+
+    /**
+     * Encode une chaîne comme le ferait writeString, en octets UTF-8 (pour pré-encoder des noms de champs).
+     */
+    public static byte[] encodeString(String s) {
+        java.io.ByteArrayOutputStream bytes = new java.io.ByteArrayOutputStream(s.length() + 2);
+        try (JsonWriter writer = new JsonWriter(bytes)) {
+            writer.writeString(s);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private void writeAscii(String s) throws IOException {
+        int len = s.length();
+        for (int i = 0; i < len; i++) writeByte(s.charAt(i));
+    }
+
+    private void writeEscaped(String s) throws IOException {
+        int len = s.length();
+        int i = 0;
+        while (i < len) {
+            // chemin rapide : ASCII sans échappement, copié d'un bloc dans le tampon
+            int room = buffer.length - position;
+            if (room < 6) {
+                flushBuffer();
+                room = buffer.length;
+            }
+            int end = Math.min(len, i + room);
+            byte[] buf = buffer;
+            int pos = position;
+            while (i < end) {
+                char c = s.charAt(i);
+                if (c >= 0x80 || ESCAPES[c] != null) break;
+                buf[pos++] = (byte) c;
+                i++;
+            }
+            position = pos;
+            if (i >= len) return;
+            if (i < end) {
+                i = writeSpecial(s, i, len);
+            }
+        }
+    }
+
+    // écrit le caractère à l'index i (échappé ou encodé en UTF-8) ; renvoie l'index suivant
+    private int writeSpecial(String s, int i, int len) throws IOException {
+        char c = s.charAt(i);
+        if (c < 0x80) {
+            writeRaw(ESCAPES[c]);
+            return i + 1;
+        }
+        if (buffer.length - position < 4) flushBuffer();
+        if (c < 0x800) {
+            buffer[position++] = (byte) (0xC0 | (c >> 6));
+            buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            return i + 1;
+        }
+        if (Character.isHighSurrogate(c) && i + 1 < len && Character.isLowSurrogate(s.charAt(i + 1))) {
+            int cp = Character.toCodePoint(c, s.charAt(i + 1));
+            buffer[position++] = (byte) (0xF0 | (cp >> 18));
+            buffer[position++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+            buffer[position++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+            buffer[position++] = (byte) (0x80 | (cp & 0x3F));
+            return i + 2;
+        }
+        if (Character.isSurrogate(c)) {
+            // surrogate isolé : remplacé par '?' comme le fait l'encodeur UTF-8 standard
+            buffer[position++] = '?';
+            return i + 1;
+        }
+        buffer[position++] = (byte) (0xE0 | (c >> 12));
+        buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+        buffer[position++] = (byte) (0x80 | (c & 0x3F));
+        return i + 1;
+    }
+
+    private void flushBuffer() throws IOException {
+        if (position > 0) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+}